@@ -0,0 +1,20 @@
+package com.planiarback.planiar.config;
+
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Meter filters. As beans, Boot applies them to every registry before any meter is registered;
+ * a filter added later through registry.config() does not affect meters that already exist.
+ */
+@Configuration
+public class MetricsConfig {
+
+    // gemini.user.calls is tagged per user; stop creating new series past the cap
+    @Bean
+    public MeterFilter geminiUserTagLimit(@Value("${gemini.metrics.maxUserTags:500}") int maxUserTags) {
+        return MeterFilter.maximumAllowableTags("gemini.user.calls", "user", maxUserTags, MeterFilter.deny());
+    }
+}
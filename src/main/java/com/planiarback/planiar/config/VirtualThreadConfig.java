@@ -0,0 +1,158 @@
+package com.planiarback.planiar.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Opt-in virtual-thread mode (spring.threads.virtual.enabled=true).
+ * Spring Boot already moves Tomcat request handling and the @Async executor to virtual threads
+ * when the property is set; this class adds the JDBC concurrency limiter that keeps thousands of
+ * virtual threads from stampeding a 6-connection pool. Nothing here is active otherwise.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+@EnableAsync
+public class VirtualThreadConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    /**
+     * Wrap the pool so that at most maximum-pool-size threads are inside JDBC at once.
+     * Waiting happens on a fair Semaphore (which parks virtual threads without pinning a carrier)
+     * instead of inside driver/pool code, and any synchronized section the driver still has can
+     * only ever pin as many carriers as there are connections. The wrapper unwraps to the pool
+     * (DelegatingDataSource.unwrap), which is how Boot's Hikari metrics and pool metadata find it.
+     */
+    @Bean
+    public static BeanPostProcessor jdbcConcurrencyLimiter(Environment env) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource ds) || bean instanceof ConcurrencyLimitedDataSource) return bean;
+                int permits = env.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+                long timeoutMs = env.getProperty("spring.datasource.hikari.connection-timeout", Long.class, 30000L);
+                if (ds instanceof HikariDataSource hikari) {
+                    permits = hikari.getMaximumPoolSize();
+                    timeoutMs = hikari.getConnectionTimeout();
+                }
+                logger.info("Virtual threads enabled: limiting concurrent JDBC access on '{}' to {} connections", beanName, permits);
+                return new ConcurrencyLimitedDataSource(ds, permits, timeoutMs);
+            }
+        };
+    }
+
+    /**
+     * DataSource that holds a permit for as long as a borrowed connection is open.
+     */
+    static class ConcurrencyLimitedDataSource extends DelegatingDataSource implements AutoCloseable {
+
+        private final Semaphore permits;
+        private final long timeoutMs;
+
+        ConcurrencyLimitedDataSource(DataSource target, int maxConcurrent, long timeoutMs) {
+            super(target);
+            this.permits = new Semaphore(Math.max(1, maxConcurrent), true);
+            this.timeoutMs = timeoutMs;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            acquire();
+            try {
+                return limited(obtainTargetDataSource().getConnection());
+            } catch (SQLException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            acquire();
+            try {
+                return limited(obtainTargetDataSource().getConnection(username, password));
+            } catch (SQLException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        // Let Spring's inferred destroy method still close the underlying pool
+        @Override
+        public void close() throws Exception {
+            if (obtainTargetDataSource() instanceof AutoCloseable closeable) closeable.close();
+        }
+
+        private void acquire() throws SQLException {
+            try {
+                if (!permits.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+                    throw new SQLTransientConnectionException(
+                            "JDBC concurrency limit reached, no connection available after " + timeoutMs + "ms");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLTransientConnectionException("Interrupted while waiting for a JDBC connection", e);
+            }
+        }
+
+        private Connection limited(Connection target) {
+            return (Connection) Proxy.newProxyInstance(
+                    ConnectionProxy.class.getClassLoader(),
+                    new java.lang.Class<?>[]{ConnectionProxy.class},
+                    new PermitReleasingHandler(target, permits));
+        }
+    }
+
+    private static class PermitReleasingHandler implements InvocationHandler {
+        private final Connection target;
+        private final Semaphore permits;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        PermitReleasingHandler(Connection target, Semaphore permits) {
+            this.target = target;
+            this.permits = permits;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "getTargetConnection": return target;
+                case "equals": return proxy == args[0];
+                case "hashCode": return System.identityHashCode(proxy);
+                case "toString": return "Limited[" + target + "]";
+                default: break;
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            } finally {
+                if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                    permits.release();
+                }
+            }
+        }
+    }
+}
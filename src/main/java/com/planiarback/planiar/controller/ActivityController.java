@@ -57,9 +57,11 @@ public class ActivityController {
      * GET /api/activities/user/{userId}
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Activity>> getAllActivitiesByUser(@PathVariable Long userId) {
-        List<Activity> activities = activityService.getAllActivitiesByUser(userId);
-        return ResponseEntity.ok(activities);
+    public ResponseEntity<?> getAllActivitiesByUser(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(() -> activityService.getAllActivitiesByUser(userId, after, limit));
     }
 
     /**
@@ -67,9 +69,11 @@ public class ActivityController {
      * GET /api/activities/user/{userId}/ordered
      */
     @GetMapping("/user/{userId}/ordered")
-    public ResponseEntity<List<Activity>> getActivitiesOrdered(@PathVariable Long userId) {
-        List<Activity> activities = activityService.getActivitiesByUserOrderedByDate(userId);
-        return ResponseEntity.ok(activities);
+    public ResponseEntity<?> getActivitiesOrdered(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(() -> activityService.getActivitiesByUserOrderedByDate(userId, after, limit));
     }
 
     /**
@@ -77,13 +81,14 @@ public class ActivityController {
      * GET /api/activities/user/{userId}/active?date=2024-03-15
      */
     @GetMapping("/user/{userId}/active")
-    public ResponseEntity<List<Activity>> getActiveActivitiesOnDate(
+    public ResponseEntity<?> getActiveActivitiesOnDate(
             @PathVariable Long userId,
-            @RequestParam(required = false) String date) {
+            @RequestParam(required = false) String date,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
         
         LocalDate targetDate = date != null ? LocalDate.parse(date) : LocalDate.now();
-        List<Activity> activities = activityService.getActiveActivitiesOnDate(userId, targetDate);
-        return ResponseEntity.ok(activities);
+        return PageResponses.ok(() -> activityService.getActiveActivitiesOnDate(userId, targetDate, after, limit));
     }
 
     /**
@@ -91,9 +96,11 @@ public class ActivityController {
      * GET /api/activities/user/{userId}/today
      */
     @GetMapping("/user/{userId}/today")
-    public ResponseEntity<List<Activity>> getActiveActivitiesToday(@PathVariable Long userId) {
-        List<Activity> activities = activityService.getActiveActivitiesToday(userId);
-        return ResponseEntity.ok(activities);
+    public ResponseEntity<?> getActiveActivitiesToday(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(() -> activityService.getActiveActivitiesToday(userId, after, limit));
     }
 
     /**
@@ -101,9 +108,11 @@ public class ActivityController {
      * GET /api/activities/user/{userId}/schedule/today
      */
     @GetMapping("/user/{userId}/schedule/today")
-    public ResponseEntity<List<Activity>> getTodaySchedule(@PathVariable Long userId) {
-        List<Activity> activities = activityService.getTodaySchedule(userId);
-        return ResponseEntity.ok(activities);
+    public ResponseEntity<?> getTodaySchedule(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(() -> activityService.getTodaySchedule(userId, after, limit));
     }
 
     /**
@@ -114,11 +123,12 @@ public class ActivityController {
     @GetMapping("/user/{userId}/day-of-week/{dayOfWeek}")
     public ResponseEntity<?> getActivitiesByDayOfWeek(
             @PathVariable Long userId,
-            @PathVariable String dayOfWeek) {
+            @PathVariable String dayOfWeek,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
         try {
             DayOfWeek day = DayOfWeek.valueOf(dayOfWeek.toUpperCase());
-            List<Activity> activities = activityService.getActivitiesByDayOfWeek(userId, day);
-            return ResponseEntity.ok(activities);
+            return PageResponses.ok(() -> activityService.getActivitiesByDayOfWeek(userId, day, after, limit));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest()
                     .body(Map.of("error", "Día de la semana inválido: " + dayOfWeek));
@@ -130,11 +140,12 @@ public class ActivityController {
      * GET /api/activities/user/{userId}/color/{color}
      */
     @GetMapping("/user/{userId}/color/{color}")
-    public ResponseEntity<List<Activity>> getActivitiesByColor(
+    public ResponseEntity<?> getActivitiesByColor(
             @PathVariable Long userId,
-            @PathVariable String color) {
-        List<Activity> activities = activityService.getActivitiesByColor(userId, color);
-        return ResponseEntity.ok(activities);
+            @PathVariable String color,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(() -> activityService.getActivitiesByColor(userId, color, after, limit));
     }
 
     /**
@@ -142,14 +153,15 @@ public class ActivityController {
      * GET /api/activities/user/{userId}/range?startDate=2024-03-01&endDate=2024-03-31
      */
     @GetMapping("/user/{userId}/range")
-    public ResponseEntity<List<Activity>> getActivitiesInRange(
+    public ResponseEntity<?> getActivitiesInRange(
             @PathVariable Long userId,
             @RequestParam String startDate,
-            @RequestParam String endDate) {
+            @RequestParam String endDate,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
         LocalDate start = LocalDate.parse(startDate);
         LocalDate end = LocalDate.parse(endDate);
-        List<Activity> activities = activityService.getActivitiesInRange(userId, start, end);
-        return ResponseEntity.ok(activities);
+        return PageResponses.ok(() -> activityService.getActivitiesInRange(userId, start, end, after, limit));
     }
 
     /**
@@ -157,11 +169,12 @@ public class ActivityController {
      * GET /api/activities/user/{userId}/search?title=Gimnasio
      */
     @GetMapping("/user/{userId}/search")
-    public ResponseEntity<List<Activity>> searchActivitiesByTitle(
+    public ResponseEntity<?> searchActivitiesByTitle(
             @PathVariable Long userId,
-            @RequestParam String title) {
-        List<Activity> activities = activityService.searchActivitiesByTitle(userId, title);
-        return ResponseEntity.ok(activities);
+            @RequestParam String title,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(() -> activityService.searchActivitiesByTitle(userId, title, after, limit));
     }
 
     /**
@@ -169,9 +182,11 @@ public class ActivityController {
      * GET /api/activities/user/{userId}/future
      */
     @GetMapping("/user/{userId}/future")
-    public ResponseEntity<List<Activity>> getFutureActivities(@PathVariable Long userId) {
-        List<Activity> activities = activityService.getFutureActivities(userId);
-        return ResponseEntity.ok(activities);
+    public ResponseEntity<?> getFutureActivities(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(() -> activityService.getFutureActivities(userId, after, limit));
     }
 
     /**
@@ -179,9 +194,11 @@ public class ActivityController {
      * GET /api/activities/user/{userId}/past
      */
     @GetMapping("/user/{userId}/past")
-    public ResponseEntity<List<Activity>> getPastActivities(@PathVariable Long userId) {
-        List<Activity> activities = activityService.getPastActivities(userId);
-        return ResponseEntity.ok(activities);
+    public ResponseEntity<?> getPastActivities(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(() -> activityService.getPastActivities(userId, after, limit));
     }
 
     /**
@@ -189,12 +206,13 @@ public class ActivityController {
      * GET /api/activities/user/{userId}/date/{date}
      */
     @GetMapping("/user/{userId}/date/{date}")
-    public ResponseEntity<List<Activity>> getActivitiesByUserAndDate(
+    public ResponseEntity<?> getActivitiesByUserAndDate(
             @PathVariable Long userId,
-            @PathVariable String date) {
+            @PathVariable String date,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
         LocalDate parsedDate = LocalDate.parse(date);
-        List<Activity> activities = activityService.getActivitiesByUserAndDate(userId, parsedDate);
-        return ResponseEntity.ok(activities);
+        return PageResponses.ok(() -> activityService.getActivitiesByUserAndDate(userId, parsedDate, after, limit));
     }
 
     /**
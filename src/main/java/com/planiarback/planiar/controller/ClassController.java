@@ -40,9 +40,10 @@ public class ClassController {
      * GET /api/classes
      */
     @GetMapping
-    public ResponseEntity<List<Class>> getAllClasses() {
-        List<Class> classes = classService.getAllClasses();
-        return ResponseEntity.ok(classes);
+    public ResponseEntity<?> getAllClasses(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(() -> classService.getAllClasses(after, limit));
     }
 
     /**
@@ -50,9 +51,11 @@ public class ClassController {
      * GET /api/classes/user/{userId}
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Class>> getAllClassesByUser(@PathVariable Long userId) {
-        List<Class> classes = classService.getAllClassesByUser(userId);
-        return ResponseEntity.ok(classes);
+    public ResponseEntity<?> getAllClassesByUser(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(() -> classService.getAllClassesByUser(userId, after, limit));
     }
 
     /**
@@ -60,9 +63,11 @@ public class ClassController {
      * GET /api/classes/user/{userId}/ordered
      */
     @GetMapping("/user/{userId}/ordered")
-    public ResponseEntity<List<Class>> getClassesOrdered(@PathVariable Long userId) {
-        List<Class> classes = classService.getClassesOrderedByTitle(userId);
-        return ResponseEntity.ok(classes);
+    public ResponseEntity<?> getClassesOrdered(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(() -> classService.getClassesOrderedByTitle(userId, after, limit));
     }
 
     /**
@@ -70,9 +75,11 @@ public class ClassController {
      * GET /api/classes/user/{userId}/ordered-by-date
      */
     @GetMapping("/user/{userId}/ordered-by-date")
-    public ResponseEntity<List<Class>> getClassesOrderedByDate(@PathVariable Long userId) {
-        List<Class> classes = classService.getClassesOrderedByDate(userId);
-        return ResponseEntity.ok(classes);
+    public ResponseEntity<?> getClassesOrderedByDate(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(() -> classService.getClassesOrderedByDate(userId, after, limit));
     }
 
     /**
@@ -113,9 +120,11 @@ public class ClassController {
      * GET /api/classes/search?title=fisica
      */
     @GetMapping("/search")
-    public ResponseEntity<List<Class>> searchClassesByTitle(@RequestParam String title) {
-        List<Class> classes = classService.searchClassesByTitle(title);
-        return ResponseEntity.ok(classes);
+    public ResponseEntity<?> searchClassesByTitle(
+            @RequestParam String title,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(() -> classService.searchClassesByTitle(title, after, limit));
     }
 
     /**
@@ -123,11 +132,12 @@ public class ClassController {
      * GET /api/classes/user/{userId}/search?title=fisica
      */
     @GetMapping("/user/{userId}/search")
-    public ResponseEntity<List<Class>> searchClassesByTitleAndUser(
+    public ResponseEntity<?> searchClassesByTitleAndUser(
             @PathVariable Long userId,
-            @RequestParam String title) {
-        List<Class> classes = classService.searchClassesByTitleAndUser(userId, title);
-        return ResponseEntity.ok(classes);
+            @RequestParam String title,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(() -> classService.searchClassesByTitleAndUser(userId, title, after, limit));
     }
 
     /**
@@ -135,12 +145,13 @@ public class ClassController {
      * GET /api/classes/user/{userId}/active?date=2024-03-15
      */
     @GetMapping("/user/{userId}/active")
-    public ResponseEntity<List<Class>> getActiveClassesOnDate(
+    public ResponseEntity<?> getActiveClassesOnDate(
             @PathVariable Long userId,
-            @RequestParam(required = false) String date) {
+            @RequestParam(required = false) String date,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
         LocalDate targetDate = date != null ? LocalDate.parse(date) : LocalDate.now();
-        List<Class> classes = classService.getActiveClassesOnDate(userId, targetDate);
-        return ResponseEntity.ok(classes);
+        return PageResponses.ok(() -> classService.getActiveClassesOnDate(userId, targetDate, after, limit));
     }
 
     /**
@@ -148,9 +159,11 @@ public class ClassController {
      * GET /api/classes/user/{userId}/today
      */
     @GetMapping("/user/{userId}/today")
-    public ResponseEntity<List<Class>> getActiveClassesToday(@PathVariable Long userId) {
-        List<Class> classes = classService.getActiveClassesToday(userId);
-        return ResponseEntity.ok(classes);
+    public ResponseEntity<?> getActiveClassesToday(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(() -> classService.getActiveClassesToday(userId, after, limit));
     }
 
     /**
@@ -158,11 +171,12 @@ public class ClassController {
      * GET /api/classes/user/{userId}/color/{color}
      */
     @GetMapping("/user/{userId}/color/{color}")
-    public ResponseEntity<List<Class>> getClassesByColor(
+    public ResponseEntity<?> getClassesByColor(
             @PathVariable Long userId,
-            @PathVariable String color) {
-        List<Class> classes = classService.getClassesByColor(userId, color);
-        return ResponseEntity.ok(classes);
+            @PathVariable String color,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(() -> classService.getClassesByColor(userId, color, after, limit));
     }
 
     /**
@@ -170,14 +184,15 @@ public class ClassController {
      * GET /api/classes/user/{userId}/range?startDate=2024-03-01&endDate=2024-03-31
      */
     @GetMapping("/user/{userId}/range")
-    public ResponseEntity<List<Class>> getClassesInRange(
+    public ResponseEntity<?> getClassesInRange(
             @PathVariable Long userId,
             @RequestParam String startDate,
-            @RequestParam String endDate) {
+            @RequestParam String endDate,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
         LocalDate start = LocalDate.parse(startDate);
         LocalDate end = LocalDate.parse(endDate);
-        List<Class> classes = classService.getClassesInRange(userId, start, end);
-        return ResponseEntity.ok(classes);
+        return PageResponses.ok(() -> classService.getClassesInRange(userId, start, end, after, limit));
     }
 
     /**
@@ -185,9 +200,11 @@ public class ClassController {
      * GET /api/classes/user/{userId}/future
      */
     @GetMapping("/user/{userId}/future")
-    public ResponseEntity<List<Class>> getFutureClasses(@PathVariable Long userId) {
-        List<Class> classes = classService.getFutureClasses(userId);
-        return ResponseEntity.ok(classes);
+    public ResponseEntity<?> getFutureClasses(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(() -> classService.getFutureClasses(userId, after, limit));
     }
 
     /**
@@ -195,9 +212,11 @@ public class ClassController {
      * GET /api/classes/user/{userId}/past
      */
     @GetMapping("/user/{userId}/past")
-    public ResponseEntity<List<Class>> getPastClasses(@PathVariable Long userId) {
-        List<Class> classes = classService.getPastClasses(userId);
-        return ResponseEntity.ok(classes);
+    public ResponseEntity<?> getPastClasses(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(() -> classService.getPastClasses(userId, after, limit));
     }
 
     /**
@@ -205,11 +224,12 @@ public class ClassController {
      * GET /api/classes/user/{userId}/professor?professor=Garcia
      */
     @GetMapping("/user/{userId}/professor")
-    public ResponseEntity<List<Class>> searchClassesByProfessor(
+    public ResponseEntity<?> searchClassesByProfessor(
             @PathVariable Long userId,
-            @RequestParam String professor) {
-        List<Class> classes = classService.searchClassesByProfessor(userId, professor);
-        return ResponseEntity.ok(classes);
+            @RequestParam String professor,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(() -> classService.searchClassesByProfessor(userId, professor, after, limit));
     }
 
     /**
@@ -217,11 +237,12 @@ public class ClassController {
      * GET /api/classes/user/{userId}/room?room=ML203
      */
     @GetMapping("/user/{userId}/room")
-    public ResponseEntity<List<Class>> searchClassesByRoom(
+    public ResponseEntity<?> searchClassesByRoom(
             @PathVariable Long userId,
-            @RequestParam String room) {
-        List<Class> classes = classService.searchClassesByRoom(userId, room);
-        return ResponseEntity.ok(classes);
+            @RequestParam String room,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(() -> classService.searchClassesByRoom(userId, room, after, limit));
     }
 
     /**
@@ -232,14 +253,15 @@ public class ClassController {
     @GetMapping("/user/{userId}/day-of-week/{dayOfWeek}")
     public ResponseEntity<?> getClassesByDayOfWeek(
             @PathVariable Long userId,
-            @PathVariable int dayOfWeek) {
+            @PathVariable int dayOfWeek,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
         try {
             if (dayOfWeek < 0 || dayOfWeek > 6) {
                 return ResponseEntity.badRequest()
                         .body(Map.of("error", "Día de la semana inválido. Use 0-6 (Dom-Sab)"));
             }
-            List<Class> classes = classService.getClassesByDayOfWeek(userId, dayOfWeek);
-            return ResponseEntity.ok(classes);
+            return PageResponses.ok(() -> classService.getClassesByDayOfWeek(userId, dayOfWeek, after, limit));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error al obtener clases"));
@@ -251,12 +273,13 @@ public class ClassController {
      * GET /api/classes/user/{userId}/date/{date}
      */
     @GetMapping("/user/{userId}/date/{date}")
-    public ResponseEntity<List<Class>> getClassesByUserAndDate(
+    public ResponseEntity<?> getClassesByUserAndDate(
             @PathVariable Long userId,
-            @PathVariable String date) {
+            @PathVariable String date,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
         LocalDate parsedDate = LocalDate.parse(date);
-        List<Class> classes = classService.getClassesByUserAndDate(userId, parsedDate);
-        return ResponseEntity.ok(classes);
+        return PageResponses.ok(() -> classService.getClassesByUserAndDate(userId, parsedDate, after, limit));
     }
 
     /**
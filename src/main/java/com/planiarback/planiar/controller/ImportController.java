@@ -0,0 +1,45 @@
+package com.planiarback.planiar.controller;
+
+import com.planiarback.planiar.service.BulkImportService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/import")
+public class ImportController {
+
+    private static final String TEXT_CSV = "text/csv";
+
+    private final BulkImportService importService;
+
+    public ImportController(BulkImportService importService) {
+        this.importService = importService;
+    }
+
+    /**
+     * Importar en bloque clases, actividades y tareas de un usuario
+     * POST /api/import/user/{userId}
+     * Content-Type: application/json (arreglo de filas) o text/csv (fila de encabezado con los
+     * nombres de los campos). Cada fila indica su tipo en "kind": class, activity o task.
+     */
+    @PostMapping(value = "/user/{userId}", consumes = {MediaType.APPLICATION_JSON_VALUE, TEXT_CSV})
+    public ResponseEntity<?> importSchedule(@PathVariable Long userId,
+                                            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                            InputStream body) {
+        BulkImportService.Format format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType(TEXT_CSV))
+                ? BulkImportService.Format.CSV : BulkImportService.Format.JSON;
+        try {
+            return ResponseEntity.ok(importService.importSchedule(userId, body, format));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "No se pudo leer el documento: " + e.getMessage()));
+        }
+    }
+}
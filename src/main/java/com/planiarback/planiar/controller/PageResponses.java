@@ -0,0 +1,26 @@
+package com.planiarback.planiar.controller;
+
+import com.planiarback.planiar.repository.KeysetPage;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Response of the paginated list endpoints: {"items": [...], "nextCursor": ...}, where nextCursor
+ * is the value to send as ?after= for the next page and null on the last one, so a truncated
+ * list is always visible in the body. Bad cursors and limits are answered with 400.
+ */
+public final class PageResponses {
+
+    private PageResponses() {
+    }
+
+    public static <T> ResponseEntity<?> ok(Supplier<KeysetPage<T>> query) {
+        try {
+            return ResponseEntity.ok(query.get());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -6,7 +6,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -30,13 +29,18 @@ public class SurveyController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Survey>> getAllSurveys() {
-        return ResponseEntity.ok(surveyService.getAllSurveys());
+    public ResponseEntity<?> getAllSurveys(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(() -> surveyService.getAllSurveys(after, limit));
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Survey>> getSurveysByUser(@PathVariable Long userId) {
-        return ResponseEntity.ok(surveyService.getAllSurveysByUser(userId));
+    public ResponseEntity<?> getSurveysByUser(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(() -> surveyService.getAllSurveysByUser(userId, after, limit));
     }
 
     @GetMapping("/{id}")
@@ -9,7 +9,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
-import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -47,9 +46,10 @@ public class TaskController {
      * GET /api/tasks
      */
     @GetMapping
-    public ResponseEntity<List<Task>> getAllTasks() {
-        List<Task> tasks = taskService.getAllTasks();
-        return ResponseEntity.ok(tasks);
+    public ResponseEntity<?> getAllTasks(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(() -> taskService.getAllTasks(after, limit));
     }
 
     /**
@@ -57,9 +57,11 @@ public class TaskController {
      * GET /api/tasks/user/{userId}
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Task>> getAllTasksByUser(@PathVariable Long userId) {
-        List<Task> tasks = taskService.getAllTasksByUser(userId);
-        return ResponseEntity.ok(tasks);
+    public ResponseEntity<?> getAllTasksByUser(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(() -> taskService.getAllTasksByUser(userId, after, limit));
     }
 
     /**
@@ -67,9 +69,11 @@ public class TaskController {
      * GET /api/tasks/user/{userId}/ordered-by-date
      */
     @GetMapping("/user/{userId}/ordered-by-date")
-    public ResponseEntity<List<Task>> getTasksOrderedByDate(@PathVariable Long userId) {
-        List<Task> tasks = taskService.getTasksOrderedByDueDate(userId);
-        return ResponseEntity.ok(tasks);
+    public ResponseEntity<?> getTasksOrderedByDate(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(() -> taskService.getTasksOrderedByDueDate(userId, after, limit));
     }
 
     /**
@@ -77,9 +81,11 @@ public class TaskController {
      * GET /api/tasks/user/{userId}/ordered-by-priority
      */
     @GetMapping("/user/{userId}/ordered-by-priority")
-    public ResponseEntity<List<Task>> getTasksOrderedByPriority(@PathVariable Long userId) {
-        List<Task> tasks = taskService.getTasksOrderedByPriority(userId);
-        return ResponseEntity.ok(tasks);
+    public ResponseEntity<?> getTasksOrderedByPriority(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(() -> taskService.getTasksOrderedByPriority(userId, after, limit));
     }
 
     /**
@@ -109,11 +115,12 @@ public class TaskController {
      * GET /api/tasks/user/{userId}/search?title=tarea
      */
     @GetMapping("/user/{userId}/search")
-    public ResponseEntity<List<Task>> searchTasksByTitle(
+    public ResponseEntity<?> searchTasksByTitle(
             @PathVariable Long userId,
-            @RequestParam String title) {
-        List<Task> tasks = taskService.searchTasksByTitle(userId, title);
-        return ResponseEntity.ok(tasks);
+            @RequestParam String title,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(() -> taskService.searchTasksByTitle(userId, title, after, limit));
     }
 
     /**
@@ -121,11 +128,12 @@ public class TaskController {
      * GET /api/tasks/user/{userId}/class/{classId}
      */
     @GetMapping("/user/{userId}/class/{classId}")
-    public ResponseEntity<List<Task>> getTasksByClass(
+    public ResponseEntity<?> getTasksByClass(
             @PathVariable Long userId,
-            @PathVariable Long classId) {
-        List<Task> tasks = taskService.getTasksByClass(userId, classId);
-        return ResponseEntity.ok(tasks);
+            @PathVariable Long classId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(() -> taskService.getTasksByClass(userId, classId, after, limit));
     }
 
     /**
@@ -133,11 +141,12 @@ public class TaskController {
      * GET /api/tasks/user/{userId}/state/{state}
      */
     @GetMapping("/user/{userId}/state/{state}")
-    public ResponseEntity<List<Task>> getTasksByState(
+    public ResponseEntity<?> getTasksByState(
             @PathVariable Long userId,
-            @PathVariable String state) {
-        List<Task> tasks = taskService.getTasksByState(userId, state);
-        return ResponseEntity.ok(tasks);
+            @PathVariable String state,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(() -> taskService.getTasksByState(userId, state, after, limit));
     }
 
     /**
@@ -145,11 +154,12 @@ public class TaskController {
      * GET /api/tasks/user/{userId}/priority/{priority}
      */
     @GetMapping("/user/{userId}/priority/{priority}")
-    public ResponseEntity<List<Task>> getTasksByPriority(
+    public ResponseEntity<?> getTasksByPriority(
             @PathVariable Long userId,
-            @PathVariable String priority) {
-        List<Task> tasks = taskService.getTasksByPriority(userId, priority);
-        return ResponseEntity.ok(tasks);
+            @PathVariable String priority,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(() -> taskService.getTasksByPriority(userId, priority, after, limit));
     }
 
     /**
@@ -157,11 +167,12 @@ public class TaskController {
      * GET /api/tasks/user/{userId}/type/{type}
      */
     @GetMapping("/user/{userId}/type/{type}")
-    public ResponseEntity<List<Task>> getTasksByType(
+    public ResponseEntity<?> getTasksByType(
             @PathVariable Long userId,
-            @PathVariable String type) {
-        List<Task> tasks = taskService.getTasksByType(userId, type);
-        return ResponseEntity.ok(tasks);
+            @PathVariable String type,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(() -> taskService.getTasksByType(userId, type, after, limit));
     }
 
     /**
@@ -169,12 +180,13 @@ public class TaskController {
      * GET /api/tasks/user/{userId}/due-date/{dueDate}
      */
     @GetMapping("/user/{userId}/due-date/{dueDate}")
-    public ResponseEntity<List<Task>> getTasksByDueDate(
+    public ResponseEntity<?> getTasksByDueDate(
             @PathVariable Long userId,
-            @PathVariable String dueDate) {
+            @PathVariable String dueDate,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
         LocalDate parsedDate = LocalDate.parse(dueDate);
-        List<Task> tasks = taskService.getTasksByDueDate(userId, parsedDate);
-        return ResponseEntity.ok(tasks);
+        return PageResponses.ok(() -> taskService.getTasksByDueDate(userId, parsedDate, after, limit));
     }
 
     /**
@@ -182,14 +194,15 @@ public class TaskController {
      * GET /api/tasks/user/{userId}/range?startDate=2024-03-01&endDate=2024-03-31
      */
     @GetMapping("/user/{userId}/range")
-    public ResponseEntity<List<Task>> getTasksInRange(
+    public ResponseEntity<?> getTasksInRange(
             @PathVariable Long userId,
             @RequestParam String startDate,
-            @RequestParam String endDate) {
+            @RequestParam String endDate,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
         LocalDate start = LocalDate.parse(startDate);
         LocalDate end = LocalDate.parse(endDate);
-        List<Task> tasks = taskService.getTasksInRange(userId, start, end);
-        return ResponseEntity.ok(tasks);
+        return PageResponses.ok(() -> taskService.getTasksInRange(userId, start, end, after, limit));
     }
 
     /**
@@ -197,9 +210,11 @@ public class TaskController {
      * GET /api/tasks/user/{userId}/overdue
      */
     @GetMapping("/user/{userId}/overdue")
-    public ResponseEntity<List<Task>> getOverdueTasks(@PathVariable Long userId) {
-        List<Task> tasks = taskService.getOverdueTasks(userId);
-        return ResponseEntity.ok(tasks);
+    public ResponseEntity<?> getOverdueTasks(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(() -> taskService.getOverdueTasks(userId, after, limit));
     }
 
     /**
@@ -207,9 +222,11 @@ public class TaskController {
      * GET /api/tasks/user/{userId}/future
      */
     @GetMapping("/user/{userId}/future")
-    public ResponseEntity<List<Task>> getFutureTasks(@PathVariable Long userId) {
-        List<Task> tasks = taskService.getFutureTasks(userId);
-        return ResponseEntity.ok(tasks);
+    public ResponseEntity<?> getFutureTasks(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(() -> taskService.getFutureTasks(userId, after, limit));
     }
 
     /**
@@ -217,9 +234,11 @@ public class TaskController {
      * GET /api/tasks/user/{userId}/without-class
      */
     @GetMapping("/user/{userId}/without-class")
-    public ResponseEntity<List<Task>> getTasksWithoutClass(@PathVariable Long userId) {
-        List<Task> tasks = taskService.getTasksWithoutClass(userId);
-        return ResponseEntity.ok(tasks);
+    public ResponseEntity<?> getTasksWithoutClass(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(() -> taskService.getTasksWithoutClass(userId, after, limit));
     }
 
     /**
@@ -227,9 +246,11 @@ public class TaskController {
      * GET /api/tasks/user/{userId}/with-class
      */
     @GetMapping("/user/{userId}/with-class")
-    public ResponseEntity<List<Task>> getTasksWithClass(@PathVariable Long userId) {
-        List<Task> tasks = taskService.getTasksWithClass(userId);
-        return ResponseEntity.ok(tasks);
+    public ResponseEntity<?> getTasksWithClass(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(() -> taskService.getTasksWithClass(userId, after, limit));
     }
 
     /**
@@ -237,9 +258,11 @@ public class TaskController {
      * GET /api/tasks/user/{userId}/without-date
      */
     @GetMapping("/user/{userId}/without-due-date")
-    public ResponseEntity<List<Task>> getTasksWithoutDueDate(@PathVariable Long userId) {
-        List<Task> tasks = taskService.getTasksWithoutDueDate(userId);
-        return ResponseEntity.ok(tasks);
+    public ResponseEntity<?> getTasksWithoutDueDate(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(() -> taskService.getTasksWithoutDueDate(userId, after, limit));
     }
 
     /**
@@ -247,9 +270,11 @@ public class TaskController {
      * GET /api/tasks/user/{userId}/without-description
      */
     @GetMapping("/user/{userId}/without-description")
-    public ResponseEntity<List<Task>> getTasksWithoutDescription(@PathVariable Long userId) {
-        List<Task> tasks = taskService.getTasksWithoutDescription(userId);
-        return ResponseEntity.ok(tasks);
+    public ResponseEntity<?> getTasksWithoutDescription(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(() -> taskService.getTasksWithoutDescription(userId, after, limit));
     }
 
     /**
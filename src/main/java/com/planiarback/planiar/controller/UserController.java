@@ -1,12 +1,12 @@
 package com.planiarback.planiar.controller;
 
 import com.planiarback.planiar.model.User;
+import com.planiarback.planiar.service.AvailabilityRebuildJob;
 import com.planiarback.planiar.service.UserService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -14,9 +14,11 @@ import java.util.Map;
 public class UserController {
 
     private final UserService userService;
+    private final AvailabilityRebuildJob rebuildJob;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, AvailabilityRebuildJob rebuildJob) {
         this.userService = userService;
+        this.rebuildJob = rebuildJob;
     }
 
     /**
@@ -72,9 +74,10 @@ public class UserController {
      * GET /api/users
      */
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<?> getAllUsers(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(() -> userService.getAllUsers(after, limit));
     }
 
     /**
@@ -88,6 +91,45 @@ public class UserController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Obtener la disponibilidad semanal de un usuario
+     * GET /api/users/{id}/availability?format=slots|ranges
+     */
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<?> getAvailability(@PathVariable Long id,
+                                             @RequestParam(defaultValue = "slots") String format) {
+        try {
+            return userService.getAvailability(id, format)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Recalcular la disponibilidad de todos los usuarios en segundo plano (continúa la última
+     * ejecución interrumpida salvo restart=true)
+     * POST /api/users/availability/rebuild?restart=false
+     */
+    @PostMapping("/availability/rebuild")
+    public ResponseEntity<?> startAvailabilityRebuild(@RequestParam(defaultValue = "false") boolean restart) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(rebuildJob.start(restart));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Progreso del recálculo masivo de disponibilidad
+     * GET /api/users/availability/rebuild
+     */
+    @GetMapping("/availability/rebuild")
+    public ResponseEntity<AvailabilityRebuildJob.Progress> getAvailabilityRebuildProgress() {
+        return ResponseEntity.ok(rebuildJob.progress());
+    }
+
     /**
      * Obtener usuario por username
      * GET /api/users/username/{username}
@@ -115,9 +157,11 @@ public class UserController {
      * GET /api/users/search/username?username=juan
      */
     @GetMapping("/search/username")
-    public ResponseEntity<List<User>> searchUsersByUsername(@RequestParam String username) {
-        List<User> users = userService.searchUsersByUsername(username);
-        return ResponseEntity.ok(users);
+    public ResponseEntity<?> searchUsersByUsername(
+            @RequestParam String username,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(() -> userService.searchUsersByUsername(username, after, limit));
     }
 
     /**
@@ -125,9 +169,11 @@ public class UserController {
      * GET /api/users/search/email?email=example
      */
     @GetMapping("/search/email")
-    public ResponseEntity<List<User>> searchUsersByEmail(@RequestParam String email) {
-        List<User> users = userService.searchUsersByEmail(email);
-        return ResponseEntity.ok(users);
+    public ResponseEntity<?> searchUsersByEmail(
+            @RequestParam String email,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(() -> userService.searchUsersByEmail(email, after, limit));
     }
 
     /**
@@ -135,9 +181,10 @@ public class UserController {
      * GET /api/users/admin
      */
     @GetMapping("/admin")
-    public ResponseEntity<List<User>> getAllAdminUsers() {
-        List<User> users = userService.getAllAdminUsers();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<?> getAllAdminUsers(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(() -> userService.getAllAdminUsers(after, limit));
     }
 
     /**
@@ -145,9 +192,10 @@ public class UserController {
      * GET /api/users/non-admin
      */
     @GetMapping("/non-admin")
-    public ResponseEntity<List<User>> getAllNonAdminUsers() {
-        List<User> users = userService.getAllNonAdminUsers();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<?> getAllNonAdminUsers(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return PageResponses.ok(() -> userService.getAllNonAdminUsers(after, limit));
     }
 
     /**
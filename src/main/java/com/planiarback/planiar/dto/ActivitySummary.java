@@ -0,0 +1,18 @@
+package com.planiarback.planiar.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Activity as shown in list views: schedule and color without the description or the user. The
+ * full activity is returned by GET /api/activities/{id}.
+ */
+public record ActivitySummary(
+        Long id,
+        String title,
+        String days,
+        String startTimes,
+        String endTimes,
+        LocalDate startDate,
+        LocalDate endDate,
+        String color) {
+}
@@ -0,0 +1,20 @@
+package com.planiarback.planiar.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Class as shown in list views: its own columns without the user. The full class is returned by
+ * GET /api/classes/{id}.
+ */
+public record ClassSummary(
+        Long id,
+        String title,
+        String days,
+        String startTimes,
+        String endTimes,
+        LocalDate startDate,
+        LocalDate endDate,
+        String professor,
+        String room,
+        String color) {
+}
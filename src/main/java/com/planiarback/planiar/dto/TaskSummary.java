@@ -0,0 +1,26 @@
+package com.planiarback.planiar.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Task as shown in list views: every column but the description, and no user. The full task
+ * is returned by GET /api/tasks/{id}.
+ */
+public record TaskSummary(
+        Long id,
+        String title,
+        Long classId,
+        LocalDate dueDate,
+        LocalTime dueTime,
+        Long parentId,
+        Integer segmentIndex,
+        Integer totalSegments,
+        LocalDate workingDate,
+        LocalTime startTime,
+        LocalTime endTime,
+        String priority,
+        Integer estimatedTime,
+        String type,
+        String state) {
+}
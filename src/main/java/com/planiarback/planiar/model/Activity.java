@@ -17,7 +17,8 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 public class Activity {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "activities_seq")
+    @SequenceGenerator(name = "activities_seq", sequenceName = "activities_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false, length = 200)
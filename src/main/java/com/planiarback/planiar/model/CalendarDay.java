@@ -0,0 +1,112 @@
+package com.planiarback.planiar.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * One materialised day of a user's availability calendar (see AvailabilityCalendarService):
+ * per-slot occupancy counts for that date, honouring class and activity date ranges, plus the
+ * resulting free-slot bits. The byte lengths identify the slot granularity the day was built at.
+ */
+@Entity
+@Table(name = "calendar_days",
+        uniqueConstraints = @UniqueConstraint(name = "uk_calendar_days_user_day", columnNames = {"user_id", "calendar_date"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalendarDay {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "calendar_days_seq")
+    @SequenceGenerator(name = "calendar_days_seq", sequenceName = "calendar_days_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "calendar_date", nullable = false)
+    private LocalDate day;
+
+    // One count per slot, two bytes each (same layout as User.occupancyCounts for a single day);
+    // sized for the finest granularity (288 five-minute slots)
+    @Column(name = "occupancy", nullable = false, length = 2 * 288)
+    private byte[] occupancy;
+
+    // Free-slot bits, little-endian (bit s set when slot s is free); one bit per slot
+    @Column(name = "free_bits", nullable = false, length = 288 / 8)
+    private byte[] freeBits;
+
+    /**
+     * @return Long return the id
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * @param id the id to set
+     */
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    /**
+     * @return Long return the userId
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * @param userId the userId to set
+     */
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * @return LocalDate return the day
+     */
+    public LocalDate getDay() {
+        return day;
+    }
+
+    /**
+     * @param day the day to set
+     */
+    public void setDay(LocalDate day) {
+        this.day = day;
+    }
+
+    /**
+     * @return byte[] return the occupancy counts
+     */
+    public byte[] getOccupancy() {
+        return occupancy;
+    }
+
+    /**
+     * @param occupancy the occupancy counts to set
+     */
+    public void setOccupancy(byte[] occupancy) {
+        this.occupancy = occupancy;
+    }
+
+    /**
+     * @return byte[] return the free-slot bits
+     */
+    public byte[] getFreeBits() {
+        return freeBits;
+    }
+
+    /**
+     * @param freeBits the free-slot bits to set
+     */
+    public void setFreeBits(byte[] freeBits) {
+        this.freeBits = freeBits;
+    }
+}
@@ -17,7 +17,8 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 public class Class {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "classes_seq")
+    @SequenceGenerator(name = "classes_seq", sequenceName = "classes_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false, length = 200)
@@ -0,0 +1,110 @@
+package com.planiarback.planiar.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a long-running maintenance job (see AvailabilityRebuildJob), kept so a run
+ * interrupted by a crash or restart resumes after the last id it had fully processed.
+ */
+@Entity
+@Table(name = "job_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobCheckpoint {
+
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+
+    @Id
+    @Column(name = "name", length = 64)
+    private String name;
+
+    // Every id up to and including this one has been processed
+    @Column(name = "last_id", nullable = false)
+    private Long lastId;
+
+    @Column(name = "status", nullable = false, length = 20)
+    private String status;
+
+    @Column(name = "processed", nullable = false)
+    private long processed;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * @return String return the job name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @param name the job name to set
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return Long return the last id fully processed
+     */
+    public Long getLastId() {
+        return lastId;
+    }
+
+    /**
+     * @param lastId the last id fully processed to set
+     */
+    public void setLastId(Long lastId) {
+        this.lastId = lastId;
+    }
+
+    /**
+     * @return String return the status (RUNNING/COMPLETED)
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * @param status the status to set
+     */
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    /**
+     * @return long return the number of items processed so far
+     */
+    public long getProcessed() {
+        return processed;
+    }
+
+    /**
+     * @param processed the number of items processed to set
+     */
+    public void setProcessed(long processed) {
+        this.processed = processed;
+    }
+
+    /**
+     * @return LocalDateTime return the last update time
+     */
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    /**
+     * @param updatedAt the last update time to set
+     */
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -16,7 +16,8 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 @AllArgsConstructor
 public class Survey {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "surveys_seq")
+    @SequenceGenerator(name = "surveys_seq", sequenceName = "surveys_seq", allocationSize = 50)
     private Long id;
 
     // Numeric answer (e.g., 1-5)
@@ -9,10 +9,12 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.HashMap;
+import java.util.Collections;
 import java.time.LocalDateTime;
 import jakarta.persistence.Convert;
-import com.planiarback.planiar.util.MapJsonConverter;
+import com.planiarback.planiar.util.AvailabilityMask;
+import com.planiarback.planiar.util.AvailabilityMaskConverter;
+import com.planiarback.planiar.util.SlotGranularity;
 
 @Entity
 @Table(name = "users")
@@ -22,7 +24,8 @@ import com.planiarback.planiar.util.MapJsonConverter;
 public class User {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false, unique = true, length = 50)
@@ -49,12 +52,18 @@ public class User {
     @JsonIgnore
     private List<Activity> activities = new ArrayList<>();
 
-    // Available free hourly slots per day.
-    // Key: SUN,MON,TUE,WED,THU,FRI,SAT
-    // Value: comma-separated list of slots in format "HH:00-HH+1:00", e.g. "00:00-01:00,01:00-02:00"
-    @Column(name = "available_hours", columnDefinition = "TEXT")
-    @Convert(converter = MapJsonConverter.class)
-    private Map<String, java.util.List<String>> availableHours = new HashMap<>();
+    // Free weekly slots as 7 x slotsPerDay bits (see AvailabilityMask, SlotGranularity). Exposed to the API as
+    // availableHours: Key SUN..SAT, value list of slots like "08:00-08:30". Null until first calculation.
+    @Column(name = "availability_mask", length = 7 * 288 / 8)
+    @Convert(converter = AvailabilityMaskConverter.class)
+    @JsonIgnore
+    private AvailabilityMask availabilityMask;
+
+    // How many classes/activities/scheduled tasks cover each weekly slot (see OccupancyCounts);
+    // lets single changes update availableHours without reloading everything. Null until first recalculation.
+    @Column(name = "occupancy_counts", length = 2 * 7 * 288)
+    @JsonIgnore
+    private byte[] occupancyCounts;
 
     // Registration date/time for the user
     @Column(name = "registration_date")
@@ -176,14 +185,51 @@ public class User {
      * @return Map<String,List<String>> available slots per day as lists of slot strings
      */
     public Map<String, java.util.List<String>> getAvailableHours() {
-        return availableHours;
+        return availabilityMask != null ? availabilityMask.toAvailableHours() : Collections.emptyMap();
+    }
+
+    /**
+     * @return Map<String,List<String>> available time per day coalesced into ranges like "10:00-24:00"
+     */
+    @JsonIgnore
+    public Map<String, java.util.List<String>> getAvailableRanges() {
+        return availabilityMask != null ? availabilityMask.toRanges() : Collections.emptyMap();
     }
 
     /**
      * @param availableHours the availableHours map to set (value format: list of slot strings)
      */
     public void setAvailableHours(Map<String, java.util.List<String>> availableHours) {
-        this.availableHours = availableHours;
+        this.availabilityMask = AvailabilityMask.fromAvailableHours(availableHours,
+                availabilityMask != null ? availabilityMask.granularity() : SlotGranularity.DEFAULT);
+    }
+
+    /**
+     * @return AvailabilityMask free slots as bits, or null if never calculated
+     */
+    public AvailabilityMask getAvailabilityMask() {
+        return availabilityMask;
+    }
+
+    /**
+     * @param availabilityMask the availabilityMask to set
+     */
+    public void setAvailabilityMask(AvailabilityMask availabilityMask) {
+        this.availabilityMask = availabilityMask;
+    }
+
+    /**
+     * @return byte[] per-slot occupancy counts, or null if never calculated
+     */
+    public byte[] getOccupancyCounts() {
+        return occupancyCounts;
+    }
+
+    /**
+     * @param occupancyCounts the occupancy counts to set
+     */
+    public void setOccupancyCounts(byte[] occupancyCounts) {
+        this.occupancyCounts = occupancyCounts;
     }
 
     /**
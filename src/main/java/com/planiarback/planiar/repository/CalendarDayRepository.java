@@ -0,0 +1,37 @@
+package com.planiarback.planiar.repository;
+
+import com.planiarback.planiar.model.CalendarDay;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface CalendarDayRepository extends JpaRepository<CalendarDay, Long> {
+
+    // Días materializados de un usuario en un rango de fechas
+    List<CalendarDay> findByUserIdAndDayBetweenOrderByDayAsc(Long userId, LocalDate from, LocalDate to);
+
+    // Último día materializado de un usuario (null si no tiene ninguno)
+    @Query("SELECT MAX(d.day) FROM CalendarDay d WHERE d.userId = :userId")
+    LocalDate findLastDayByUserId(@Param("userId") Long userId);
+
+    // Eliminar los días anteriores a una fecha
+    @Modifying
+    @Query("DELETE FROM CalendarDay d WHERE d.userId = :userId AND d.day < :day")
+    void deleteByUserIdAndDayBefore(@Param("userId") Long userId, @Param("day") LocalDate day);
+
+    // Eliminar los días posteriores a una fecha
+    @Modifying
+    @Query("DELETE FROM CalendarDay d WHERE d.userId = :userId AND d.day > :day")
+    void deleteByUserIdAndDayAfter(@Param("userId") Long userId, @Param("day") LocalDate day);
+
+    // Eliminar el calendario de un usuario
+    @Modifying
+    @Query("DELETE FROM CalendarDay d WHERE d.userId = :userId")
+    void deleteByUserId(@Param("userId") Long userId);
+}
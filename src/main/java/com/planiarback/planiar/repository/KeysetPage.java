@@ -0,0 +1,10 @@
+package com.planiarback.planiar.repository;
+
+import java.util.List;
+
+/**
+ * One page of a {@link KeysetPager} query: the rows and the cursor to pass as "after" for the
+ * next page, or null if this is the last one. The list endpoints return it as is.
+ */
+public record KeysetPage<T>(List<T> items, String nextCursor) {
+}
@@ -0,0 +1,255 @@
+package com.planiarback.planiar.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.RecordComponent;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keyset ("seek") pagination for the list endpoints: rows are ordered by (sort key, id) and each
+ * page starts right after the last row of the previous one, so a page costs the same whatever
+ * its position and no request reads more than pagination.maxLimit rows. Rows with a null sort
+ * key come last: they are read by a second query, ordered by id, once the non-null keys run out,
+ * so each query is a plain range on a (user_id, key, id) index instead of a CASE/OR that no
+ * index can serve. The cursor handed to the client is opaque (base64 of the sort key, id and
+ * value of that last row) and only valid for the same sort key.
+ */
+@Component
+public class KeysetPager {
+
+    /** Column to sort by; id breaks ties and is always ascending. */
+    public record SortKey(String attribute, boolean descending) {
+        public static final SortKey BY_ID = asc("id");
+
+        public static SortKey asc(String attribute) {
+            return new SortKey(attribute, false);
+        }
+
+        public static SortKey desc(String attribute) {
+            return new SortKey(attribute, true);
+        }
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${pagination.defaultLimit:100}")
+    private int defaultLimit;
+
+    @Value("${pagination.maxLimit:500}")
+    private int maxLimit;
+
+    /**
+     * Page of the rows of type matching every filter, after the given cursor (null = first page).
+     * @param limit rows per page; null means pagination.defaultLimit and anything above
+     *              pagination.maxLimit is lowered to it
+     * @throws IllegalArgumentException if the cursor is not valid for this sort key or limit < 1
+     */
+    @SafeVarargs
+    public final <T> KeysetPage<T> find(Class<T> type, SortKey sort, String after, Integer limit,
+                                        Specification<T>... filters) {
+        return find(type, type, sort, after, limit, filters);
+    }
+
+    /**
+     * Same as {@link #find(Class, SortKey, String, Integer, Specification[])} but reads only the
+     * columns of the view record (built through its canonical constructor, components named as
+     * the entity attributes), so lists skip TEXT columns and associations. The view must include
+     * id and the sort attribute.
+     */
+    @SafeVarargs
+    public final <T, R> KeysetPage<R> find(Class<T> type, Class<R> view, SortKey sort, String after,
+                                           Integer limit, Specification<T>... filters) {
+        int size = pageSize(limit);
+        Cursor cursor = after == null || after.isBlank()
+                ? null : decode(after, sort, valueType(type, sort.attribute()));
+
+        List<R> rows;
+        if ("id".equals(sort.attribute())) {
+            rows = fetch(type, view, filters, idAfter(cursor), sort, size + 1);
+        } else {
+            // Non-null keys first (skipped once the cursor is already in the null tail), then the nulls
+            rows = cursor != null && cursor.value() == null
+                    ? new ArrayList<>() : fetch(type, view, filters, keyAfter(sort, cursor), sort, size + 1);
+            if (rows.size() <= size) {
+                rows.addAll(fetch(type, view, filters, nullKeyAfter(sort, cursor), SortKey.BY_ID,
+                        size + 1 - rows.size()));
+            }
+        }
+
+        if (rows.size() <= size) return new KeysetPage<>(rows, null);
+        List<R> page = new ArrayList<>(rows.subList(0, size));
+        R last = page.get(size - 1);
+        return new KeysetPage<>(page, encode(sort, (Long) read(last, "id"), read(last, sort.attribute())));
+    }
+
+    /**
+     * Rows of type with the given ids as view (see {@link #find(Class, Class, SortKey, String,
+     * Integer, Specification[])}), in the order of ids; ids that no longer exist are skipped.
+     */
+    public <T, R> List<R> findByIds(Class<T> type, Class<R> view, List<Long> ids) {
+        if (ids.isEmpty()) return List.of();
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<R> query = cb.createQuery(view);
+        Root<T> root = query.from(type);
+        select(cb, query, root, type, view);
+        query.where(root.get("id").in(ids));
+        Map<Object, R> byId = new HashMap<>();
+        for (R row : entityManager.createQuery(query).getResultList()) byId.put(read(row, "id"), row);
+        List<R> out = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            R row = byId.get(id);
+            if (row != null) out.add(row);
+        }
+        return out;
+    }
+
+    /** Rows per page for the requested limit (null = default, capped at the max). */
+    int pageSize(Integer limit) {
+        int size = limit == null ? defaultLimit : limit;
+        if (size < 1) throw new IllegalArgumentException("El límite debe ser mayor a 0");
+        return Math.min(size, maxLimit);
+    }
+
+    // Up to max rows matching every filter and range, ordered by (sort key, id)
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private <T, R> List<R> fetch(Class<T> type, Class<R> view, Specification<T>[] filters,
+                                 Specification<T> range, SortKey sort, int max) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<R> query = cb.createQuery(view);
+        Root<T> root = query.from(type);
+        Path<Comparable> key = root.get(sort.attribute());
+        Path<Long> id = root.get("id");
+
+        List<Predicate> where = new ArrayList<>();
+        for (Specification<T> filter : filters) {
+            Predicate p = filter.toPredicate(root, query, cb);
+            if (p != null) where.add(p);
+        }
+        Predicate r = range.toPredicate(root, query, cb);
+        if (r != null) where.add(r);
+
+        List<Order> order = new ArrayList<>();
+        if (!"id".equals(sort.attribute())) order.add(sort.descending() ? cb.desc(key) : cb.asc(key));
+        order.add(cb.asc(id));
+        select(cb, query, root, type, view);
+        query.where(where.toArray(Predicate[]::new)).orderBy(order);
+        return new ArrayList<>(entityManager.createQuery(query).setMaxResults(max).getResultList());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T, R> void select(CriteriaBuilder cb, CriteriaQuery<R> query, Root<T> root,
+                                      Class<T> type, Class<R> view) {
+        if (view == type) {
+            query.select((Root) root);
+        } else {
+            query.select(cb.construct(view, Arrays.stream(view.getRecordComponents())
+                    .map(c -> root.get(c.getName())).toArray(Selection[]::new)));
+        }
+    }
+
+    static Object read(Object row, String attribute) {
+        if (!row.getClass().isRecord()) {
+            return PropertyAccessorFactory.forBeanPropertyAccess(row).getPropertyValue(attribute);
+        }
+        for (RecordComponent c : row.getClass().getRecordComponents()) {
+            if (!c.getName().equals(attribute)) continue;
+            try {
+                return c.getAccessor().invoke(row);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        throw new IllegalStateException(row.getClass().getSimpleName() + " has no " + attribute);
+    }
+
+    // Ids after the cursor
+    private static <T> Specification<T> idAfter(Cursor cursor) {
+        return (root, query, cb) -> cursor == null ? null : cb.greaterThan(root.get("id"), cursor.id());
+    }
+
+    // Non-null keys after the cursor in (key, id) order, written as key >= value (<= when
+    // descending) so the index range starts at the cursor
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Specification<T> keyAfter(SortKey sort, Cursor cursor) {
+        return (root, query, cb) -> {
+            Path<Comparable> key = root.get(sort.attribute());
+            if (cursor == null) return cb.isNotNull(key);
+            Predicate from = sort.descending()
+                    ? cb.lessThanOrEqualTo(key, cursor.value()) : cb.greaterThanOrEqualTo(key, cursor.value());
+            Predicate beyond = sort.descending()
+                    ? cb.lessThan(key, cursor.value()) : cb.greaterThan(key, cursor.value());
+            return cb.and(from, cb.or(beyond, cb.greaterThan(root.get("id"), cursor.id())));
+        };
+    }
+
+    // Null keys after the cursor by id; all of them when the cursor is still on a non-null key
+    private static <T> Specification<T> nullKeyAfter(SortKey sort, Cursor cursor) {
+        return (root, query, cb) -> {
+            Predicate isNull = cb.isNull(root.get(sort.attribute()));
+            return cursor == null || cursor.value() != null
+                    ? isNull : cb.and(isNull, cb.greaterThan(root.get("id"), cursor.id()));
+        };
+    }
+
+    private Class<?> valueType(Class<?> type, String attribute) {
+        return entityManager.getMetamodel().entity(type).getAttribute(attribute).getJavaType();
+    }
+
+    @SuppressWarnings("rawtypes")
+    record Cursor(long id, Comparable value) {}
+
+    // [-]attribute:id[:value], "-" for descending keys; no value part when the key is null
+    static String encode(SortKey sort, Long id, Object value) {
+        String raw = name(sort) + ":" + id + (value == null ? "" : ":" + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Cursor decode(String cursor, SortKey sort, Class<?> valueType) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 3);
+            if (parts.length < 2 || !parts[0].equals(name(sort))) throw new IllegalArgumentException(raw);
+            long id = Long.parseLong(parts[1]);
+            return new Cursor(id, parts.length == 3 ? parse(parts[2], valueType) : null);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor de paginación inválido: " + cursor);
+        }
+    }
+
+    private static String name(SortKey sort) {
+        return sort.descending() ? "-" + sort.attribute() : sort.attribute();
+    }
+
+    private static Comparable<?> parse(String value, Class<?> type) {
+        if (type == String.class) return value;
+        if (type == LocalDate.class) return LocalDate.parse(value);
+        if (type == LocalTime.class) return LocalTime.parse(value);
+        if (type == LocalDateTime.class) return LocalDateTime.parse(value);
+        if (type == Integer.class) return Integer.valueOf(value);
+        if (type == Long.class) return Long.valueOf(value);
+        if (type == Double.class) return Double.valueOf(value);
+        throw new IllegalArgumentException("Tipo de clave no soportado: " + type.getSimpleName());
+    }
+}
@@ -0,0 +1,33 @@
+package com.planiarback.planiar.repository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Schedule columns of one class, activity or scheduled task, as returned by
+ * {@link UserRepository#findScheduleByUserId}. Classes and activities fill days/startTimes/
+ * endTimes and their date range; tasks fill startTime/endTime and use the working date as both
+ * startDate and endDate.
+ */
+public interface ScheduleEntry {
+
+    String KIND_CLASS = "C";
+    String KIND_ACTIVITY = "A";
+    String KIND_TASK = "T";
+
+    String getKind();
+
+    String getDays();
+
+    String getStartTimes();
+
+    String getEndTimes();
+
+    LocalDate getStartDate();
+
+    LocalDate getEndDate();
+
+    LocalTime getStartTime();
+
+    LocalTime getEndTime();
+}
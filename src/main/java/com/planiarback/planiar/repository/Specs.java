@@ -0,0 +1,54 @@
+package com.planiarback.planiar.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Filters for {@link KeysetPager}, one per kind of derived query the repositories used to
+ * declare (findByUserIdAndState, ...DueDateBefore, ...). Text searches go through {@link TextSearch}.
+ */
+public final class Specs {
+
+    private Specs() {
+    }
+
+    public static <T> Specification<T> ofUser(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    public static <T> Specification<T> equal(String attribute, Object value) {
+        return (root, query, cb) -> cb.equal(root.get(attribute), value);
+    }
+
+    public static <T> Specification<T> isNull(String attribute) {
+        return (root, query, cb) -> cb.isNull(root.get(attribute));
+    }
+
+    public static <T> Specification<T> isNotNull(String attribute) {
+        return (root, query, cb) -> cb.isNotNull(root.get(attribute));
+    }
+
+    public static <T, Y extends Comparable<? super Y>> Specification<T> lessThan(String attribute, Y value) {
+        return (root, query, cb) -> cb.lessThan(root.get(attribute), value);
+    }
+
+    public static <T, Y extends Comparable<? super Y>> Specification<T> greaterThan(String attribute, Y value) {
+        return (root, query, cb) -> cb.greaterThan(root.get(attribute), value);
+    }
+
+    public static <T, Y extends Comparable<? super Y>> Specification<T> atMost(String attribute, Y value) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get(attribute), value);
+    }
+
+    public static <T, Y extends Comparable<? super Y>> Specification<T> atLeast(String attribute, Y value) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get(attribute), value);
+    }
+
+    public static <T, Y extends Comparable<? super Y>> Specification<T> between(String attribute, Y from, Y to) {
+        return (root, query, cb) -> cb.between(root.get(attribute), from, to);
+    }
+
+    /** LIKE %text%, as the @Query searches with LIKE %:param% did (case-sensitive, no escaping). */
+    public static <T> Specification<T> contains(String attribute, String text) {
+        return (root, query, cb) -> cb.like(root.get(attribute), "%" + text + "%");
+    }
+}
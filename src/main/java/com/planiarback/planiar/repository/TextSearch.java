@@ -0,0 +1,126 @@
+package com.planiarback.planiar.repository;
+
+import com.planiarback.planiar.repository.KeysetPager.Cursor;
+import com.planiarback.planiar.repository.KeysetPager.SortKey;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.Table;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Ranked, paginated text search over a few columns of a table (title, professor, room, username,
+ * email). On PostgreSQL with pg_trgm the matches come from the trigram GIN indexes on lower(column)
+ * (see db/vendor/postgresql) and are ranked by word_similarity, so a search does not scan the
+ * table and also finds near misses. Elsewhere (H2, or Postgres where the migration could not
+ * install pg_trgm: no privilege or no contrib package) it falls back to LIKE %text% ranked
+ * exact > prefix > contains. Either way the text is matched ignoring case and pages are cut
+ * with a keyset on (score, id).
+ */
+@Component
+public class TextSearch {
+    private static final Logger logger = LoggerFactory.getLogger(TextSearch.class);
+
+    private static final SortKey BY_SCORE = SortKey.desc("score");
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbc;
+
+    @Autowired
+    private KeysetPager pager;
+
+    private boolean trigram;
+
+    @PostConstruct
+    public void detectBackend() {
+        try {
+            Integer found = jdbc.getJdbcTemplate().queryForObject(
+                    "select count(*) from pg_extension where extname = 'pg_trgm'", Integer.class);
+            trigram = found != null && found > 0;
+        } catch (Exception e) {
+            trigram = false; // not PostgreSQL
+        }
+        logger.info("Text search backend: {}", trigram ? "pg_trgm" : "LIKE");
+    }
+
+    /**
+     * Page of the rows of type (as view) whose columns contain text, best matches first.
+     * @param userId only rows of this user; null searches every user
+     * @param columns SQL column names to search; a row matches if any of them does
+     * @throws IllegalArgumentException if text is blank or the cursor/limit is not valid
+     */
+    public <T, R> KeysetPage<R> search(Class<T> type, Class<R> view, Long userId, String text,
+                                       String after, Integer limit, String... columns) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("El texto de búsqueda es obligatorio");
+        }
+        int size = pager.pageSize(limit);
+        String needle = text.trim().toLowerCase(Locale.ROOT);
+        String escaped = needle.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("text", needle)
+                .addValue("pattern", "%" + escaped + "%")
+                .addValue("prefix", escaped + "%")
+                .addValue("limit", size + 1);
+        StringBuilder sql = new StringBuilder("select id, score from (select id, cast(")
+                .append(score(columns)).append(" as double precision) as score from ")
+                .append(type.getAnnotation(Table.class).name())
+                .append(" where (").append(match(columns)).append(")");
+        if (userId != null) {
+            sql.append(" and user_id = :userId");
+            params.addValue("userId", userId);
+        }
+        sql.append(") s");
+        if (after != null && !after.isBlank()) {
+            Cursor cursor = KeysetPager.decode(after, BY_SCORE, Double.class);
+            if (cursor.value() == null) throw new IllegalArgumentException("Cursor de paginación inválido: " + after);
+            sql.append(" where s.score < :score or (s.score = :score and s.id > :id)");
+            params.addValue("score", cursor.value()).addValue("id", cursor.id());
+        }
+        sql.append(" order by s.score desc, s.id limit :limit");
+
+        List<Long> ids = new ArrayList<>();
+        List<Double> scores = new ArrayList<>();
+        jdbc.query(sql.toString(), params, row -> {
+            ids.add(row.getLong(1));
+            scores.add(row.getDouble(2));
+        });
+        boolean more = ids.size() > size;
+        List<Long> pageIds = more ? ids.subList(0, size) : ids;
+        List<R> rows = pager.findByIds(type, view, pageIds);
+        String next = more ? KeysetPager.encode(BY_SCORE, pageIds.get(size - 1), scores.get(size - 1)) : null;
+        return new KeysetPage<>(rows, next);
+    }
+
+    // Any column matches: LIKE, plus the fuzzy word-similarity operator with pg_trgm (both indexed)
+    private String match(String[] columns) {
+        List<String> terms = new ArrayList<>();
+        for (String c : columns) {
+            terms.add("lower(" + c + ") like :pattern escape '\\'");
+            if (trigram) terms.add(":text <% lower(" + c + ")");
+        }
+        return String.join(" or ", terms);
+    }
+
+    // Best score among the columns, in [0, 1]
+    private String score(String[] columns) {
+        List<String> terms = new ArrayList<>();
+        for (String c : columns) {
+            terms.add(trigram
+                    ? "coalesce(word_similarity(:text, lower(" + c + ")), 0)"
+                    : "case when lower(" + c + ") = :text then 1 when lower(" + c + ") like :prefix escape '\\' then 0.75"
+                            + " when lower(" + c + ") like :pattern escape '\\' then 0.5 else 0 end");
+        }
+        return terms.size() == 1 ? terms.get(0)
+                : terms.stream().collect(Collectors.joining(", ", "greatest(", ")"));
+    }
+}
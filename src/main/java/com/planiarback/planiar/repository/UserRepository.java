@@ -1,7 +1,11 @@
 package com.planiarback.planiar.repository;
 
 import com.planiarback.planiar.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,6 +14,37 @@ import java.util.Optional;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     
+    // Bloquear la fila del usuario hasta el fin de la transacción (SELECT ... FOR UPDATE) y leer sus
+    // contadores de ocupación; null si aún no se han calculado
+    @Query(value = "SELECT occupancy_counts FROM users WHERE id = :id FOR UPDATE", nativeQuery = true)
+    byte[] lockOccupancyCounts(@Param("id") Long id);
+
+    // Borrar los contadores de ocupación: la disponibilidad guardada queda marcada como
+    // desactualizada hasta el próximo recálculo completo
+    @Modifying
+    @Query("UPDATE User u SET u.occupancyCounts = NULL WHERE u.id = :id")
+    void clearOccupancyCounts(@Param("id") Long id);
+
+    // Columnas de horario de todas las clases, actividades y tareas programadas de un usuario en
+    // una sola consulta, sin cargar entidades. Son pocas filas pequeñas por usuario, así que se
+    // devuelven en una lista
+    @Query(value = "SELECT 'C' AS kind, days, start_times AS startTimes, end_times AS endTimes, "
+            + "start_date AS startDate, end_date AS endDate, "
+            + "CAST(NULL AS TIME) AS startTime, CAST(NULL AS TIME) AS endTime "
+            + "FROM classes WHERE user_id = :id "
+            + "UNION ALL SELECT 'A', days, start_times, end_times, start_date, end_date, "
+            + "CAST(NULL AS TIME), CAST(NULL AS TIME) "
+            + "FROM activities WHERE user_id = :id "
+            + "UNION ALL SELECT 'T', NULL, NULL, NULL, working_date, working_date, start_time, end_time "
+            + "FROM tasks WHERE user_id = :id AND working_date IS NOT NULL "
+            + "AND start_time IS NOT NULL AND end_time IS NOT NULL",
+            nativeQuery = true)
+    List<ScheduleEntry> findScheduleByUserId(@Param("id") Long id);
+
+    // Siguiente página de ids de usuario después de afterId, en orden (paginación por clave)
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable page);
+
     // Buscar usuario por username
     Optional<User> findByUsername(String username);
     
@@ -21,15 +56,6 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     // Verificar si existe un usuario con ese email
     boolean existsByEmail(String email);
-    
-    // Buscar usuarios por username (búsqueda parcial)
-    List<User> findByUsernameContainingIgnoreCase(String username);
-    
-    // Buscar usuarios por email (búsqueda parcial)
-    List<User> findByEmailContainingIgnoreCase(String email);
-
-    // Obtener todos los usuarios por tipo
-    List<User> findByType(String type);
 
     // Contar usuarios por tipo
     long countByType(String type);
@@ -1,6 +1,9 @@
 package com.planiarback.planiar.service;
 
 import com.planiarback.planiar.model.Task;
+import com.planiarback.planiar.util.AvailabilityCalendar;
+import com.planiarback.planiar.util.AvailabilityMask;
+import com.planiarback.planiar.util.DayMinutes;
 import org.springframework.stereotype.Service;
 
 import java.time.DayOfWeek;
@@ -8,8 +11,12 @@ import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -23,17 +30,45 @@ public class AIPlannerService {
     @Value("${ai.useGemini:true}")
     private boolean useGemini;
 
+    // Use streamGenerateContent and apply assignments as they arrive
+    @Value("${ai.streamGemini:false}")
+    private boolean streamGemini;
+
+    // Stop reading the stream once every unassigned task has a slot
+    @Value("${ai.streamStopEarly:true}")
+    private boolean streamStopEarly;
+
     @Autowired
     private GeminiClient geminiClient;
 
+    @Autowired
+    private GeminiPromptBuilder promptBuilder;
+
+    @Autowired
+    private GeminiMetrics metrics;
+
     private final ObjectMapper mapper = new ObjectMapper();
+    private final ObjectReader assignmentsReader = mapper.readerForListOf(Assignment.class);
     private static final Logger logger = LoggerFactory.getLogger(AIPlannerService.class);
 
+    // responseSchema sent to Gemini: the model can only answer with an array of these objects
+    private static final JsonNode ASSIGNMENT_SCHEMA = buildAssignmentSchema();
+
     /**
      * Plan tasks using a simple heuristic that respects availableHours and constraints.
      * This is a local planner used as a fallback; in the future this may call an external AI.
      */
     public List<Task> planTasks(List<Task> tasks, Map<String, List<String>> availableHours) {
+        return planTasks(tasks, availableHours,
+                AvailabilityCalendar.weekly(AvailabilityMask.fromAvailableHours(availableHours)));
+    }
+
+    /**
+     * Same, with free time looked up per date in the user's calendar (see
+     * AvailabilityCalendarService); the weekly availableHours are the Gemini prompt's cached
+     * availability, and dates where the calendar differs are sent per date.
+     */
+    public List<Task> planTasks(List<Task> tasks, Map<String, List<String>> availableHours, AvailabilityCalendar calendar) {
         logger.info("AIPlannerService.planTasks called with {} tasks; useGemini={} ", tasks == null ? 0 : tasks.size(), useGemini);
         if (tasks == null) return Collections.emptyList();
 
@@ -80,89 +115,11 @@ public class AIPlannerService {
         for (Task t : copy) {
             // If task already has an assignment within allowed constraints, mark occupied
             if (t.getWorkingDate() != null && t.getStartTime() != null && t.getEndTime() != null) {
-                LocalTime cur = t.getStartTime();
-                while (cur.isBefore(t.getEndTime())) {
-                    occupied.add(t.getWorkingDate().toString() + "#" + cur.toString());
-                    cur = cur.plusMinutes(30);
-                }
+                markOccupied(t, occupied, calendar.granularity().minutes());
                 continue;
             }
 
-            // Try to find latest block before dueDate using availableHours
-            LocalDate due = t.getDueDate();
-            if (due == null || t.getEstimatedTime() == null || t.getEstimatedTime() <= 0) continue;
-
-            int neededSlots = (int) Math.ceil(t.getEstimatedTime() / 30.0);
-            boolean assigned = false;
-
-            // Search backward from due date to tomorrow (no same-day scheduling if due today?)
-            LocalDate startSearch = today.plusDays(1);
-            for (LocalDate d = due; !d.isBefore(startSearch); d = d.minusDays(1)) {
-                // Avoid weekends
-                DayOfWeek dow = d.getDayOfWeek();
-                if (dow == DayOfWeek.SATURDAY || dow == DayOfWeek.SUNDAY) continue;
-
-                String dayKey = dayNameFor(d.getDayOfWeek().getValue() % 7);
-                List<String> freeRanges = availableHours != null ? availableHours.get(dayKey) : null;
-                if (freeRanges == null) continue;
-
-                List<Slot> slots = new ArrayList<>();
-                LocalTime deadlineTime = t.getDueTime() != null ? t.getDueTime() : LocalTime.of(23,59);
-
-                for (String range : freeRanges) {
-                    String[] parts = range.split("-");
-                    if (parts.length != 2) continue;
-                    try {
-                        LocalTime s = LocalTime.parse(parts[0]);
-                        LocalTime e = LocalTime.parse(parts[1]);
-                        // Trim by deadline if same as due date
-                        if (d.equals(due) && e.isAfter(deadlineTime)) e = deadlineTime;
-                        // Skip unreasonable hours (1:00-4:00)
-                        if (e.isBefore(LocalTime.of(1,0)) || s.isAfter(LocalTime.of(4,0))) {
-                            // continue; but we still check per-slot below
-                        }
-                        LocalTime cur = s;
-                        while (cur.plusMinutes(30).isBefore(e) || cur.plusMinutes(30).equals(e)) {
-                            // Skip 1am-4am
-                            if (cur.getHour() >=1 && cur.getHour() < 4) { cur = cur.plusMinutes(30); continue; }
-                            // Skip Friday afternoon (FRI after 17:00)
-                            if (d.getDayOfWeek() == DayOfWeek.FRIDAY && cur.isAfter(LocalTime.of(16,59))) { cur = cur.plusMinutes(30); continue; }
-                            String key = d.toString() + "#" + cur.toString();
-                            if (!occupied.contains(key)) slots.add(new Slot(d, cur, cur.plusMinutes(30)));
-                            cur = cur.plusMinutes(30);
-                        }
-                    } catch (Exception ex) { /* ignore parse */ }
-                }
-
-                if (slots.isEmpty()) continue;
-
-                // find contiguous blocks
-                List<Block> blocks = findContiguousBlocks(slots);
-                if (blocks.isEmpty()) continue;
-
-                // choose block that ends latest and has enough slots
-                blocks.sort(Comparator.comparing(b -> b.slots.get(b.slots.size()-1).end));
-                for (int i = blocks.size()-1; i >=0; i--) {
-                    Block b = blocks.get(i);
-                    if (b.slots.size() >= neededSlots) {
-                        int startIndex = Math.max(0, b.slots.size() - neededSlots);
-                        List<Slot> chosen = b.slots.subList(startIndex, startIndex + neededSlots);
-                        t.setWorkingDate(chosen.get(0).date);
-                        t.setStartTime(chosen.get(0).start);
-                        t.setEndTime(chosen.get(chosen.size()-1).end);
-                        // mark occupied
-                        LocalTime cur = t.getStartTime();
-                        while (cur.isBefore(t.getEndTime())) {
-                            occupied.add(t.getWorkingDate().toString() + "#" + cur.toString());
-                            cur = cur.plusMinutes(30);
-                        }
-                        assigned = true;
-                        break;
-                    }
-                }
-
-                if (assigned) break;
-            }
+            assignLatestBlock(t, calendar, occupied, today);
 
             // If not assigned, leave it without assignment — caller can handle further segmentation or external AI.
         }
@@ -172,38 +129,43 @@ public class AIPlannerService {
         for (Task t : copy) if (t.getWorkingDate() == null || t.getStartTime() == null || t.getEndTime() == null) { needExternal = true; break; }
 
         if (useGemini && needExternal) {
+            String prompt = buildGeminiPrompt(copy, availableHours, calendar);
+            if (streamGemini) {
+                // Assignments are applied to the copies in place; partial results survive a broken stream
+                if (!planWithGeminiStream(copy, prompt, calendar)) metrics.recordFallback("stream_failed");
+                return copy;
+            }
             logger.info("Need external AI (useGemini=true && needExternal=true). Will call GeminiClient.generateText()");
             try {
-                String prompt = buildGeminiPrompt(copy, availableHours);
-                Optional<String> resp = geminiClient.generateText(prompt);
+                Optional<String> resp = geminiClient.generateText(prompt, ASSIGNMENT_SCHEMA, userKey(copy));
                 if (resp.isPresent()) {
                     logger.info("Gemini returned response (length={})", resp.get().length());
-                    String text = resp.get();
-                    // Expect JSON array of tasks with id/title/workingDate/startTime/endTime
+                    // Schema-constrained output: a JSON array of Assignment objects
                     try {
-                        JsonNode root = mapper.readTree(text);
-                        if (root.isArray()) {
-                            List<Task> out = new ArrayList<>();
-                            for (JsonNode n : root) {
-                                Long id = n.has("id") && !n.get("id").isNull() ? n.get("id").asLong() : null;
-                                String title = n.has("title") ? n.get("title").asText(null) : null;
-                                Task t = findTaskByIdOrTitle(copy, id, title);
-                                if (t == null) continue;
-                                if (n.has("workingDate") && !n.get("workingDate").isNull()) t.setWorkingDate(LocalDate.parse(n.get("workingDate").asText()));
-                                if (n.has("startTime") && !n.get("startTime").isNull()) t.setStartTime(LocalTime.parse(n.get("startTime").asText()));
-                                if (n.has("endTime") && !n.get("endTime").isNull()) t.setEndTime(LocalTime.parse(n.get("endTime").asText()));
-                                out.add(t);
-                            }
-                            logger.info("Parsed {} tasks from Gemini response", out.size());
-                            return out;
+                        List<Assignment> assignments = assignmentsReader.readValue(resp.get());
+                        // The prompt only lists unassigned tasks, so apply in place and return every task
+                        Set<Task> answered = Collections.newSetFromMap(new IdentityHashMap<>());
+                        for (Assignment a : assignments) {
+                            Task t = applyAssignment(copy, a);
+                            if (t != null && a.hasSlot()) answered.add(t);
                         }
+                        logger.info("Parsed {} tasks from Gemini response", answered.size());
+                        metrics.recordParse(true);
+                        repairAssignments(copy, answered, calendar);
+                        return copy;
                     } catch (Exception ex) {
                         logger.warn("Failed to parse Gemini response: {}", ex.getMessage());
+                        metrics.recordParse(false);
+                        metrics.recordFallback("parse_error");
                         // parse failed - log and fall through to return copy
                     }
+                } else {
+                    // skipped (circuit, quota, no key) or failed call; details in gemini.requests*
+                    metrics.recordFallback("no_response");
                 }
             } catch (Exception ex) {
                 logger.error("External AI (Gemini) call failed: {}", ex.getMessage(), ex);
+                metrics.recordFallback("error");
                 // external AI failed; ignore and return heuristic copy
             }
         }
@@ -211,40 +173,236 @@ public class AIPlannerService {
         return copy;
     }
 
-    private Task findTaskByIdOrTitle(List<Task> tasks, Long id, String title) {
-        if (id != null) for (Task t : tasks) if (t.getId() != null && t.getId().equals(id)) return t;
-        if (title != null) for (Task t : tasks) if (title.equals(t.getTitle())) return t;
-        return null;
+    /**
+     * Local heuristic for one task: the latest contiguous block of free calendar slots between
+     * tomorrow and the due date, skipping weekends, 01:00-04:00 and Friday after 17:00.
+     * Marks the chosen slots in occupied. Returns true if the task was assigned.
+     */
+    private boolean assignLatestBlock(Task t, AvailabilityCalendar calendar, Set<String> occupied, LocalDate today) {
+        // Try to find latest block before dueDate using the free intervals of each date
+        LocalDate due = t.getDueDate();
+        if (due == null || t.getEstimatedTime() == null || t.getEstimatedTime() <= 0) return false;
+
+        int step = calendar.granularity().minutes();
+        int neededSlots = calendar.granularity().slotsFor(t.getEstimatedTime());
+        boolean assigned = false;
+
+        // Search backward from due date to tomorrow (no same-day scheduling if due today?)
+        LocalDate startSearch = today.plusDays(1);
+        for (LocalDate d = due; !d.isBefore(startSearch); d = d.minusDays(1)) {
+            // Avoid weekends
+            DayOfWeek dow = d.getDayOfWeek();
+            if (dow == DayOfWeek.SATURDAY || dow == DayOfWeek.SUNDAY) continue;
+
+            List<int[]> freeRanges = calendar.freeIntervals(d);
+            if (freeRanges.isEmpty()) continue;
+
+            List<Slot> slots = new ArrayList<>();
+            LocalTime deadlineTime = t.getDueTime() != null ? t.getDueTime() : LocalTime.of(23,59);
+
+            for (int[] mm : freeRanges) {
+                int end = mm[1];
+                // Trim by deadline if same as due date
+                if (d.equals(due)) end = Math.min(end, DayMinutes.start(deadlineTime));
+                for (int m = mm[0]; m + step <= end; m += step) {
+                    LocalTime cur = LocalTime.of(m / 60, m % 60);
+                    // Skip 1am-4am
+                    if (cur.getHour() >= 1 && cur.getHour() < 4) continue;
+                    // Skip Friday afternoon (FRI after 17:00)
+                    if (d.getDayOfWeek() == DayOfWeek.FRIDAY && cur.isAfter(LocalTime.of(16,59))) continue;
+                    String key = d.toString() + "#" + cur.toString();
+                    if (!occupied.contains(key)) slots.add(new Slot(d, cur, cur.plusMinutes(step)));
+                }
+            }
+
+            if (slots.isEmpty()) continue;
+
+            // find contiguous blocks
+            List<Block> blocks = findContiguousBlocks(slots);
+            if (blocks.isEmpty()) continue;
+
+            // choose block that ends latest and has enough slots
+            blocks.sort(Comparator.comparing(b -> b.slots.get(b.slots.size()-1).end));
+            for (int i = blocks.size()-1; i >=0; i--) {
+                Block b = blocks.get(i);
+                if (b.slots.size() >= neededSlots) {
+                    int startIndex = Math.max(0, b.slots.size() - neededSlots);
+                    List<Slot> chosen = b.slots.subList(startIndex, startIndex + neededSlots);
+                    t.setWorkingDate(chosen.get(0).date);
+                    t.setStartTime(chosen.get(0).start);
+                    t.setEndTime(chosen.get(chosen.size()-1).end);
+                    markOccupied(t, occupied, step);
+                    assigned = true;
+                    break;
+                }
+            }
+
+            if (assigned) break;
+        }
+        return assigned;
     }
 
-    private String buildGeminiPrompt(List<Task> tasks, Map<String, List<String>> availableHours) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("You are an assistant that must produce a JSON array describing scheduling assignments for tasks.\n");
-        sb.append("Return only valid JSON (an array). Each element must include: id (if available), title, workingDate (YYYY-MM-DD) or null, startTime (HH:MM) or null, endTime (HH:MM) or null.\n");
-        sb.append("Constraints:\n");
-        sb.append("- Keep each task's dueDate and estimatedTime unchanged.\n");
-        sb.append("- Do not assign tasks on weekends (Saturday or Sunday).\n");
-        sb.append("- Avoid 01:00-04:00 and Friday after 17:00.\n");
-        sb.append("- Assign each task inside availableHours. availableHours is a map DAY->list of ranges (HH:MM-HH:MM).\n");
-        sb.append("- Try to schedule as late as possible but before dueDate/dueTime. Use 30-minute granularity.\n");
-        sb.append("- Do not delete tasks; if no slot exists, set workingDate/startTime/endTime to null.\n");
-        sb.append("Now input data:\n");
-        sb.append("availableHours:\n");
-        sb.append(safeSerialize(availableHours, "{}"));
-        sb.append("\n");
-        sb.append("tasks:\n");
-        sb.append(safeSerialize(tasks, "[]"));
-        sb.append("\n");
-        sb.append("Return only JSON array. End.");
-        return sb.toString();
+    // Marks every step-minute slot the task touches (keys are slot starts)
+    private void markOccupied(Task t, Set<String> occupied, int step) {
+        int start = DayMinutes.start(t.getStartTime()) / step * step;
+        int end = DayMinutes.end(t.getEndTime());
+        for (int m = start; m < end; m += step) {
+            occupied.add(t.getWorkingDate().toString() + "#" + LocalTime.of(m / 60, m % 60));
+        }
     }
 
-    private String safeSerialize(Object obj, String fallback) {
+    /**
+     * Streaming variant: assignments are applied to the copies as each array element arrives.
+     * With ai.streamStopEarly the stream is abandoned as soon as every task that was still
+     * unassigned has received a slot, instead of waiting for the model to finish the array.
+     */
+    private boolean planWithGeminiStream(List<Task> copy, String prompt, AvailabilityCalendar calendar) {
+        logger.info("Need external AI (useGemini=true && needExternal=true). Will stream GeminiClient.streamText()");
+        Set<Task> pending = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<Task> answered = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Task t : copy) if (t.getWorkingDate() == null || t.getStartTime() == null || t.getEndTime() == null) pending.add(t);
+
+        long started = System.nanoTime();
         try {
-            return mapper.writeValueAsString(obj);
-        } catch (Exception e) {
-            return fallback;
+            AssignmentStreamParser parser = new AssignmentStreamParser(mapper, n -> {
+                Assignment a;
+                try {
+                    a = mapper.treeToValue(n, Assignment.class);
+                } catch (Exception ex) {
+                    logger.debug("Skipping malformed streamed assignment: {}", ex.getMessage());
+                    return true;
+                }
+                Task t = applyAssignment(copy, a);
+                if (t != null && a.hasSlot()) answered.add(t);
+                if (t != null && t.getWorkingDate() != null && t.getStartTime() != null && t.getEndTime() != null) {
+                    if (pending.remove(t) && logger.isDebugEnabled()) {
+                        logger.debug("Streamed assignment for '{}' after {} ms", t.getTitle(), (System.nanoTime() - started) / 1_000_000);
+                    }
+                }
+                return !(streamStopEarly && pending.isEmpty());
+            });
+            boolean ok = geminiClient.streamText(prompt, ASSIGNMENT_SCHEMA, userKey(copy), chunk -> {
+                try {
+                    return parser.feed(chunk);
+                } catch (Exception ex) {
+                    logger.warn("Failed to parse streamed Gemini response: {}", ex.getMessage());
+                    metrics.recordParse(false);
+                    return false;
+                }
+            });
+            logger.info("Streamed {} assignments from Gemini in {} ms ({} tasks still unassigned)",
+                    parser.elementCount(), (System.nanoTime() - started) / 1_000_000, pending.size());
+            repairAssignments(copy, answered, calendar);
+            if (ok && parser.sawArray()) {
+                metrics.recordParse(true);
+                return true;
+            }
+            return false;
+        } catch (Exception ex) {
+            logger.error("External AI (Gemini) stream failed: {}", ex.getMessage(), ex);
+            return false;
+        }
+    }
+
+    // Apply one element of the model's assignment array to the matching copy; returns that copy or null.
+    // Unparseable dates/times are stored as null so the repair pass re-plans the task locally.
+    private Task applyAssignment(List<Task> tasks, Assignment a) {
+        Task t = findTaskByIdOrTitle(tasks, a.id(), a.title());
+        if (t == null) return null;
+        if (a.workingDate() != null) t.setWorkingDate(parseOrNull(a.workingDate(), LocalDate::parse));
+        if (a.startTime() != null) t.setStartTime(parseOrNull(a.startTime(), LocalTime::parse));
+        if (a.endTime() != null) t.setEndTime(parseOrNull(a.endTime(), LocalTime::parse));
+        return t;
+    }
+
+    private static <T> T parseOrNull(String value, java.util.function.Function<String, T> parser) {
+        try {
+            return parser.apply(value.trim());
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Validate every slot the model proposed against availability, the fixed rules, deadlines and
+     * the other tasks (in priority order). Violations are cleared and re-planned with the local
+     * heuristic, so a paid round-trip never leaves a task in an impossible slot.
+     */
+    private void repairAssignments(List<Task> copy, Set<Task> answered, AvailabilityCalendar calendar) {
+        if (answered.isEmpty()) return;
+        LocalDate today = LocalDate.now();
+        Set<String> occupied = new HashSet<>();
+        for (Task t : copy) {
+            if (!answered.contains(t) && t.getWorkingDate() != null && t.getStartTime() != null && t.getEndTime() != null) {
+                markOccupied(t, occupied, calendar.granularity().minutes());
+            }
+        }
+
+        int repaired = 0, dropped = 0;
+        for (Task t : copy) {
+            if (!answered.contains(t)) continue;
+            if (isValidAssignment(t, calendar, occupied, today)) {
+                markOccupied(t, occupied, calendar.granularity().minutes());
+                continue;
+            }
+            t.setWorkingDate(null);
+            t.setStartTime(null);
+            t.setEndTime(null);
+            if (assignLatestBlock(t, calendar, occupied, today)) repaired++; else dropped++;
         }
+        if (repaired + dropped > 0) {
+            metrics.recordFallback("invalid_assignment", repaired + dropped);
+            logger.info("Repaired {} Gemini assignments locally ({} left unassigned)", repaired, dropped);
+        }
+    }
+
+    private boolean isValidAssignment(Task t, AvailabilityCalendar calendar, Set<String> occupied, LocalDate today) {
+        LocalDate d = t.getWorkingDate();
+        LocalTime start = t.getStartTime();
+        LocalTime end = t.getEndTime();
+        if (d == null || start == null || end == null) return false;
+        if (!d.isAfter(today)) return false;
+        if (t.getDueDate() != null && d.isAfter(t.getDueDate())) return false;
+        DayOfWeek dow = d.getDayOfWeek();
+        if (dow == DayOfWeek.SATURDAY || dow == DayOfWeek.SUNDAY) return false;
+
+        int s = DayMinutes.start(start);
+        int e = DayMinutes.end(end);
+        int step = calendar.granularity().minutes();
+        if (s % step != 0 || e <= s) return false;
+        if (t.getEstimatedTime() != null && e - s < t.getEstimatedTime()) return false;
+        if (t.getDueDate() != null && d.equals(t.getDueDate())) {
+            LocalTime deadline = t.getDueTime() != null ? t.getDueTime() : LocalTime.of(23, 59);
+            if (e > DayMinutes.start(deadline)) return false;
+        }
+
+        for (int m = s; m < e; m += step) {
+            if (m >= 60 && m < 240) return false;
+            if (dow == DayOfWeek.FRIDAY && m >= 17 * 60) return false;
+            if (occupied.contains(d + "#" + LocalTime.of(m / 60, m % 60))) return false;
+            if (!calendar.isFree(d, m / step)) return false;
+        }
+        return true;
+    }
+
+    // Rate-limiter queue key: the owner of the tasks being planned
+    private String userKey(List<Task> tasks) {
+        for (Task t : tasks) {
+            if (t.getUser() != null && t.getUser().getId() != null) return String.valueOf(t.getUser().getId());
+        }
+        return null;
+    }
+
+    private Task findTaskByIdOrTitle(List<Task> tasks, Long id, String title) {
+        if (id != null) for (Task t : tasks) if (t.getId() != null && t.getId().equals(id)) return t;
+        if (title != null) for (Task t : tasks) if (title.equals(t.getTitle())) return t;
+        return null;
+    }
+
+    private String buildGeminiPrompt(List<Task> tasks, Map<String, List<String>> availableHours, AvailabilityCalendar calendar) {
+        String prompt = promptBuilder.build(tasks, availableHours, calendar);
+        logger.debug("Gemini prompt: {} chars, ~{} tokens", prompt.length(), GeminiPromptBuilder.estimateTokens(prompt));
+        return prompt;
     }
 
     private int priorityValue(String p) {
@@ -256,13 +414,28 @@ public class AIPlannerService {
         }
     }
 
-    private String dayNameFor(int idx) {
-        String[] dayNames = {"SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT"};
-        if (idx < 0 || idx >= dayNames.length) return "MON";
-        return dayNames[idx];
+    // Helper types
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record Assignment(Long id, String title, String workingDate, String startTime, String endTime) {
+        boolean hasSlot() { return workingDate != null || startTime != null || endTime != null; }
+    }
+
+    private static JsonNode buildAssignmentSchema() {
+        ObjectNode schema = JsonNodeFactory.instance.objectNode();
+        schema.put("type", "ARRAY");
+        ObjectNode item = schema.putObject("items");
+        item.put("type", "OBJECT");
+        ObjectNode props = item.putObject("properties");
+        props.putObject("id").put("type", "INTEGER").put("nullable", true);
+        props.putObject("title").put("type", "STRING").put("nullable", true);
+        props.putObject("workingDate").put("type", "STRING").put("nullable", true).put("description", "YYYY-MM-DD");
+        props.putObject("startTime").put("type", "STRING").put("nullable", true).put("description", "HH:MM");
+        props.putObject("endTime").put("type", "STRING").put("nullable", true).put("description", "HH:MM");
+        item.putArray("required").add("workingDate").add("startTime").add("endTime");
+        item.putArray("propertyOrdering").add("id").add("title").add("workingDate").add("startTime").add("endTime");
+        return schema;
     }
 
-    // Helper types
     private static class Slot { LocalDate date; LocalTime start; LocalTime end; Slot(LocalDate d, LocalTime s, LocalTime e){date=d;start=s;end=e;} }
     private static class Block { List<Slot> slots = new ArrayList<>(); }
 
@@ -1,9 +1,17 @@
 package com.planiarback.planiar.service;
 
+import com.planiarback.planiar.dto.ActivitySummary;
 import com.planiarback.planiar.model.Activity;
 import com.planiarback.planiar.model.User;
 import com.planiarback.planiar.repository.ActivityRepository;
+import com.planiarback.planiar.repository.KeysetPage;
+import com.planiarback.planiar.repository.KeysetPager;
+import com.planiarback.planiar.repository.KeysetPager.SortKey;
+import com.planiarback.planiar.repository.Specs;
+import com.planiarback.planiar.repository.TextSearch;
 import com.planiarback.planiar.repository.UserRepository;
+import com.planiarback.planiar.util.Occupancy;
+import com.planiarback.planiar.util.ScheduleImpact;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,11 +30,15 @@ public class ActivityService {
     private final ActivityRepository activityRepository;
     private final UserRepository userRepository;
     private final UserService userService;
+    private final KeysetPager pager;
+    private final TextSearch textSearch;
 
-    public ActivityService(ActivityRepository activityRepository, UserRepository userRepository, UserService userService) {
+    public ActivityService(ActivityRepository activityRepository, UserRepository userRepository, UserService userService, KeysetPager pager, TextSearch textSearch) {
         this.activityRepository = activityRepository;
         this.userRepository = userRepository;
         this.userService = userService;
+        this.pager = pager;
+        this.textSearch = textSearch;
     }
 
     /**
@@ -39,7 +51,7 @@ public class ActivityService {
         activity.setUser(user);
         validateActivity(activity);
         Activity saved = activityRepository.save(activity);
-        userService.recalculateAvailableHours(user);
+        userService.updateAvailableHours(user, Occupancy.NONE, Occupancy.of(saved));
         return saved;
     }
 
@@ -53,91 +65,98 @@ public class ActivityService {
     /**
      * Obtener todas las actividades de un usuario
      */
-    public List<Activity> getAllActivitiesByUser(Long userId) {
-        return activityRepository.findByUserId(userId);
+    public KeysetPage<ActivitySummary> getAllActivitiesByUser(Long userId, String after, Integer limit) {
+        return pager.find(Activity.class, ActivitySummary.class, SortKey.BY_ID, after, limit,
+                Specs.ofUser(userId));
     }
 
     /**
      * Obtener actividades ordenadas por fecha de inicio
      */
-    public List<Activity> getActivitiesByUserOrderedByDate(Long userId) {
-        return activityRepository.findByUserIdOrderByStartDateAsc(userId);
+    public KeysetPage<ActivitySummary> getActivitiesByUserOrderedByDate(Long userId, String after, Integer limit) {
+        return pager.find(Activity.class, ActivitySummary.class, SortKey.asc("startDate"), after, limit,
+                Specs.ofUser(userId));
     }
 
     /**
      * Obtener actividades activas en una fecha específica
      */
-    public List<Activity> getActiveActivitiesOnDate(Long userId, LocalDate date) {
-        return activityRepository.findByUserIdAndStartDateLessThanEqualAndEndDateGreaterThanEqual(
-                userId, date, date);
+    public KeysetPage<ActivitySummary> getActiveActivitiesOnDate(Long userId, LocalDate date, String after, Integer limit) {
+        return pager.find(Activity.class, ActivitySummary.class, SortKey.BY_ID, after, limit,
+                Specs.ofUser(userId), Specs.atMost("startDate", date), Specs.atLeast("endDate", date));
     }
 
     /**
      * Obtener actividades activas hoy
      */
-    public List<Activity> getActiveActivitiesToday(Long userId) {
-        return getActiveActivitiesOnDate(userId, LocalDate.now());
+    public KeysetPage<ActivitySummary> getActiveActivitiesToday(Long userId, String after, Integer limit) {
+        return getActiveActivitiesOnDate(userId, LocalDate.now(), after, limit);
     }
 
     /**
      * Obtener actividades para un día de la semana específico
      */
-    public List<Activity> getActivitiesByDayOfWeek(Long userId, DayOfWeek dayOfWeek) {
-        String dayIndex = String.valueOf(dayOfWeek.getValue() % 7);
-        return activityRepository.findByUserIdAndDaysContaining(userId, dayIndex);
+    public KeysetPage<ActivitySummary> getActivitiesByDayOfWeek(Long userId, DayOfWeek dayOfWeek, String after, Integer limit) {
+        return pager.find(Activity.class, ActivitySummary.class, SortKey.BY_ID, after, limit,
+                Specs.ofUser(userId), Specs.contains("days", String.valueOf(dayOfWeek.getValue() % 7)));
     }
 
     /**
      * Obtener actividades activas para hoy y el día de la semana actual
      */
-    public List<Activity> getTodaySchedule(Long userId) {
+    public KeysetPage<ActivitySummary> getTodaySchedule(Long userId, String after, Integer limit) {
         LocalDate today = LocalDate.now();
-        DayOfWeek dayOfWeek = today.getDayOfWeek();
-        String dayIndex = String.valueOf(dayOfWeek.getValue() % 7);
-        
-        return activityRepository.findActiveActivitiesByUserAndDateAndDay(userId, today, dayIndex);
+        String dayIndex = String.valueOf(today.getDayOfWeek().getValue() % 7);
+        return pager.find(Activity.class, ActivitySummary.class, SortKey.BY_ID, after, limit,
+                Specs.ofUser(userId), Specs.atMost("startDate", today), Specs.atLeast("endDate", today),
+                Specs.contains("days", dayIndex));
     }
 
     /**
      * Obtener actividades por color
      */
-    public List<Activity> getActivitiesByColor(Long userId, String color) {
-        return activityRepository.findByUserIdAndColor(userId, color);
+    public KeysetPage<ActivitySummary> getActivitiesByColor(Long userId, String color, String after, Integer limit) {
+        return pager.find(Activity.class, ActivitySummary.class, SortKey.BY_ID, after, limit,
+                Specs.ofUser(userId), Specs.equal("color", color));
     }
 
     /**
      * Obtener actividades en un rango de fechas
      */
-    public List<Activity> getActivitiesInRange(Long userId, LocalDate startDate, LocalDate endDate) {
-        return activityRepository.findOverlappingActivities(userId, startDate, endDate);
+    public KeysetPage<ActivitySummary> getActivitiesInRange(Long userId, LocalDate startDate, LocalDate endDate, String after, Integer limit) {
+        return pager.find(Activity.class, ActivitySummary.class, SortKey.BY_ID, after, limit,
+                Specs.ofUser(userId),
+                Specs.atMost("startDate", endDate), Specs.atLeast("endDate", startDate));
     }
 
     /**
-     * Buscar actividades por título
+     * Buscar actividades por título, las mejores coincidencias primero
      */
-    public List<Activity> searchActivitiesByTitle(Long userId, String title) {
-        return activityRepository.findByUserIdAndTitleContainingIgnoreCase(userId, title);
+    public KeysetPage<ActivitySummary> searchActivitiesByTitle(Long userId, String title, String after, Integer limit) {
+        return textSearch.search(Activity.class, ActivitySummary.class, userId, title, after, limit, "title");
     }
 
     /**
      * Obtener actividades futuras
      */
-    public List<Activity> getFutureActivities(Long userId) {
-        return activityRepository.findByUserIdAndStartDateAfterOrderByStartDateAsc(userId, LocalDate.now());
+    public KeysetPage<ActivitySummary> getFutureActivities(Long userId, String after, Integer limit) {
+        return pager.find(Activity.class, ActivitySummary.class, SortKey.asc("startDate"), after, limit,
+                Specs.ofUser(userId), Specs.greaterThan("startDate", LocalDate.now()));
     }
 
     /**
      * Obtener actividades pasadas
      */
-    public List<Activity> getPastActivities(Long userId) {
-        return activityRepository.findByUserIdAndEndDateBeforeOrderByEndDateDesc(userId, LocalDate.now());
+    public KeysetPage<ActivitySummary> getPastActivities(Long userId, String after, Integer limit) {
+        return pager.find(Activity.class, ActivitySummary.class, SortKey.desc("endDate"), after, limit,
+                Specs.ofUser(userId), Specs.lessThan("endDate", LocalDate.now()));
     }
 
     /**
      * Obtener actividades de un usuario en una fecha específica
      */
-    public List<Activity> getActivitiesByUserAndDate(Long userId, LocalDate date) {
-        return activityRepository.findByUserIdAndSpecificDate(userId, date);
+    public KeysetPage<ActivitySummary> getActivitiesByUserAndDate(Long userId, LocalDate date, String after, Integer limit) {
+        return getActiveActivitiesOnDate(userId, date, after, limit);
     }
 
     /**
@@ -146,6 +165,8 @@ public class ActivityService {
     public Activity updateActivity(Long id, Activity activityDetails) {
         Activity activity = activityRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Actividad no encontrada con id: " + id));
+        Occupancy before = Occupancy.of(activity);
+        ScheduleImpact impact = ScheduleImpact.of(activity, activityDetails);
 
         activity.setTitle(activityDetails.getTitle());
         activity.setDays(activityDetails.getDays());
@@ -158,7 +179,10 @@ public class ActivityService {
 
         validateActivity(activity);
         Activity saved = activityRepository.save(activity);
-        userService.recalculateAvailableHours(activity.getUser());
+        // Title, description or color only: availability is unchanged
+        if (impact.affectsAvailability()) {
+            userService.updateAvailableHours(activity.getUser(), before, Occupancy.of(saved));
+        }
         return saved;
     }
 
@@ -169,8 +193,9 @@ public class ActivityService {
     Activity activity = activityRepository.findById(id)
         .orElseThrow(() -> new RuntimeException("Actividad no encontrada con id: " + id));
     User user = activity.getUser();
+    Occupancy before = Occupancy.of(activity);
     activityRepository.delete(activity);
-    if (user != null) userService.recalculateAvailableHours(user);
+    if (user != null) userService.updateAvailableHours(user, before, Occupancy.NONE);
     }
 
     /**
@@ -178,7 +203,7 @@ public class ActivityService {
      */
     public void deleteAllUserActivities(Long userId) {
         activityRepository.deleteByUserId(userId);
-        userRepository.findById(userId).ifPresent(userService::recalculateAvailableHours);
+        userService.markScheduleDirty(userId);
     }
 
     /**
@@ -260,7 +285,7 @@ public class ActivityService {
     /**
      * Validar datos de la actividad
      */
-    private void validateActivity(Activity activity) {
+    void validateActivity(Activity activity) {
         if (activity.getTitle() == null || activity.getTitle().trim().isEmpty()) {
             throw new IllegalArgumentException("El título no puede estar vacío");
         }
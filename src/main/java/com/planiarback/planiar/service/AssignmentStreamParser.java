@@ -0,0 +1,99 @@
+package com.planiarback.planiar.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Predicate;
+
+/**
+ * Incremental parser for the planner's JSON array of assignments.
+ * Text fragments are fed as they arrive from the model; each top-level array element is handed
+ * to the callback as soon as its closing brace has been read. Anything before the opening '['
+ * (e.g. a ```json fence) and anything after the closing ']' is ignored.
+ */
+class AssignmentStreamParser {
+
+    private final ObjectMapper mapper;
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private final Predicate<JsonNode> onElement;
+
+    private boolean started;
+    private boolean finished;
+    private int depth;
+    private TokenBuffer element;
+    private int elementCount;
+
+    /**
+     * @param onElement receives each parsed element; return false to stop consuming further input
+     */
+    AssignmentStreamParser(ObjectMapper mapper, Predicate<JsonNode> onElement) throws IOException {
+        this.mapper = mapper;
+        this.parser = mapper.getFactory().createNonBlockingByteArrayParser();
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        this.onElement = onElement;
+    }
+
+    /**
+     * Feed the next text fragment. Returns false once the array is complete or the callback asked
+     * to stop, so it can be used directly as the stream consumer.
+     */
+    boolean feed(String text) throws IOException {
+        if (finished) return false;
+        if (!started) {
+            int open = text.indexOf('[');
+            if (open < 0) return true;
+            text = text.substring(open);
+            started = true;
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        feeder.feedInput(bytes, 0, bytes.length);
+
+        JsonToken token;
+        while (!finished && (token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            if (element != null) element.copyCurrentEvent(parser);
+            switch (token) {
+                case START_ARRAY:
+                case START_OBJECT:
+                    if (depth == 1 && token == JsonToken.START_OBJECT) {
+                        element = new TokenBuffer(parser);
+                        element.copyCurrentEvent(parser);
+                    }
+                    depth++;
+                    break;
+                case END_OBJECT:
+                case END_ARRAY:
+                    depth--;
+                    if (depth == 1 && element != null) {
+                        JsonNode node = mapper.readTree(element.asParser());
+                        element = null;
+                        elementCount++;
+                        if (!onElement.test(node)) finished = true;
+                    } else if (depth == 0) {
+                        finished = true;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        return !finished;
+    }
+
+    /**
+     * True once a top-level array has been opened, i.e. the model answered in the expected shape.
+     */
+    boolean sawArray() {
+        return started && (depth > 0 || finished);
+    }
+
+    int elementCount() {
+        return elementCount;
+    }
+}
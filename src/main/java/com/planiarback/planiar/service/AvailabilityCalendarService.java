@@ -0,0 +1,222 @@
+package com.planiarback.planiar.service;
+
+import com.planiarback.planiar.model.CalendarDay;
+import com.planiarback.planiar.model.User;
+import com.planiarback.planiar.repository.CalendarDayRepository;
+import com.planiarback.planiar.repository.ScheduleEntry;
+import com.planiarback.planiar.repository.UserRepository;
+import com.planiarback.planiar.util.AvailabilityCalendar;
+import com.planiarback.planiar.util.AvailabilityMask;
+import com.planiarback.planiar.util.Occupancy;
+import com.planiarback.planiar.util.OccupancyCounts;
+import com.planiarback.planiar.util.SlotBits;
+import com.planiarback.planiar.util.SlotGranularity;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Materialised per-date availability over a rolling horizon (availability.horizonDays from
+ * today). Unlike the weekly template on the user, each day only counts the classes and
+ * activities whose start/end dates include it and the tasks scheduled on that exact date.
+ * Days are rebuilt with the full recalculation, adjusted by difference on single changes, and
+ * the window is extended lazily the first time a user's calendar is read on a new day.
+ */
+@Service
+@Transactional
+public class AvailabilityCalendarService {
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityCalendarService.class);
+
+    private final CalendarDayRepository calendarDayRepository;
+    private final UserRepository userRepository;
+
+    @Value("${availability.horizonDays:90}")
+    private int horizonDays;
+
+    @Value("${availability.slotMinutes:30}")
+    private int slotMinutes;
+
+    private SlotGranularity granularity;
+
+    public AvailabilityCalendarService(CalendarDayRepository calendarDayRepository,
+                                       UserRepository userRepository) {
+        this.calendarDayRepository = calendarDayRepository;
+        this.userRepository = userRepository;
+    }
+
+    @PostConstruct
+    void init() {
+        granularity = SlotGranularity.ofMinutes(slotMinutes);
+    }
+
+    /**
+     * Granularidad de los huecos con la que se calcula la disponibilidad de un usuario. Hoy es la
+     * misma para todos (availability.slotMinutes); los datos guardados indican la suya, así que
+     * cambiarla sólo provoca un recálculo.
+     */
+    public SlotGranularity granularityFor(Long userId) {
+        return granularity;
+    }
+
+    /**
+     * Calendario de disponibilidad del usuario entre dos fechas (inclusive). Las fechas fuera del
+     * horizonte materializado usan la plantilla semanal del usuario.
+     */
+    public AvailabilityCalendar calendar(User user, LocalDate from, LocalDate to) {
+        AvailabilityMask weekly = user.getAvailabilityMask();
+        if (user.getId() == null || from == null || to == null || to.isBefore(from)) {
+            return AvailabilityCalendar.weekly(weekly);
+        }
+        SlotGranularity g = granularityFor(user.getId());
+        ensureMaterialized(user.getId());
+
+        List<CalendarDay> stored = calendarDayRepository.findByUserIdAndDayBetweenOrderByDayAsc(user.getId(), from, to);
+        if (stored.stream().anyMatch(d -> d.getFreeBits().length != g.slotsPerDay() / 8)) {
+            // Built at another granularity: rebuild under the user lock, then read again
+            userRepository.lockOccupancyCounts(user.getId());
+            rebuild(user.getId(), occupanciesOf(user.getId()));
+            stored = calendarDayRepository.findByUserIdAndDayBetweenOrderByDayAsc(user.getId(), from, to);
+        }
+
+        int wpd = g.wordsPerDay();
+        long[] words = new long[((int) ChronoUnit.DAYS.between(from, to) + 1) * wpd];
+        AvailabilityMask template = weekly != null ? weekly.withGranularity(g) : null;
+        if (template != null) {
+            for (int i = 0; i * wpd < words.length; i++) {
+                template.copyDay(from.plusDays(i).getDayOfWeek().getValue() % 7, words, i * wpd);
+            }
+        }
+        for (CalendarDay d : stored) {
+            int offset = (int) ChronoUnit.DAYS.between(from, d.getDay()) * wpd;
+            Arrays.fill(words, offset, offset + wpd, 0L);
+            SlotBits.fromBytes(d.getFreeBits(), 0, g.slotsPerDay(), words, offset);
+        }
+        return new AvailabilityCalendar(from, g, words, weekly);
+    }
+
+    /**
+     * Recalcular todos los días del horizonte a partir de las ocupaciones dadas. Sólo se escriben
+     * los días que cambian. El llamador debe tener bloqueada la fila del usuario.
+     */
+    public void rebuild(Long userId, List<Occupancy> occupancies) {
+        SlotGranularity g = granularityFor(userId);
+        LocalDate today = LocalDate.now();
+        LocalDate end = today.plusDays(horizonDays - 1L);
+        char[][] counts = new char[horizonDays][g.slotsPerDay()];
+        for (Occupancy o : occupancies) {
+            if (o.isEmpty()) continue;
+            LocalDate lo = o.from() == null || o.from().isBefore(today) ? today : o.from();
+            LocalDate hi = o.to() == null || o.to().isAfter(end) ? end : o.to();
+            for (LocalDate d = lo; !d.isAfter(hi); d = d.plusDays(1)) {
+                OccupancyCounts.apply(counts[(int) ChronoUnit.DAYS.between(today, d)], g, o.minutesOn(d), 1);
+            }
+        }
+
+        Map<LocalDate, CalendarDay> existing = new HashMap<>();
+        for (CalendarDay d : calendarDayRepository.findByUserIdAndDayBetweenOrderByDayAsc(userId, today, end)) {
+            existing.put(d.getDay(), d);
+        }
+        List<CalendarDay> changed = new ArrayList<>();
+        for (int i = 0; i < horizonDays; i++) {
+            byte[] bytes = OccupancyCounts.encode(counts[i]);
+            CalendarDay day = existing.get(today.plusDays(i));
+            if (day != null && Arrays.equals(day.getOccupancy(), bytes)) continue;
+            if (day == null) {
+                day = new CalendarDay();
+                day.setUserId(userId);
+                day.setDay(today.plusDays(i));
+            }
+            day.setOccupancy(bytes);
+            day.setFreeBits(freeBits(counts[i], g));
+            changed.add(day);
+        }
+        calendarDayRepository.saveAll(changed);
+        calendarDayRepository.deleteByUserIdAndDayBefore(userId, today);
+        calendarDayRepository.deleteByUserIdAndDayAfter(userId, end);
+    }
+
+    /**
+     * Aplicar el cambio de una clase, actividad o tarea a los días materializados que afecta.
+     * El llamador debe tener bloqueada la fila del usuario.
+     */
+    public void applyDelta(Long userId, Occupancy before, Occupancy after) {
+        LocalDate today = LocalDate.now();
+        LocalDate last = calendarDayRepository.findLastDayByUserId(userId);
+        if (last == null) return; // nothing materialised yet; the first read builds it
+        LocalDate lo = null;
+        LocalDate hi = null;
+        for (Occupancy o : List.of(before, after)) {
+            if (o.isEmpty()) continue;
+            LocalDate from = o.from() == null || o.from().isBefore(today) ? today : o.from();
+            LocalDate to = o.to() == null || o.to().isAfter(last) ? last : o.to();
+            if (lo == null || from.isBefore(lo)) lo = from;
+            if (hi == null || to.isAfter(hi)) hi = to;
+        }
+        if (lo == null || hi.isBefore(lo)) return;
+
+        SlotGranularity g = granularityFor(userId);
+        for (CalendarDay day : calendarDayRepository.findByUserIdAndDayBetweenOrderByDayAsc(userId, lo, hi)) {
+            int[] removed = before.minutesOn(day.getDay());
+            int[] added = after.minutesOn(day.getDay());
+            if (removed.length == 0 && added.length == 0) continue;
+            // Days built at another granularity are rebuilt on the next read instead
+            if (day.getOccupancy().length != 2 * g.slotsPerDay()) continue;
+            char[] counts = new char[g.slotsPerDay()];
+            OccupancyCounts.decode(day.getOccupancy(), counts);
+            OccupancyCounts.apply(counts, g, removed, -1);
+            OccupancyCounts.apply(counts, g, added, 1);
+            day.setOccupancy(OccupancyCounts.encode(counts));
+            day.setFreeBits(freeBits(counts, g));
+        }
+    }
+
+    /**
+     * Eliminar el calendario materializado de un usuario
+     */
+    public void deleteCalendar(Long userId) {
+        calendarDayRepository.deleteByUserId(userId);
+    }
+
+    // Extends the window to today + horizon (and drops past days) once per day per user
+    private void ensureMaterialized(Long userId) {
+        LocalDate end = LocalDate.now().plusDays(horizonDays - 1L);
+        LocalDate last = calendarDayRepository.findLastDayByUserId(userId);
+        if (last != null && !last.isBefore(end)) return;
+
+        // Serialise with concurrent rebuilds/deltas of the same user, then re-check
+        userRepository.lockOccupancyCounts(userId);
+        last = calendarDayRepository.findLastDayByUserId(userId);
+        if (last != null && !last.isBefore(end)) return;
+        logger.debug("Materialising availability calendar for user {} through {}", userId, end);
+        rebuild(userId, occupanciesOf(userId));
+    }
+
+    /**
+     * Ocupaciones de todas las clases, actividades y tareas programadas de un usuario, leídas con
+     * una sola consulta de las columnas de horario (sin cargar entidades)
+     */
+    public List<Occupancy> occupanciesOf(Long userId) {
+        List<Occupancy> out = new ArrayList<>();
+        for (ScheduleEntry e : userRepository.findScheduleByUserId(userId)) out.add(Occupancy.of(e));
+        return out;
+    }
+
+    private static byte[] freeBits(char[] counts, SlotGranularity g) {
+        long[] words = new long[g.wordsPerDay()];
+        for (int s = 0; s < counts.length; s++) if (counts[s] == 0) words[s >>> 6] |= 1L << s;
+        byte[] out = new byte[g.slotsPerDay() / 8];
+        SlotBits.toBytes(words, 0, g.slotsPerDay(), out, 0);
+        return out;
+    }
+}
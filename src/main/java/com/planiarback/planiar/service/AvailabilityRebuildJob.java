@@ -0,0 +1,303 @@
+package com.planiarback.planiar.service;
+
+import com.planiarback.planiar.model.JobCheckpoint;
+import com.planiarback.planiar.model.User;
+import com.planiarback.planiar.repository.JobCheckpointRepository;
+import com.planiarback.planiar.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admin job that recalculates the availability of every user, e.g. after the slot granularity or
+ * the occupancy rules change. Users are walked by id with keyset pagination in chunks of
+ * availability.rebuild.chunkSize; each chunk is recalculated in one transaction, so its updates
+ * are flushed as JDBC batches, and at most availability.rebuild.maxConnections chunks (capped
+ * at the number of cores) run at once, so the job holds at most that many pooled connections
+ * plus one for paging and checkpoints.
+ * The highest id below which every chunk has finished is stored in job_checkpoints, so a run
+ * interrupted by a crash resumes from there. Progress is exposed by {@link #progress()} and as
+ * Micrometer meters.
+ */
+@Service
+public class AvailabilityRebuildJob {
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityRebuildJob.class);
+
+    static final String JOB_NAME = "availability-rebuild";
+
+    private final UserRepository userRepository;
+    private final JobCheckpointRepository checkpointRepository;
+    private final UserService userService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final Counter usersCounter;
+
+    @Value("${availability.rebuild.chunkSize:50}")
+    private int chunkSize;
+
+    @Value("${availability.rebuild.maxConnections:2}")
+    private int maxConnections;
+
+    private volatile Run current;
+
+    public AvailabilityRebuildJob(UserRepository userRepository, JobCheckpointRepository checkpointRepository,
+                                  UserService userService, PlatformTransactionManager txManager,
+                                  MeterRegistry registry) {
+        this.userRepository = userRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.userService = userService;
+        this.transactionTemplate = new TransactionTemplate(txManager);
+        this.usersCounter = Counter.builder("availability.rebuild.users")
+                .description("Users recalculated by the bulk availability rebuild")
+                .register(registry);
+        Gauge.builder("availability.rebuild.running", this, j -> j.isRunning() ? 1 : 0)
+                .description("1 while a bulk availability rebuild is running")
+                .register(registry);
+        Gauge.builder("availability.rebuild.rate", this, j -> j.current != null ? j.rate(j.current) : 0)
+                .description("Users per second of the current or last bulk availability rebuild")
+                .register(registry);
+    }
+
+    /** Estado de la ejecución actual o de la última. */
+    public record Progress(String status, long processed, long failed, long total, long lastId,
+                           LocalDateTime startedAt, LocalDateTime finishedAt, double usersPerSecond) {}
+
+    /**
+     * Lanzar el recálculo de todos los usuarios en segundo plano. Continúa desde el último punto
+     * guardado si una ejecución anterior no terminó, salvo que restart sea true.
+     * @throws IllegalStateException si ya hay una ejecución en curso
+     */
+    public synchronized Progress start(boolean restart) {
+        if (isRunning()) throw new IllegalStateException("Ya hay un recálculo de disponibilidad en curso");
+
+        JobCheckpoint checkpoint = checkpointRepository.findById(JOB_NAME).orElse(null);
+        long from = 0;
+        long alreadyDone = 0;
+        if (!restart && checkpoint != null && JobCheckpoint.RUNNING.equals(checkpoint.getStatus())) {
+            from = checkpoint.getLastId();
+            alreadyDone = checkpoint.getProcessed();
+            logger.info("Resuming availability rebuild after user id {} ({} users already done)", from, alreadyDone);
+        }
+        processed.set(alreadyDone);
+        failed.set(0);
+        saveCheckpoint(from, alreadyDone, JobCheckpoint.RUNNING);
+
+        int workers = Math.max(1, Math.min(maxConnections, Runtime.getRuntime().availableProcessors()));
+        Run run = new Run(from, alreadyDone, userRepository.count(), workers);
+        current = run;
+        Thread coordinator = new Thread(run::execute, "availability-rebuild");
+        coordinator.setDaemon(true);
+        coordinator.start();
+        return progress();
+    }
+
+    public boolean isRunning() {
+        Run run = current;
+        return run != null && run.finishedAt == null;
+    }
+
+    public Progress progress() {
+        Run run = current;
+        if (run == null) {
+            return checkpointRepository.findById(JOB_NAME)
+                    .map(c -> new Progress(c.getStatus(), c.getProcessed(), 0, 0, c.getLastId(), null, c.getUpdatedAt(), 0))
+                    .orElse(new Progress("IDLE", 0, 0, 0, 0, null, null, 0));
+        }
+        return new Progress(run.finishedAt == null ? JobCheckpoint.RUNNING : run.status, processed.get(), failed.get(),
+                run.total, run.watermark, run.startedAt, run.finishedAt, rate(run));
+    }
+
+    // Users per second recalculated by this run (not counting those done before a resume)
+    private double rate(Run run) {
+        LocalDateTime end = run.finishedAt != null ? run.finishedAt : LocalDateTime.now();
+        double seconds = Math.max(0.001, Duration.between(run.startedAt, end).toMillis() / 1000.0);
+        return (processed.get() - run.resumedWith) / seconds;
+    }
+
+    @PreDestroy
+    void stop() {
+        Run run = current;
+        if (run != null) run.stopping = true;
+    }
+
+    private void saveCheckpoint(long lastId, long done, String status) {
+        transactionTemplate.executeWithoutResult(s -> {
+            JobCheckpoint c = checkpointRepository.findById(JOB_NAME).orElseGet(JobCheckpoint::new);
+            c.setName(JOB_NAME);
+            c.setLastId(lastId);
+            c.setProcessed(done);
+            c.setStatus(status);
+            c.setUpdatedAt(LocalDateTime.now());
+            checkpointRepository.save(c);
+        });
+    }
+
+    // Recalculates one chunk in a single transaction; if that fails, user by user so one bad
+    // user does not hold back the rest
+    private void rebuildChunk(List<Long> ids) {
+        try {
+            transactionTemplate.executeWithoutResult(s -> {
+                for (User u : userRepository.findAllById(ids)) userService.recalculateAvailableHours(u);
+            });
+            processed.addAndGet(ids.size());
+            usersCounter.increment(ids.size());
+        } catch (RuntimeException chunkError) {
+            logger.warn("Availability rebuild chunk {}..{} failed ({}), retrying per user",
+                    ids.get(0), ids.get(ids.size() - 1), chunkError.getMessage());
+            for (Long id : ids) {
+                try {
+                    transactionTemplate.executeWithoutResult(s ->
+                            userRepository.findById(id).ifPresent(userService::recalculateAvailableHours));
+                    processed.incrementAndGet();
+                    usersCounter.increment();
+                } catch (RuntimeException ex) {
+                    failed.incrementAndGet();
+                    logger.warn("Availability rebuild failed for user {}: {}", id, ex.getMessage());
+                }
+            }
+        }
+    }
+
+    private final class Run {
+        final LocalDateTime startedAt = LocalDateTime.now();
+        final long resumedWith;
+        final long total;
+        final int workers;
+        // Chunks in id order; the head is the oldest one still running
+        final Deque<Chunk> inFlight = new ArrayDeque<>();
+        volatile long watermark;
+        // Users walked up to the watermark, including those done before a resume
+        long committed;
+        volatile boolean stopping;
+        volatile LocalDateTime finishedAt;
+        volatile String status;
+        // Serialises checkpoint writes (kept off the Run monitor, so workers are not held up by
+        // the database) and drops those overtaken by a later watermark
+        private final Object saveLock = new Object();
+        private long savedWatermark = -1;
+
+        Run(long from, long resumedWith, long total, int workers) {
+            this.watermark = from;
+            this.resumedWith = resumedWith;
+            this.committed = resumedWith;
+            this.total = total;
+            this.workers = workers;
+        }
+
+        void execute() {
+            ExecutorService pool = Executors.newFixedThreadPool(workers, threadFactory());
+            Semaphore slots = new Semaphore(workers);
+            long cursor = watermark;
+            try {
+                while (!stopping) {
+                    List<Long> ids = userRepository.findIdsAfter(cursor, PageRequest.of(0, chunkSize));
+                    if (ids.isEmpty()) break;
+                    cursor = ids.get(ids.size() - 1);
+                    slots.acquire();
+                    Chunk chunk = new Chunk(cursor, ids.size());
+                    synchronized (this) {
+                        inFlight.addLast(chunk);
+                    }
+                    pool.execute(() -> {
+                        try {
+                            rebuildChunk(ids);
+                        } finally {
+                            complete(chunk);
+                            slots.release();
+                        }
+                    });
+                }
+                slots.acquire(workers); // wait for the chunks still running
+                status = stopping ? JobCheckpoint.RUNNING : JobCheckpoint.COMPLETED;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                status = JobCheckpoint.RUNNING;
+            } catch (RuntimeException e) {
+                logger.error("Availability rebuild stopped: {}", e.getMessage(), e);
+                status = JobCheckpoint.RUNNING;
+            } finally {
+                pool.shutdown();
+            }
+            long mark, done;
+            synchronized (this) {
+                mark = watermark;
+                done = committed;
+            }
+            persist(mark, done, status);
+            finishedAt = LocalDateTime.now();
+            logger.info("Availability rebuild {}: {} users recalculated, {} failed, up to id {}",
+                    JobCheckpoint.COMPLETED.equals(status) ? "completed" : "interrupted",
+                    processed.get(), failed.get(), watermark);
+        }
+
+        // Advances the watermark over every leading chunk that has finished, then saves it
+        void complete(Chunk chunk) {
+            long mark, done;
+            synchronized (this) {
+                chunk.done = true;
+                boolean advanced = false;
+                while (!inFlight.isEmpty() && inFlight.peekFirst().done) {
+                    Chunk head = inFlight.pollFirst();
+                    watermark = head.lastId;
+                    committed += head.size;
+                    advanced = true;
+                }
+                if (!advanced) return;
+                mark = watermark;
+                done = committed;
+            }
+            persist(mark, done, JobCheckpoint.RUNNING);
+        }
+
+        private void persist(long mark, long done, String runStatus) {
+            synchronized (saveLock) {
+                // Two workers can leave complete() in either order; never move the checkpoint back
+                if (mark < savedWatermark) return;
+                saveCheckpoint(mark, done, runStatus);
+                savedWatermark = mark;
+            }
+        }
+
+        private ThreadFactory threadFactory() {
+            AtomicInteger n = new AtomicInteger();
+            return r -> {
+                Thread t = new Thread(r, "availability-rebuild-" + n.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            };
+        }
+    }
+
+    private static final class Chunk {
+        final long lastId;
+        final int size;
+        boolean done;
+
+        Chunk(long lastId, int size) {
+            this.lastId = lastId;
+            this.size = size;
+        }
+    }
+}
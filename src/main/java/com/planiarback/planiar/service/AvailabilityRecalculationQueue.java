@@ -0,0 +1,97 @@
+package com.planiarback.planiar.service;
+
+import com.planiarback.planiar.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs full availability recalculations off the request path. {@link UserScheduleDirtyEvent}s
+ * are taken after the publishing transaction commits (immediately when there is none), and a
+ * user already waiting in the queue is not queued again, so a burst of N edits costs one
+ * recalculation. Events arriving while a user's recalculation runs queue one more pass.
+ * Worker count: availability.recalc.threads.
+ */
+@Component
+public class AvailabilityRecalculationQueue {
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityRecalculationQueue.class);
+
+    private final UserService userService;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final Timer recalcTimer;
+
+    @Value("${availability.recalc.threads:2}")
+    private int threads;
+
+    private ExecutorService workers;
+
+    public AvailabilityRecalculationQueue(UserService userService, UserRepository userRepository,
+                                          PlatformTransactionManager txManager, MeterRegistry registry) {
+        this.userService = userService;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(txManager);
+        Gauge.builder("availability.recalc.pending", pending, Set::size)
+                .description("Users waiting for an availability recalculation")
+                .register(registry);
+        this.recalcTimer = Timer.builder("availability.recalc")
+                .description("Queued full availability recalculations")
+                .register(registry);
+    }
+
+    @PostConstruct
+    void start() {
+        AtomicInteger n = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread t = new Thread(r, "availability-recalc-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        workers.shutdown();
+        workers.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScheduleDirty(UserScheduleDirtyEvent event) {
+        Long userId = event.userId();
+        if (userId == null) return;
+        if (pending.add(userId)) workers.execute(() -> recalculate(userId));
+    }
+
+    /** Users queued but not yet started. */
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    private void recalculate(Long userId) {
+        // Leave the queue before reading, so later edits trigger another pass
+        pending.remove(userId);
+        try {
+            recalcTimer.record(() -> transactionTemplate.executeWithoutResult(status ->
+                    userRepository.findById(userId).ifPresent(userService::recalculateAvailableHours)));
+        } catch (RuntimeException ex) {
+            logger.warn("Availability recalculation failed for user {}: {}", userId, ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.planiarback.planiar.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.planiarback.planiar.model.Activity;
+import com.planiarback.planiar.model.Class;
+import com.planiarback.planiar.model.Task;
+import com.planiarback.planiar.model.User;
+import com.planiarback.planiar.repository.ActivityRepository;
+import com.planiarback.planiar.repository.ClassRepository;
+import com.planiarback.planiar.repository.TaskRepository;
+import com.planiarback.planiar.repository.UserRepository;
+import com.planiarback.planiar.util.CsvReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Bulk import of a user's classes, activities and tasks from a JSON array or a CSV document, read
+ * as a stream. Every row is validated as soon as it is read, with the same rules as the create
+ * endpoints; valid rows are inserted in batches (one transaction per batch) and invalid ones are
+ * reported without stopping the import. Unlike the create endpoints, no row updates availability
+ * or calls the planner: availability is recalculated once at the end and, if tasks were
+ * imported, the user's tasks are planned once.
+ */
+@Service
+public class BulkImportService {
+    private static final Logger logger = LoggerFactory.getLogger(BulkImportService.class);
+
+    public enum Format { JSON, CSV }
+
+    // Value of the "kind" field/column of each row
+    public static final String KIND_CLASS = "class";
+    public static final String KIND_ACTIVITY = "activity";
+    public static final String KIND_TASK = "task";
+
+    // The counts are always complete; only the list of errors is cut
+    static final int MAX_REPORTED_ERRORS = 500;
+
+    private final UserRepository userRepository;
+    private final ClassRepository classRepository;
+    private final ActivityRepository activityRepository;
+    private final TaskRepository taskRepository;
+    private final ClassService classService;
+    private final ActivityService activityService;
+    private final TaskService taskService;
+    private final UserService userService;
+    private final ObjectMapper mapper;
+    private final TransactionTemplate transactionTemplate;
+
+    // Rows per insert transaction; the JDBC batch size so each batch is one round-trip per table
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    public BulkImportService(UserRepository userRepository, ClassRepository classRepository,
+                             ActivityRepository activityRepository, TaskRepository taskRepository,
+                             ClassService classService, ActivityService activityService, TaskService taskService,
+                             UserService userService, ObjectMapper mapper, PlatformTransactionManager txManager) {
+        this.userRepository = userRepository;
+        this.classRepository = classRepository;
+        this.activityRepository = activityRepository;
+        this.taskRepository = taskRepository;
+        this.classService = classService;
+        this.activityService = activityService;
+        this.taskService = taskService;
+        this.userService = userService;
+        this.mapper = mapper;
+        this.transactionTemplate = new TransactionTemplate(txManager);
+    }
+
+    /** Error de una fila: número de fila (1 = primera fila de datos), tipo y motivo. */
+    public record RowError(long row, String kind, String error) {}
+
+    /** Resultado de la importación. */
+    public record ImportReport(long rows, int classes, int activities, int tasks, long failed,
+                               List<RowError> errors, boolean planned) {}
+
+    /**
+     * Importar en bloque las filas del documento para el usuario. Las filas inválidas se informan
+     * en el resultado y no detienen la importación; un documento mal formado se importa hasta el
+     * punto del error.
+     * @throws IllegalArgumentException si el usuario no existe
+     */
+    public ImportReport importSchedule(Long userId, InputStream body, Format format) throws IOException {
+        if (!userRepository.existsById(userId)) {
+            throw new IllegalArgumentException("Usuario no encontrado con id: " + userId);
+        }
+        Batch batch = new Batch(userId);
+        try {
+            if (format == Format.CSV) readCsv(body, batch);
+            else readJson(body, batch);
+        } catch (JsonProcessingException e) {
+            batch.error(batch.rows + 1, null, "JSON inválido: " + e.getOriginalMessage());
+        } catch (IllegalArgumentException e) {
+            batch.error(batch.rows + 1, null, e.getMessage());
+        }
+        batch.flush();
+
+        boolean planned = false;
+        if (batch.classes + batch.activities + batch.tasks > 0) {
+            // One full recalculation for everything imported, then one plan over all the tasks
+            transactionTemplate.executeWithoutResult(s ->
+                    userRepository.findById(userId).ifPresent(userService::recalculateAvailableHours));
+            if (batch.tasks > 0) {
+                taskService.replanUserTasks(userId);
+                planned = true;
+            }
+        }
+        logger.info("Bulk import for user {}: {} rows, {} classes, {} activities, {} tasks, {} failed",
+                userId, batch.rows, batch.classes, batch.activities, batch.tasks, batch.failed);
+        return new ImportReport(batch.rows, batch.classes, batch.activities, batch.tasks, batch.failed,
+                batch.errors, planned);
+    }
+
+    // A top-level array of row objects, each element parsed as soon as it has been read
+    private void readJson(InputStream body, Batch batch) throws IOException {
+        try (JsonParser parser = mapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Se esperaba un arreglo JSON de filas");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+                if (token == JsonToken.START_OBJECT) {
+                    batch.add((ObjectNode) mapper.readTree(parser));
+                } else {
+                    parser.skipChildren();
+                    batch.error(++batch.rows, null, "Cada fila debe ser un objeto JSON");
+                }
+            }
+        }
+    }
+
+    // A header row with the field names (kind plus the JSON names of the entity fields), then one
+    // row per record; empty cells are left unset
+    private void readCsv(InputStream body, Batch batch) throws IOException {
+        CsvReader csv = new CsvReader(new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)));
+        List<String> header = csv.next();
+        if (header == null) return;
+        if (!header.isEmpty() && header.get(0).startsWith("\uFEFF")) header.set(0, header.get(0).substring(1));
+        List<String> record;
+        while ((record = csv.next()) != null) {
+            ObjectNode node = mapper.createObjectNode();
+            for (int i = 0; i < header.size() && i < record.size(); i++) {
+                String value = record.get(i).trim();
+                if (!value.isEmpty()) node.put(header.get(i).trim(), value);
+            }
+            batch.add(node);
+        }
+    }
+
+    // Valid rows waiting to be inserted, plus the running counts of the import
+    private final class Batch {
+        final Long userId;
+        final List<Object> pending = new ArrayList<>();
+        final List<Long> pendingRows = new ArrayList<>();
+        final List<RowError> errors = new ArrayList<>();
+        long rows;
+        long failed;
+        int classes;
+        int activities;
+        int tasks;
+
+        Batch(Long userId) {
+            this.userId = userId;
+        }
+
+        void add(ObjectNode node) {
+            long row = ++rows;
+            String kind = node.path("kind").asText("").trim().toLowerCase(Locale.ROOT);
+            node.remove(List.of("kind", "id", "user"));
+            try {
+                pending.add(toEntity(kind, node));
+                pendingRows.add(row);
+            } catch (JsonProcessingException e) {
+                error(row, kind, "Fila inválida: " + e.getOriginalMessage());
+                return;
+            } catch (IllegalArgumentException e) {
+                error(row, kind, e.getMessage());
+                return;
+            }
+            if (pending.size() >= batchSize) flush();
+        }
+
+        // Converts and validates one row with the rules of the matching create endpoint
+        private Object toEntity(String kind, ObjectNode node) throws JsonProcessingException {
+            switch (kind) {
+                case KIND_CLASS -> {
+                    Class c = mapper.treeToValue(node, Class.class);
+                    classService.validateClass(c);
+                    return c;
+                }
+                case KIND_ACTIVITY -> {
+                    Activity a = mapper.treeToValue(node, Activity.class);
+                    activityService.validateActivity(a);
+                    return a;
+                }
+                case KIND_TASK -> {
+                    Task t = mapper.treeToValue(node, Task.class);
+                    taskService.validateTask(t);
+                    return t;
+                }
+                default -> throw new IllegalArgumentException(
+                        "Tipo de fila desconocido: '" + kind + "'. Use: class, activity, task");
+            }
+        }
+
+        // Inserts the pending rows in one transaction; if that fails, row by row so only the
+        // offending rows are reported
+        void flush() {
+            if (pending.isEmpty()) return;
+            try {
+                transactionTemplate.executeWithoutResult(s -> pending.forEach(this::save));
+                pending.forEach(this::count);
+            } catch (RuntimeException batchError) {
+                logger.warn("Bulk import batch for user {} failed ({}), retrying per row", userId, batchError.getMessage());
+                for (int i = 0; i < pending.size(); i++) {
+                    Object entity = pending.get(i);
+                    try {
+                        transactionTemplate.executeWithoutResult(s -> save(entity));
+                        count(entity);
+                    } catch (RuntimeException ex) {
+                        error(pendingRows.get(i), kindOf(entity), ex.getMessage());
+                    }
+                }
+            }
+            pending.clear();
+            pendingRows.clear();
+        }
+
+        private void save(Object entity) {
+            User user = userRepository.getReferenceById(userId);
+            if (entity instanceof Class c) {
+                c.setId(null);
+                c.setUser(user);
+                classRepository.save(c);
+            } else if (entity instanceof Activity a) {
+                a.setId(null);
+                a.setUser(user);
+                activityRepository.save(a);
+            } else if (entity instanceof Task t) {
+                t.setId(null);
+                t.setUser(user);
+                taskRepository.save(t);
+            }
+        }
+
+        private void count(Object entity) {
+            if (entity instanceof Class) classes++;
+            else if (entity instanceof Activity) activities++;
+            else if (entity instanceof Task) tasks++;
+        }
+
+        void error(long row, String kind, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) errors.add(new RowError(row, kind, message));
+        }
+
+        private String kindOf(Object entity) {
+            return entity instanceof Class ? KIND_CLASS : entity instanceof Activity ? KIND_ACTIVITY : KIND_TASK;
+        }
+    }
+}
@@ -1,9 +1,17 @@
 package com.planiarback.planiar.service;
 
+import com.planiarback.planiar.dto.ClassSummary;
 import com.planiarback.planiar.model.Class;
 import com.planiarback.planiar.model.User;
 import com.planiarback.planiar.repository.ClassRepository;
+import com.planiarback.planiar.repository.KeysetPage;
+import com.planiarback.planiar.repository.KeysetPager;
+import com.planiarback.planiar.repository.KeysetPager.SortKey;
+import com.planiarback.planiar.repository.Specs;
+import com.planiarback.planiar.repository.TextSearch;
 import com.planiarback.planiar.repository.UserRepository;
+import com.planiarback.planiar.util.Occupancy;
+import com.planiarback.planiar.util.ScheduleImpact;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,11 +29,15 @@ public class ClassService {
     private final ClassRepository classRepository;
     private final UserRepository userRepository;
     private final UserService userService;
+    private final KeysetPager pager;
+    private final TextSearch textSearch;
 
-    public ClassService(ClassRepository classRepository, UserRepository userRepository, UserService userService) {
+    public ClassService(ClassRepository classRepository, UserRepository userRepository, UserService userService, KeysetPager pager, TextSearch textSearch) {
         this.classRepository = classRepository;
         this.userRepository = userRepository;
         this.userService = userService;
+        this.pager = pager;
+        this.textSearch = textSearch;
     }
 
     /**
@@ -38,7 +50,7 @@ public class ClassService {
         classEntity.setUser(user);
         validateClass(classEntity);
         Class saved = classRepository.save(classEntity);
-        userService.recalculateAvailableHours(user);
+        userService.updateAvailableHours(user, Occupancy.NONE, Occupancy.of(saved));
         return saved;
     }
 
@@ -46,32 +58,34 @@ public class ClassService {
      * Obtener todas las clases
      */
     @Transactional(readOnly = true)
-    public List<Class> getAllClasses() {
-        return classRepository.findAll();
+    public KeysetPage<ClassSummary> getAllClasses(String after, Integer limit) {
+        return pager.find(Class.class, ClassSummary.class, SortKey.BY_ID, after, limit);
     }
 
     /**
      * Obtener todas las clases de un usuario
      */
     @Transactional(readOnly = true)
-    public List<Class> getAllClassesByUser(Long userId) {
-        return classRepository.findByUserId(userId);
+    public KeysetPage<ClassSummary> getAllClassesByUser(Long userId, String after, Integer limit) {
+        return pager.find(Class.class, ClassSummary.class, SortKey.BY_ID, after, limit, Specs.ofUser(userId));
     }
 
     /**
      * Obtener clases ordenadas alfabéticamente
      */
     @Transactional(readOnly = true)
-    public List<Class> getClassesOrderedByTitle(Long userId) {
-        return classRepository.findByUserIdOrderByTitleAsc(userId);
+    public KeysetPage<ClassSummary> getClassesOrderedByTitle(Long userId, String after, Integer limit) {
+        return pager.find(Class.class, ClassSummary.class, SortKey.asc("title"), after, limit,
+                Specs.ofUser(userId));
     }
 
     /**
      * Obtener clases ordenadas por fecha de inicio
      */
     @Transactional(readOnly = true)
-    public List<Class> getClassesOrderedByDate(Long userId) {
-        return classRepository.findByUserIdOrderByStartDateAsc(userId);
+    public KeysetPage<ClassSummary> getClassesOrderedByDate(Long userId, String after, Integer limit) {
+        return pager.find(Class.class, ClassSummary.class, SortKey.asc("startDate"), after, limit,
+                Specs.ofUser(userId));
     }
 
     /**
@@ -99,101 +113,105 @@ public class ClassService {
     }
 
     /**
-     * Buscar clases por título
+     * Buscar clases por título, las mejores coincidencias primero
      */
     @Transactional(readOnly = true)
-    public List<Class> searchClassesByTitle(String title) {
-        return classRepository.findByTitleContainingIgnoreCase(title);
+    public KeysetPage<ClassSummary> searchClassesByTitle(String title, String after, Integer limit) {
+        return textSearch.search(Class.class, ClassSummary.class, null, title, after, limit, "title");
     }
 
     /**
-     * Buscar clases de un usuario por título
+     * Buscar clases de un usuario por título, las mejores coincidencias primero
      */
     @Transactional(readOnly = true)
-    public List<Class> searchClassesByTitleAndUser(Long userId, String title) {
-        return classRepository.findByUserIdAndTitleContainingIgnoreCase(userId, title);
+    public KeysetPage<ClassSummary> searchClassesByTitleAndUser(Long userId, String title, String after, Integer limit) {
+        return textSearch.search(Class.class, ClassSummary.class, userId, title, after, limit, "title");
     }
 
     /**
      * Obtener clases activas en una fecha específica
      */
     @Transactional(readOnly = true)
-    public List<Class> getActiveClassesOnDate(Long userId, LocalDate date) {
-        return classRepository.findByUserIdAndStartDateLessThanEqualAndEndDateGreaterThanEqual(
-                userId, date, date);
+    public KeysetPage<ClassSummary> getActiveClassesOnDate(Long userId, LocalDate date, String after, Integer limit) {
+        return pager.find(Class.class, ClassSummary.class, SortKey.BY_ID, after, limit, Specs.ofUser(userId),
+                Specs.atMost("startDate", date), Specs.atLeast("endDate", date));
     }
 
     /**
      * Obtener clases activas hoy
      */
     @Transactional(readOnly = true)
-    public List<Class> getActiveClassesToday(Long userId) {
-        return getActiveClassesOnDate(userId, LocalDate.now());
+    public KeysetPage<ClassSummary> getActiveClassesToday(Long userId, String after, Integer limit) {
+        return getActiveClassesOnDate(userId, LocalDate.now(), after, limit);
     }
 
     /**
      * Obtener clases por color
      */
     @Transactional(readOnly = true)
-    public List<Class> getClassesByColor(Long userId, String color) {
-        return classRepository.findByUserIdAndColor(userId, color);
+    public KeysetPage<ClassSummary> getClassesByColor(Long userId, String color, String after, Integer limit) {
+        return pager.find(Class.class, ClassSummary.class, SortKey.BY_ID, after, limit,
+                Specs.ofUser(userId), Specs.equal("color", color));
     }
 
     /**
      * Obtener clases en un rango de fechas
      */
     @Transactional(readOnly = true)
-    public List<Class> getClassesInRange(Long userId, LocalDate startDate, LocalDate endDate) {
-        return classRepository.findByUserIdAndStartDateBetween(userId, startDate, endDate);
+    public KeysetPage<ClassSummary> getClassesInRange(Long userId, LocalDate startDate, LocalDate endDate, String after, Integer limit) {
+        return pager.find(Class.class, ClassSummary.class, SortKey.BY_ID, after, limit, Specs.ofUser(userId),
+                Specs.between("startDate", startDate, endDate));
     }
 
     /**
      * Obtener clases futuras
      */
     @Transactional(readOnly = true)
-    public List<Class> getFutureClasses(Long userId) {
-        return classRepository.findByUserIdAndStartDateAfterOrderByStartDateAsc(userId, LocalDate.now());
+    public KeysetPage<ClassSummary> getFutureClasses(Long userId, String after, Integer limit) {
+        return pager.find(Class.class, ClassSummary.class, SortKey.asc("startDate"), after, limit,
+                Specs.ofUser(userId), Specs.greaterThan("startDate", LocalDate.now()));
     }
 
     /**
      * Obtener clases pasadas
      */
     @Transactional(readOnly = true)
-    public List<Class> getPastClasses(Long userId) {
-        return classRepository.findByUserIdAndEndDateBeforeOrderByEndDateDesc(userId, LocalDate.now());
+    public KeysetPage<ClassSummary> getPastClasses(Long userId, String after, Integer limit) {
+        return pager.find(Class.class, ClassSummary.class, SortKey.desc("endDate"), after, limit,
+                Specs.ofUser(userId), Specs.lessThan("endDate", LocalDate.now()));
     }
 
     /**
-     * Buscar clases por profesor
+     * Buscar clases por profesor, las mejores coincidencias primero
      */
     @Transactional(readOnly = true)
-    public List<Class> searchClassesByProfessor(Long userId, String professor) {
-        return classRepository.findByUserIdAndProfessorContaining(userId, professor);
+    public KeysetPage<ClassSummary> searchClassesByProfessor(Long userId, String professor, String after, Integer limit) {
+        return textSearch.search(Class.class, ClassSummary.class, userId, professor, after, limit, "professor");
     }
 
     /**
-     * Buscar clases por salón
+     * Buscar clases por salón, las mejores coincidencias primero
      */
     @Transactional(readOnly = true)
-    public List<Class> searchClassesByRoom(Long userId, String room) {
-        return classRepository.findByUserIdAndRoomContaining(userId, room);
+    public KeysetPage<ClassSummary> searchClassesByRoom(Long userId, String room, String after, Integer limit) {
+        return textSearch.search(Class.class, ClassSummary.class, userId, room, after, limit, "room");
     }
 
     /**
      * Obtener clases para un día de la semana específico
      */
     @Transactional(readOnly = true)
-    public List<Class> getClassesByDayOfWeek(Long userId, int dayOfWeek) {
-        String dayIndex = String.valueOf(dayOfWeek);
-        return classRepository.findByUserIdAndDaysContaining(userId, dayIndex);
+    public KeysetPage<ClassSummary> getClassesByDayOfWeek(Long userId, int dayOfWeek, String after, Integer limit) {
+        return pager.find(Class.class, ClassSummary.class, SortKey.BY_ID, after, limit, Specs.ofUser(userId),
+                Specs.contains("days", String.valueOf(dayOfWeek)));
     }
 
     /**
      * Obtener clases de un usuario en una fecha específica
      */
     @Transactional(readOnly = true)
-    public List<Class> getClassesByUserAndDate(Long userId, LocalDate date) {
-        return classRepository.findByUserIdAndSpecificDate(userId, date);
+    public KeysetPage<ClassSummary> getClassesByUserAndDate(Long userId, LocalDate date, String after, Integer limit) {
+        return getActiveClassesOnDate(userId, date, after, limit);
     }
 
     /**
@@ -204,6 +222,8 @@ public class ClassService {
                 .orElseThrow(() -> new IllegalArgumentException("Clase no encontrada con id: " + id));
 
         Long userId = classEntity.getUser().getId();
+        Occupancy before = Occupancy.of(classEntity);
+        ScheduleImpact impact = ScheduleImpact.of(classEntity, classDetails);
 
         if (!classEntity.getTitle().equals(classDetails.getTitle()) &&
             classRepository.existsByUserIdAndTitle(userId, classDetails.getTitle())) {
@@ -222,7 +242,10 @@ public class ClassService {
 
         validateClass(classEntity);
         Class saved = classRepository.save(classEntity);
-        userService.recalculateAvailableHours(classEntity.getUser());
+        // Title, professor, room or color only: availability is unchanged
+        if (impact.affectsAvailability()) {
+            userService.updateAvailableHours(classEntity.getUser(), before, Occupancy.of(saved));
+        }
         return saved;
     }
 
@@ -233,8 +256,9 @@ public class ClassService {
         Class classEntity = classRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Clase no encontrada con id: " + id));
         User user = classEntity.getUser();
+        Occupancy before = Occupancy.of(classEntity);
         classRepository.deleteById(id);
-        if (user != null) userService.recalculateAvailableHours(user);
+        if (user != null) userService.updateAvailableHours(user, before, Occupancy.NONE);
     }
 
     /**
@@ -242,7 +266,7 @@ public class ClassService {
      */
     public void deleteAllUserClasses(Long userId) {
         classRepository.deleteByUserId(userId);
-        userRepository.findById(userId).ifPresent(userService::recalculateAvailableHours);
+        userService.markScheduleDirty(userId);
     }
 
     /**
@@ -322,7 +346,7 @@ public class ClassService {
     /**
      * Validar datos de la clase
      */
-    private void validateClass(Class classEntity) {
+    void validateClass(Class classEntity) {
         if (classEntity.getTitle() == null || classEntity.getTitle().trim().isEmpty()) {
             throw new IllegalArgumentException("El título no puede estar vacío");
         }
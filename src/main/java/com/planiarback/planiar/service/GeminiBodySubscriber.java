@@ -0,0 +1,223 @@
+package com.planiarback.planiar.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Non-blocking body subscriber for Gemini JSON replies: every chunk is gunzipped (when the reply is
+ * gzip-encoded) and fed to Jackson's async parser as it arrives, so the JSON is tokenised while
+ * the body is still downloading and no thread waits on it. The tokens collected this way are
+ * bound to the target type once the last chunk has arrived. Non-2xx bodies are kept as text for
+ * logging.
+ */
+class GeminiBodySubscriber<T> implements HttpResponse.BodySubscriber<GeminiBodySubscriber.Reply<T>> {
+
+    /** Parsed reply (2xx) or error text (otherwise); bytes is the decoded body size. */
+    record Reply<T>(T response, String error, int bytes) {}
+
+    private final boolean success;
+    private final ObjectReader reader;
+    private final Gunzip gunzip;
+    private final JsonParser parser;
+    private final TokenBuffer tokens;
+    private final ByteArrayOutputStream errorBody = new ByteArrayOutputStream();
+    private final CompletableFuture<Reply<T>> result = new CompletableFuture<>();
+    private Flow.Subscription subscription;
+    private int bytes;
+
+    GeminiBodySubscriber(HttpResponse.ResponseInfo info, ObjectMapper mapper, ObjectReader reader) {
+        this.success = info.statusCode() >= 200 && info.statusCode() < 300;
+        this.reader = reader;
+        this.gunzip = info.headers().firstValue("Content-Encoding")
+                .filter(v -> v.equalsIgnoreCase("gzip")).map(v -> new Gunzip()).orElse(null);
+        try {
+            this.parser = success ? mapper.getFactory().createNonBlockingByteArrayParser() : null;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        this.tokens = success ? new TokenBuffer(mapper, false) : null;
+    }
+
+    static <T> HttpResponse.BodyHandler<Reply<T>> handler(ObjectMapper mapper, ObjectReader reader) {
+        return info -> new GeminiBodySubscriber<>(info, mapper, reader);
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> items) {
+        try {
+            for (ByteBuffer item : items) {
+                byte[] chunk = new byte[item.remaining()];
+                item.get(chunk);
+                if (gunzip != null) gunzip.feed(chunk, this::accept);
+                else accept(chunk);
+            }
+            subscription.request(1);
+        } catch (IOException e) {
+            subscription.cancel();
+            if (gunzip != null) gunzip.close();
+            result.completeExceptionally(e);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        if (gunzip != null) gunzip.close();
+        result.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        try {
+            if (gunzip != null) gunzip.finish();
+            if (!success) {
+                result.complete(new Reply<>(null, errorBody.toString(StandardCharsets.UTF_8), bytes));
+                return;
+            }
+            ((ByteArrayFeeder) parser.getNonBlockingInputFeeder()).endOfInput();
+            drain();
+            result.complete(new Reply<>(reader.readValue(tokens.asParser()), null, bytes));
+        } catch (IOException | RuntimeException e) {
+            result.completeExceptionally(e);
+        } finally {
+            if (gunzip != null) gunzip.close();
+        }
+    }
+
+    @Override
+    public CompletionStage<Reply<T>> getBody() {
+        return result;
+    }
+
+    // One decoded chunk: tokenise it now (2xx) or keep it as error text
+    private void accept(byte[] chunk) throws IOException {
+        bytes += chunk.length;
+        if (!success) {
+            errorBody.writeBytes(chunk);
+            return;
+        }
+        ((ByteArrayFeeder) parser.getNonBlockingInputFeeder()).feedInput(chunk, 0, chunk.length);
+        drain();
+    }
+
+    private void drain() throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            tokens.copyCurrentEvent(parser);
+        }
+    }
+
+    /**
+     * Incremental gzip decoder (single member, RFC 1952): the header is skipped once complete, the
+     * deflate data is inflated chunk by chunk and the CRC32/ISIZE trailer is checked at the end.
+     */
+    static final class Gunzip {
+        private static final int FHCRC = 2, FEXTRA = 4, FNAME = 8, FCOMMENT = 16;
+        private static final int TRAILER = 8;
+
+        interface Sink {
+            void accept(byte[] chunk) throws IOException;
+        }
+
+        private final Inflater inflater = new Inflater(true);
+        private final CRC32 crc = new CRC32();
+        private final byte[] out = new byte[8192];
+        private final byte[] trailer = new byte[TRAILER];
+        private byte[] header = new byte[0];
+        private boolean inBody;
+        private int trailerLength;
+        private long size;
+
+        void feed(byte[] in, Sink sink) throws IOException {
+            int off = 0;
+            if (!inBody) {
+                header = Arrays.copyOf(header, header.length + in.length);
+                System.arraycopy(in, 0, header, header.length - in.length, in.length);
+                int length = headerLength(header);
+                if (length < 0) return;
+                inBody = true;
+                in = header;
+                off = length;
+                header = null;
+            }
+            if (!inflater.finished()) {
+                inflater.setInput(in, off, in.length - off);
+                try {
+                    // Until inflate has nothing more to give: a full out buffer may leave output pending
+                    int n;
+                    while ((n = inflater.inflate(out)) > 0) {
+                        crc.update(out, 0, n);
+                        size += n;
+                        sink.accept(Arrays.copyOf(out, n));
+                    }
+                } catch (DataFormatException e) {
+                    throw new IOException("Invalid gzip data", e);
+                }
+                if (!inflater.finished()) return;
+                off = in.length - inflater.getRemaining();
+            }
+            // Bytes after the deflate data: the trailer (anything past it is ignored)
+            int n = Math.min(TRAILER - trailerLength, in.length - off);
+            System.arraycopy(in, off, trailer, trailerLength, n);
+            trailerLength += n;
+        }
+
+        /** Checks that the whole member arrived and matches its trailer. */
+        void finish() throws IOException {
+            if (!inBody || !inflater.finished() || trailerLength < TRAILER) throw new IOException("Truncated gzip body");
+            if (readInt(trailer, 0) != (int) crc.getValue()) throw new IOException("gzip CRC mismatch");
+            if (readInt(trailer, 4) != (int) size) throw new IOException("gzip size mismatch");
+        }
+
+        void close() {
+            inflater.end();
+        }
+
+        private static int readInt(byte[] b, int pos) {
+            return (b[pos] & 0xff) | (b[pos + 1] & 0xff) << 8 | (b[pos + 2] & 0xff) << 16 | (b[pos + 3] & 0xff) << 24;
+        }
+
+        // Header size once all of it has arrived, -1 while incomplete
+        static int headerLength(byte[] h) throws IOException {
+            if (h.length < 10) return -1;
+            if ((h[0] & 0xff) != 0x1f || (h[1] & 0xff) != 0x8b || h[2] != 8) throw new IOException("Not gzip data");
+            int flags = h[3] & 0xff;
+            int pos = 10;
+            if ((flags & FEXTRA) != 0) {
+                if (h.length < pos + 2) return -1;
+                pos += 2 + ((h[pos] & 0xff) | (h[pos + 1] & 0xff) << 8);
+            }
+            for (int flag : new int[]{FNAME, FCOMMENT}) {
+                if ((flags & flag) == 0) continue;
+                while (pos < h.length && h[pos] != 0) pos++;
+                if (pos >= h.length) return -1;
+                pos++;
+            }
+            if ((flags & FHCRC) != 0) pos += 2;
+            return pos <= h.length ? pos : -1;
+        }
+    }
+}
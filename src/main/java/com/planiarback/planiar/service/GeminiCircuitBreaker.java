@@ -0,0 +1,122 @@
+package com.planiarback.planiar.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * Circuit breaker for the external AI planner.
+ * CLOSED: calls go through. After `failureThreshold` consecutive failures (errors, non-2xx or
+ * calls slower than `slowCallMs`) the breaker OPENs and callers fall back to the local planner
+ * immediately. After `openMs` a single probe is let through (HALF_OPEN); its outcome closes or
+ * re-opens the breaker. Also keeps a small latency window used to derive the hedging delay.
+ */
+@Component
+public class GeminiCircuitBreaker {
+    private static final Logger logger = LoggerFactory.getLogger(GeminiCircuitBreaker.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private static final int WINDOW = 128;
+    private static final int MIN_SAMPLES = 20;
+
+    @Value("${gemini.breaker.enabled:true}")
+    private boolean enabled;
+
+    @Value("${gemini.breaker.failureThreshold:5}")
+    private int failureThreshold;
+
+    @Value("${gemini.breaker.slowCallMs:8000}")
+    private long slowCallMs;
+
+    @Value("${gemini.breaker.openMs:30000}")
+    private long openMs;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openUntil;
+    private boolean probeInFlight;
+
+    private final long[] latencies = new long[WINDOW];
+    private int latencyCount;
+    private int latencyNext;
+
+    /**
+     * Whether a remote call may be attempted now. In HALF_OPEN only one probe is admitted.
+     */
+    public synchronized boolean allowRequest() {
+        if (!enabled) return true;
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.currentTimeMillis() < openUntil) return false;
+                state = State.HALF_OPEN;
+                probeInFlight = true;
+                logger.info("Gemini circuit half-open, sending probe");
+                return true;
+            default:
+                if (probeInFlight) return false;
+                probeInFlight = true;
+                return true;
+        }
+    }
+
+    /**
+     * Record a completed 2xx call. Calls slower than slowCallMs count as failures.
+     */
+    public synchronized void recordSuccess(long latencyMs) {
+        recordLatency(latencyMs);
+        if (latencyMs > slowCallMs) {
+            recordFailure("slow call (" + latencyMs + " ms)");
+            return;
+        }
+        if (state != State.CLOSED) logger.info("Gemini circuit closed");
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probeInFlight = false;
+    }
+
+    public synchronized void recordFailure(String reason) {
+        consecutiveFailures++;
+        probeInFlight = false;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openUntil = System.currentTimeMillis() + openMs;
+            logger.warn("Gemini circuit opened after {} consecutive failures (last: {}); using local planner for {} ms",
+                    consecutiveFailures, reason, openMs);
+        }
+    }
+
+    /**
+     * Give back the HALF_OPEN probe slot when an admitted call ends without an outcome (shed by the
+     * rate limiter, quota 429, request not built, interrupted), so the next call can probe instead
+     * of the breaker staying half-open with no probe ever completing.
+     */
+    public synchronized void releaseProbe() {
+        probeInFlight = false;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * 95th percentile of recent call latencies, or -1 until enough samples were collected.
+     */
+    public synchronized long p95LatencyMs() {
+        if (latencyCount < MIN_SAMPLES) return -1;
+        long[] sorted = Arrays.copyOf(latencies, latencyCount);
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(0.95 * latencyCount) - 1];
+    }
+
+    private void recordLatency(long latencyMs) {
+        latencies[latencyNext] = latencyMs;
+        latencyNext = (latencyNext + 1) % WINDOW;
+        if (latencyCount < WINDOW) latencyCount++;
+    }
+}
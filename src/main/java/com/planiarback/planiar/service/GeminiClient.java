@@ -1,18 +1,48 @@
 package com.planiarback.planiar.service;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.planiarback.planiar.service.GeminiBodySubscriber.Reply;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.net.URI;
+import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 @Component
 public class GeminiClient {
@@ -31,102 +61,460 @@ public class GeminiClient {
     @Value("${gemini.useApiKey:false}")
     private boolean useApiKey;
 
+    // Gzip request bodies (opt-in: prompts are small and not every endpoint accepts them);
+    // responses are always requested with Accept-Encoding: gzip
+    @Value("${gemini.compressRequests:false}")
+    private boolean compressRequests;
+
+    // Same switch Spring Boot uses for Tomcat and @Async; keeps all blocking I/O on virtual threads
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    // Optional hedging: second attempt after the recent p95 latency (default delay until enough samples)
+    @Value("${gemini.hedge.enabled:false}")
+    private boolean hedgeEnabled;
+
+    @Value("${gemini.hedge.defaultDelayMs:4000}")
+    private long hedgeDefaultDelayMs;
+
+    @Value("${gemini.hedge.minDelayMs:500}")
+    private long hedgeMinDelayMs;
+
+    // Local stub mode for tests and benchmarks: no network; after a fixed latency the call ends
+    // without an answer, like a skipped call, so callers take their local fallback
+    @Value("${gemini.stub.enabled:false}")
+    private boolean stubEnabled;
+
+    @Value("${gemini.stub.latencyMs:50}")
+    private long stubLatencyMs;
+
+    @Autowired
+    private GeminiCircuitBreaker breaker;
+
+    @Autowired
+    private GeminiRateLimiter rateLimiter;
+
+    @Autowired
+    private GeminiMetrics metrics;
+
     private final ObjectMapper mapper = new ObjectMapper();
-    private final HttpClient http = HttpClient.newBuilder()
-            .connectTimeout(Duration.ofSeconds(10))
-            .build();
+    private final ObjectReader responseReader = mapper.readerFor(GenerateContentResponse.class);
+    private final HttpResponse.BodyHandler<Reply<GenerateContentResponse>> responseBodyHandler =
+            GeminiBodySubscriber.handler(mapper, responseReader);
+    private ExecutorService virtualExecutor;
+    private HttpClient http;
+
+    @PostConstruct
+    void init() {
+        // One shared client: HTTP/2 multiplexes concurrent plans over a reused connection
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofSeconds(10));
+        if (virtualThreads) {
+            virtualExecutor = Executors.newVirtualThreadPerTaskExecutor();
+            builder.executor(virtualExecutor);
+        }
+        http = builder.build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (virtualExecutor != null) virtualExecutor.shutdown();
+    }
 
     /**
-     * Call Gemini (Generative API) with a text prompt. Returns the model's text output if available.
-     * The implementation is intentionally generic: the exact REST shape may vary by deployment.
-     * Configure `gemini.apiKey` and `gemini.model` in application.properties or env.
+     * Call Gemini (generateContent) with a text prompt. Returns the text of the first candidate if available.
+     * Configure `gemini.apiKey`, `gemini.model` and `gemini.endpoint` in application.properties or env.
      */
     public Optional<String> generateText(String prompt) {
+        return generateTextAsync(prompt, null).join();
+    }
+
+    /**
+     * Same as {@link #generateText(String)} but asks for JSON output constrained to the given
+     * OpenAPI-style schema (generationConfig.responseSchema).
+     */
+    public Optional<String> generateText(String prompt, JsonNode responseSchema) {
+        return generateTextAsync(prompt, responseSchema, null).join();
+    }
+
+    /**
+     * Same as {@link #generateText(String, JsonNode)}, queued fairly per userKey by the rate limiter.
+     * Returns empty right away when the request is shed because of the shared API quota.
+     */
+    public Optional<String> generateText(String prompt, JsonNode responseSchema, String userKey) {
+        return generateTextAsync(prompt, responseSchema, userKey).join();
+    }
+
+    /**
+     * Non-blocking variant of {@link #generateText(String)}: no thread is parked while the model
+     * generates. The response body is gunzipped and tokenised chunk by chunk as it arrives
+     * (see {@link GeminiBodySubscriber}), without buffering it whole first. The future never completes exceptionally;
+     * failures are logged and surface as an empty Optional.
+     */
+    public CompletableFuture<Optional<String>> generateTextAsync(String prompt) {
+        return generateTextAsync(prompt, null);
+    }
+
+    public CompletableFuture<Optional<String>> generateTextAsync(String prompt, JsonNode responseSchema) {
+        return generateTextAsync(prompt, responseSchema, null);
+    }
+
+    public CompletableFuture<Optional<String>> generateTextAsync(String prompt, JsonNode responseSchema, String userKey) {
+        if (stubEnabled) {
+            metrics.recordSkipped("stub");
+            return CompletableFuture.supplyAsync(Optional::<String>empty,
+                    CompletableFuture.delayedExecutor(stubLatencyMs, TimeUnit.MILLISECONDS));
+        }
         if (apiKey == null || apiKey.isBlank()) {
             logger.debug("Gemini API key not configured, skipping external AI call");
-            return Optional.empty();
+            metrics.recordSkipped("no_api_key");
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        if (!breaker.allowRequest()) {
+            logger.debug("Gemini circuit open, skipping external AI call");
+            metrics.recordSkipped("circuit_open");
+            return CompletableFuture.completedFuture(Optional.empty());
         }
 
+        HttpRequest req;
+        int promptTokens = GeminiPromptBuilder.estimateTokens(prompt);
         try {
-            // Construct a generic request expected by many Gemini REST wrappers.
-            // Payload asks model for a JSON-only response describing assignments.
-            ObjectNodeWrapper wrapper = new ObjectNodeWrapper(mapper);
-            wrapper.put("prompt", prompt);
-            wrapper.put("maxOutputTokens", 16000);
-
-            String body = wrapper.toString();
-
-            String url = endpoint;
-            // If endpoint looks like base, append model path
-            if (!endpoint.contains(model)) {
-                if (endpoint.endsWith("/")) url = endpoint + "v1/models/" + model + ":generateText";
-                else url = endpoint + "/v1/models/" + model + ":generateText";
+            byte[] body = mapper.writeValueAsBytes(buildPayload(prompt, responseSchema));
+            metrics.recordPrompt(body.length);
+            req = postJson(resolveUrl("generateContent", null), body, Duration.ofSeconds(20));
+        } catch (Exception e) {
+            breaker.releaseProbe();
+            logger.error("Error building Gemini request: {}", e.getMessage(), e);
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+
+        return rateLimiter.acquire(userKey).thenCompose(granted -> {
+            if (!granted) {
+                breaker.releaseProbe();
+                metrics.recordSkipped("rate_limited");
+                return CompletableFuture.completedFuture(Optional.<String>empty());
             }
+            metrics.recordUserCall(userKey);
+            if (!hedgeEnabled) return sendOnce(req, promptTokens);
+            long p95 = breaker.p95LatencyMs();
+            return sendHedged(req, promptTokens, Math.max(hedgeMinDelayMs, p95 > 0 ? p95 : hedgeDefaultDelayMs));
+        });
+    }
 
-            // If configured to use API key mode, attach key as query param; otherwise use Bearer token
-            if (useApiKey || (apiKey != null && apiKey.startsWith("AIza"))) {
-                try {
-                    String encoded = java.net.URLEncoder.encode(apiKey, java.nio.charset.StandardCharsets.UTF_8.toString());
-                    if (url.contains("?")) url = url + "&key=" + encoded;
-                    else url = url + "?key=" + encoded;
-                } catch (Exception e) {
-                    // fallback: append raw
-                    if (url.contains("?")) url = url + "&key=" + apiKey;
-                    else url = url + "?key=" + apiKey;
-                }
+    /**
+     * Hedged request: if the first attempt has not answered after delayMs (the recent p95), a second
+     * identical attempt is sent and whichever returns a usable answer first wins. The hedge is only
+     * sent while the first attempt is still pending, so at most two calls are in flight.
+     */
+    private CompletableFuture<Optional<String>> sendHedged(HttpRequest req, int promptTokens, long delayMs) {
+        CompletableFuture<Optional<String>> result = new CompletableFuture<>();
+        AtomicBoolean hedgeDecided = new AtomicBoolean();
+        AtomicInteger inFlight = new AtomicInteger(1);
+
+        sendOnce(req, promptTokens).thenAccept(r -> {
+            if (r.isPresent()) result.complete(r);
+            else if (hedgeDecided.compareAndSet(false, true)) result.complete(r);
+            else if (inFlight.decrementAndGet() == 0) result.complete(r);
+        });
+
+        CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS).execute(() -> {
+            if (result.isDone()) return;
+            inFlight.incrementAndGet();
+            if (!hedgeDecided.compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+                return;
+            }
+            // Same breaker as every other call: in HALF_OPEN the first attempt is the single probe
+            if (!breaker.allowRequest()) {
+                if (inFlight.decrementAndGet() == 0) result.complete(Optional.empty());
+                return;
+            }
+            // Only now is the hedge sent, so only now does it take quota; it is optional, so it
+            // never queues for a token another caller is waiting for
+            if (!rateLimiter.tryAcquire()) {
+                breaker.releaseProbe();
+                if (inFlight.decrementAndGet() == 0) result.complete(Optional.empty());
+                return;
             }
+            logger.debug("Gemini call slower than {} ms, sending hedged request", delayMs);
+            sendOnce(req, promptTokens).thenAccept(r -> {
+                if (r.isPresent()) result.complete(r);
+                else if (inFlight.decrementAndGet() == 0) result.complete(r);
+            });
+        });
+        return result;
+    }
+
+    private CompletableFuture<Optional<String>> sendOnce(HttpRequest req, int promptTokens) {
+        long started = System.nanoTime();
+        return http.sendAsync(req, responseBodyHandler)
+                .thenApply(resp -> {
+                    long nanos = System.nanoTime() - started;
+                    metrics.recordRequest("async", String.valueOf(resp.statusCode()), nanos);
+                    metrics.recordResponse(resp.body().bytes());
+                    if (resp.statusCode() >= 200 && resp.statusCode() < 300) {
+                        breaker.recordSuccess(nanos / 1_000_000);
+                        Optional<String> text = extractText(resp.body().response());
+                        recordUsage(resp.body().response(), promptTokens, text.map(String::length).orElse(0));
+                        return text;
+                    }
+                    if (resp.statusCode() == 429) {
+                        // Quota, not an unhealthy provider: pause via the limiter instead of opening the breaker
+                        rateLimiter.onRateLimited(retryAfterMs(resp));
+                        breaker.releaseProbe();
+                        return Optional.<String>empty();
+                    }
+                    breaker.recordFailure("status " + resp.statusCode());
+                    logger.warn("Gemini call returned status {}: {}", resp.statusCode(), resp.body().error());
+                    return Optional.<String>empty();
+                })
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    metrics.recordRequest("async", cause.getClass().getSimpleName(), System.nanoTime() - started);
+                    breaker.recordFailure(cause.getClass().getSimpleName());
+                    logger.error("Error calling Gemini: {}", cause.getMessage(), cause);
+                    return Optional.empty();
+                });
+    }
 
-            HttpRequest.Builder rb = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .timeout(Duration.ofSeconds(20))
-                    .header("Content-Type", "application/json");
+    // generateContent request body; with a schema the model is constrained to JSON matching it
+    private ObjectNode buildPayload(String prompt, JsonNode responseSchema) {
+        ObjectNode payload = mapper.createObjectNode();
+        payload.putArray("contents").addObject()
+                .put("role", "user")
+                .putArray("parts").addObject().put("text", prompt);
+        ObjectNode config = payload.putObject("generationConfig");
+        config.put("maxOutputTokens", 16000);
+        if (responseSchema != null) {
+            config.put("responseMimeType", "application/json");
+            config.set("responseSchema", responseSchema);
+        }
+        return payload;
+    }
 
-            if (!(useApiKey || (apiKey != null && apiKey.startsWith("AIza")))) {
-                rb.header("Authorization", "Bearer " + apiKey);
+    private HttpRequest postJson(String url, byte[] body, Duration timeout) throws IOException {
+        // If configured to use API key mode, attach key as query param; otherwise use Bearer token
+        boolean keyInQuery = useApiKey || apiKey.startsWith("AIza");
+        if (keyInQuery) {
+            String encoded = URLEncoder.encode(apiKey, StandardCharsets.UTF_8);
+            url = url + (url.contains("?") ? "&key=" : "?key=") + encoded;
+        }
+
+        HttpRequest.Builder rb = HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .version(HttpClient.Version.HTTP_2)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .header("Accept-Encoding", "gzip");
+
+        if (compressRequests) {
+            body = gzip(body);
+            rb.header("Content-Encoding", "gzip");
+        }
+
+        if (!keyInQuery) {
+            rb.header("Authorization", "Bearer " + apiKey);
+        }
+
+        return rb.POST(HttpRequest.BodyPublishers.ofByteArray(body)).build();
+    }
+
+    // Builds <endpoint>/v1/models/<model>:<method>; a full model URL in gemini.endpoint gets its method swapped
+    private String resolveUrl(String method, String query) {
+        String url = endpoint;
+        // If endpoint looks like base, append model path
+        if (!endpoint.contains(model)) {
+            if (endpoint.endsWith("/")) url = endpoint + "v1/models/" + model + ":" + method;
+            else url = endpoint + "/v1/models/" + model + ":" + method;
+        } else if (!endpoint.contains(":" + method)) {
+            url = endpoint.replaceFirst(":[A-Za-z]+(?=$|\\?)", ":" + method);
+        }
+        if (query != null) url = url + (url.contains("?") ? "&" : "?") + query;
+        return url;
+    }
+
+    /**
+     * Stream the model output from streamGenerateContent (server-sent events). Every text fragment
+     * is passed to onText as soon as it arrives; when onText returns false the connection is closed
+     * and the rest of the generation is abandoned. Blocks the calling thread (a virtual thread when
+     * spring.threads.virtual.enabled=true). Returns false if the stream failed before completing.
+     */
+    public boolean streamText(String prompt, Predicate<String> onText) {
+        return streamText(prompt, null, onText);
+    }
+
+    public boolean streamText(String prompt, JsonNode responseSchema, Predicate<String> onText) {
+        return streamText(prompt, responseSchema, null, onText);
+    }
+
+    public boolean streamText(String prompt, JsonNode responseSchema, String userKey, Predicate<String> onText) {
+        if (stubEnabled) {
+            metrics.recordSkipped("stub");
+            try {
+                Thread.sleep(stubLatencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
+            return false;
+        }
+        if (apiKey == null || apiKey.isBlank()) {
+            logger.debug("Gemini API key not configured, skipping external AI call");
+            metrics.recordSkipped("no_api_key");
+            return false;
+        }
+        if (!breaker.allowRequest()) {
+            logger.debug("Gemini circuit open, skipping external AI call");
+            metrics.recordSkipped("circuit_open");
+            return false;
+        }
+        if (!rateLimiter.acquire(userKey).join()) {
+            breaker.releaseProbe();
+            metrics.recordSkipped("rate_limited");
+            return false;
+        }
+        metrics.recordUserCall(userKey);
 
-            HttpRequest req = rb.POST(HttpRequest.BodyPublishers.ofString(body)).build();
-
-            HttpResponse<String> resp = http.send(req, HttpResponse.BodyHandlers.ofString());
-            if (resp.statusCode() >= 200 && resp.statusCode() < 300) {
-                String respBody = resp.body();
-                // Try to extract text from several possible fields
-                JsonNode root = mapper.readTree(respBody);
-                // Common patterns: candidates[].content, outputs[].content, text
-                if (root.has("candidates") && root.get("candidates").isArray() && root.get("candidates").size() > 0) {
-                    JsonNode c0 = root.get("candidates").get(0);
-                    if (c0.has("content")) return Optional.of(c0.get("content").asText());
-                }
-                if (root.has("outputs") && root.get("outputs").isArray() && root.get("outputs").size() > 0) {
-                    JsonNode o0 = root.get("outputs").get(0);
-                    if (o0.has("content")) return Optional.of(o0.get("content").asText());
-                    if (o0.has("text")) return Optional.of(o0.get("text").asText());
+        HttpRequest req;
+        try {
+            byte[] body = mapper.writeValueAsBytes(buildPayload(prompt, responseSchema));
+            metrics.recordPrompt(body.length);
+            req = postJson(resolveUrl("streamGenerateContent", "alt=sse"), body, Duration.ofSeconds(60));
+        } catch (Exception e) {
+            breaker.releaseProbe();
+            logger.error("Error building Gemini stream request: {}", e.getMessage(), e);
+            return false;
+        }
+
+        // The breaker gets one outcome per call, from the transport or the HTTP status only
+        long started = System.nanoTime();
+        HttpResponse<InputStream> resp;
+        try {
+            resp = http.send(req, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            breaker.releaseProbe();
+            logger.warn("Gemini stream interrupted");
+            return false;
+        } catch (IOException e) {
+            metrics.recordRequest("stream", e.getClass().getSimpleName(), System.nanoTime() - started);
+            breaker.recordFailure(e.getClass().getSimpleName());
+            logger.error("Error streaming from Gemini: {}", e.getMessage(), e);
+            return false;
+        }
+        metrics.recordRequest("stream", String.valueOf(resp.statusCode()), System.nanoTime() - started);
+
+        int received = 0;
+        GenerateContentResponse last = null;
+        boolean gzipped = resp.headers().firstValue("Content-Encoding")
+                .map(v -> v.equalsIgnoreCase("gzip")).orElse(false);
+        try (InputStream raw = gzipped ? new GZIPInputStream(resp.body()) : resp.body();
+             BufferedReader reader = new BufferedReader(new InputStreamReader(raw, StandardCharsets.UTF_8))) {
+            if (resp.statusCode() == 429) {
+                rateLimiter.onRateLimited(retryAfterMs(resp));
+                breaker.releaseProbe();
+                return false;
+            }
+            if (resp.statusCode() < 200 || resp.statusCode() >= 300) {
+                breaker.recordFailure("status " + resp.statusCode());
+                logger.warn("Gemini stream returned status {}: {}", resp.statusCode(), reader.lines().collect(Collectors.joining("\n")));
+                return false;
+            }
+            // The breaker judges time to first byte; a long stream is expected, not a degradation.
+            // Later read, parse or consumer errors end this call without a second outcome
+            breaker.recordSuccess((System.nanoTime() - started) / 1_000_000);
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.startsWith("data:")) continue;
+                    received += line.length();
+                    // usageMetadata is cumulative; the last chunk carries the totals
+                    last = responseReader.readValue(line.substring(5).trim());
+                    Optional<String> text = extractText(last);
+                    if (text.isEmpty() || text.get().isEmpty()) continue;
+                    if (!onText.test(text.get())) {
+                        logger.debug("Gemini stream stopped early by consumer");
+                        return true;
+                    }
                 }
-                if (root.has("text")) return Optional.of(root.get("text").asText());
-                // fallback to raw response
-                return Optional.of(respBody);
-            } else {
-                logger.warn("Gemini call returned status {}: {}", resp.statusCode(), resp.body());
-                return Optional.empty();
+                return true;
+            } finally {
+                metrics.recordResponse(received);
+                recordUsage(last, GeminiPromptBuilder.estimateTokens(prompt), received);
             }
         } catch (Exception e) {
-            logger.error("Error calling Gemini: {}", e.getMessage(), e);
+            // No-op once an outcome was recorded; frees the probe if the body failed before that
+            breaker.releaseProbe();
+            logger.error("Error reading Gemini stream: {}", e.getMessage(), e);
+            return false;
+        }
+    }
+
+    // Provider token counts when usageMetadata is present, otherwise the chars/4 estimate
+    private void recordUsage(GenerateContentResponse response, int estimatedPromptTokens, int responseChars) {
+        UsageMetadata usage = response != null ? response.usageMetadata() : null;
+        long prompt = usage != null && usage.promptTokenCount() != null ? usage.promptTokenCount() : estimatedPromptTokens;
+        long output = usage != null && usage.candidatesTokenCount() != null ? usage.candidatesTokenCount() : (responseChars + 3) / 4;
+        long cached = usage != null && usage.cachedContentTokenCount() != null ? usage.cachedContentTokenCount() : 0;
+        metrics.recordTokens(prompt, output, cached);
+    }
+
+    // Text of the first candidate (all parts concatenated); empty when the prompt was blocked
+    private Optional<String> extractText(GenerateContentResponse response) {
+        if (response == null || response.candidates() == null || response.candidates().isEmpty()) {
+            logger.warn("Gemini response has no candidates");
             return Optional.empty();
         }
+        Candidate c0 = response.candidates().get(0);
+        if (c0.content() == null || c0.content().parts() == null) {
+            logger.warn("Gemini candidate has no content (finishReason={})", c0.finishReason());
+            return Optional.empty();
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Part part : c0.content().parts()) {
+            if (part.text() != null) sb.append(part.text());
+        }
+        return Optional.of(sb.toString());
+    }
+
+    // Retry-After in delay-seconds or HTTP-date form; -1 when absent or unparseable
+    private static long retryAfterMs(HttpResponse<?> resp) {
+        Optional<String> header = resp.headers().firstValue("Retry-After");
+        if (header.isEmpty()) return -1;
+        String value = header.get().trim();
+        try {
+            return Math.max(0, Long.parseLong(value) * 1000);
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime at = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Math.max(0, Duration.between(ZonedDateTime.now(at.getZone()), at).toMillis());
+            } catch (DateTimeParseException ex) {
+                return -1;
+            }
+        }
     }
 
-    // tiny helper to build object nodes without importing Jackson types in this file repeatedly
-    private static class ObjectNodeWrapper {
-        private final ObjectMapper mapper;
-        private final JsonNode node;
-        private final com.fasterxml.jackson.databind.node.ObjectNode on;
-        ObjectNodeWrapper(ObjectMapper mapper) {
-            this.mapper = mapper;
-            this.on = mapper.createObjectNode();
-            this.node = on;
+    private static byte[] gzip(byte[] raw) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + 64);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(raw);
         }
-        void put(String k, String v) { on.put(k, v); }
-        void put(String k, int v) { on.put(k, v); }
-        @Override public String toString() { try { return mapper.writeValueAsString(on); } catch (Exception e) { return "{}";} }
+        return out.toByteArray();
     }
+
+    // Typed view of the generateContent response; unknown fields (safety ratings, usage, ...) are skipped
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record GenerateContentResponse(List<Candidate> candidates, UsageMetadata usageMetadata) {}
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record UsageMetadata(Long promptTokenCount, Long candidatesTokenCount, Long cachedContentTokenCount) {}
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record Candidate(Content content, String finishReason) {}
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record Content(List<Part> parts) {}
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record Part(String text) {}
 }
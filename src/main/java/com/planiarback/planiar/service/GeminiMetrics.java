@@ -0,0 +1,126 @@
+package com.planiarback.planiar.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer meters for the external AI planner, published on /actuator/metrics:
+ * <ul>
+ *   <li>gemini.requests (timer, histogram) by mode (sync/stream) and status (HTTP code or exception)</li>
+ *   <li>gemini.requests.skipped by reason (stub, no_api_key, circuit_open, rate_limited)</li>
+ *   <li>gemini.prompt.bytes / gemini.response.bytes (sent and received body sizes)</li>
+ *   <li>gemini.tokens by direction (prompt/response/cached); provider counts when reported, else estimated</li>
+ *   <li>gemini.cost (USD, from gemini.metrics.*CostPerMillion)</li>
+ *   <li>gemini.parse by outcome (success/failure) and ai.plan.fallback by reason</li>
+ *   <li>gemini.user.calls by user, capped at gemini.metrics.maxUserTags distinct users (MetricsConfig)</li>
+ * </ul>
+ */
+@Component
+public class GeminiMetrics {
+
+    private final MeterRegistry registry;
+
+    // List prices per million tokens; 0 disables the cost counter
+    @Value("${gemini.metrics.inputCostPerMillion:0}")
+    private double inputCostPerMillion;
+
+    @Value("${gemini.metrics.outputCostPerMillion:0}")
+    private double outputCostPerMillion;
+
+    private DistributionSummary promptBytes;
+    private DistributionSummary responseBytes;
+    private Counter promptTokens;
+    private Counter responseTokens;
+    private Counter cachedTokens;
+    private Counter cost;
+
+    public GeminiMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @PostConstruct
+    void init() {
+        promptBytes = DistributionSummary.builder("gemini.prompt.bytes")
+                .description("Request body size sent to Gemini (before compression)")
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .register(registry);
+        responseBytes = DistributionSummary.builder("gemini.response.bytes")
+                .description("Response body size received from Gemini (after decompression)")
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .register(registry);
+        promptTokens = tokens("prompt");
+        responseTokens = tokens("response");
+        cachedTokens = tokens("cached");
+        cost = Counter.builder("gemini.cost")
+                .description("Estimated Gemini spend")
+                .baseUnit("usd")
+                .register(registry);
+    }
+
+    public void recordRequest(String mode, String status, long nanos) {
+        Timer.builder("gemini.requests")
+                .description("Gemini call latency (time to full response, or to first byte when streaming)")
+                .tag("mode", mode)
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordSkipped(String reason) {
+        registry.counter("gemini.requests.skipped", "reason", reason).increment();
+    }
+
+    public void recordPrompt(int bytes) {
+        promptBytes.record(bytes);
+    }
+
+    public void recordResponse(int bytes) {
+        responseBytes.record(bytes);
+    }
+
+    /**
+     * Token usage of one call; cost is derived from the configured prices. Cached prompt tokens are
+     * part of promptTokens and are also counted separately.
+     */
+    public void recordTokens(long prompt, long response, long cached) {
+        promptTokens.increment(prompt);
+        responseTokens.increment(response);
+        if (cached > 0) cachedTokens.increment(cached);
+        double usd = (prompt * inputCostPerMillion + response * outputCostPerMillion) / 1_000_000.0;
+        if (usd > 0) cost.increment(usd);
+    }
+
+    public void recordUserCall(String userKey) {
+        registry.counter("gemini.user.calls", "user", userKey != null ? userKey : "unknown").increment();
+    }
+
+    public void recordParse(boolean success) {
+        registry.counter("gemini.parse", "outcome", success ? "success" : "failure").increment();
+    }
+
+    public void recordFallback(String reason) {
+        recordFallback(reason, 1);
+    }
+
+    public void recordFallback(String reason, int count) {
+        registry.counter("ai.plan.fallback", "reason", reason).increment(count);
+    }
+
+    private Counter tokens(String direction) {
+        return Counter.builder("gemini.tokens")
+                .description("Gemini tokens (provider usageMetadata when present, otherwise estimated)")
+                .tag("direction", direction)
+                .register(registry);
+    }
+}
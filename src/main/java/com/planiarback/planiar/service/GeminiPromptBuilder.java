@@ -0,0 +1,223 @@
+package com.planiarback.planiar.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.planiarback.planiar.model.Task;
+import com.planiarback.planiar.util.AvailabilityCalendar;
+import com.planiarback.planiar.util.AvailabilityMask;
+import com.planiarback.planiar.util.DayMinutes;
+import com.planiarback.planiar.util.SlotGranularity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds compact planning prompts for Gemini.
+ * Only unassigned tasks are sent (as positional rows, no descriptions or states); already
+ * assigned tasks are reduced to occupied intervals, and availability is sent as merged ranges
+ * per weekday, plus the dates up to the last due date whose free ranges in the calendar differ
+ * from their weekday. The prompt is estimated in tokens and trimmed to ai.prompt.maxTokens by
+ * dropping the least urgent tasks. Those stay unassigned: they only reach the prompt because the
+ * local planner found no slot for them.
+ */
+@Component
+public class GeminiPromptBuilder {
+    private static final Logger logger = LoggerFactory.getLogger(GeminiPromptBuilder.class);
+
+    static final String[] DAY_NAMES = {"SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT"};
+
+    private static final int MAX_TITLE_LENGTH = 60;
+
+    @Value("${ai.prompt.maxTokens:2000}")
+    private int maxTokens;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Full prompt: static instructions and availability followed by the per-request task data.
+     */
+    public String build(List<Task> tasks, Map<String, List<String>> availableHours, AvailabilityCalendar calendar) {
+        String fixed = staticPart(availableHours, calendar.granularity());
+        return fixed + dynamicPart(tasks, availableHours, calendar, estimateTokens(fixed));
+    }
+
+    /**
+     * Instructions, constraints and the user's weekly availability. Identical between calls as
+     * long as availability does not change and sent first, so consecutive prompts share a prefix
+     * the provider's implicit caching can reuse. Block lengths and
+     * start times follow the slot granularity the answer is validated at.
+     */
+    public String staticPart(Map<String, List<String>> availableHours, SlotGranularity granularity) {
+        StringBuilder sb = new StringBuilder(1024);
+        sb.append("You schedule study tasks. Return only a JSON array, one element per task you were given: ");
+        sb.append("{\"id\":<id>,\"workingDate\":\"YYYY-MM-DD\"|null,\"startTime\":\"HH:MM\"|null,\"endTime\":\"HH:MM\"|null}. ");
+        sb.append("Use \"title\" instead of \"id\" when id is null.\n");
+        sb.append("Rules:\n");
+        sb.append("- Block length = minutes, rounded up to ").append(granularity.minutes())
+                .append("-minute steps; start on ").append(startMarks(granularity)).append(".\n");
+        sb.append("- Only inside the free ranges of that date (its line under \"free on dates\" if listed, else its weekday), ")
+                .append("never overlapping an occupied interval.\n");
+        sb.append("- Never on Saturday or Sunday, never 01:00-04:00, never Friday after 17:00.\n");
+        sb.append("- After today and before dueDate/dueTime; as late as possible.\n");
+        sb.append("- If no slot fits, return the task with null workingDate/startTime/endTime.\n");
+        sb.append("free (weekday: ranges):\n");
+        if (availableHours != null) {
+            for (String day : DAY_NAMES) {
+                List<String> ranges = availableHours.get(day);
+                if (ranges == null || ranges.isEmpty()) continue;
+                sb.append(day).append(": ").append(String.join(",", mergeRanges(ranges))).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    // ":00 or :30" for half hours, ":00, :15, :30 or :45" for quarters, a rule for finer grids
+    private static String startMarks(SlotGranularity g) {
+        if (g.minutes() < 15) return "a multiple of " + g.minutes() + " minutes past the hour";
+        List<String> marks = new ArrayList<>();
+        for (int m = 0; m < 60; m += g.minutes()) marks.add(String.format(":%02d", m));
+        if (marks.size() == 1) return marks.get(0);
+        return String.join(", ", marks.subList(0, marks.size() - 1)) + " or " + marks.get(marks.size() - 1);
+    }
+
+    /**
+     * Today's date, occupied intervals of already assigned tasks, the free ranges of the weekdays
+     * up to the last due date that differ from availableHours, and the unassigned tasks as rows
+     * [id, title, dueDate, dueTime, minutes, priority], trimmed to what fits in the token budget.
+     */
+    public String dynamicPart(List<Task> tasks, Map<String, List<String>> availableHours,
+                              AvailabilityCalendar calendar, int tokensAlreadyUsed) {
+        LocalDate today = LocalDate.now();
+        List<Task> pending = new ArrayList<>();
+        List<Task> assigned = new ArrayList<>();
+        if (tasks != null) {
+            for (Task t : tasks) {
+                if (t.getWorkingDate() != null && t.getStartTime() != null && t.getEndTime() != null) {
+                    if (!t.getWorkingDate().isBefore(today)) assigned.add(t);
+                } else if (t.getDueDate() != null && t.getEstimatedTime() != null && t.getEstimatedTime() > 0
+                        && t.getDueDate().isAfter(today)) {
+                    pending.add(t);
+                }
+            }
+        }
+
+        // Most urgent first, so trimming drops the tail
+        pending.sort(Comparator.comparing(Task::getDueDate)
+                .thenComparing(t -> -priorityValue(t.getPriority())));
+
+        int budget = maxTokens - tokensAlreadyUsed;
+        int keep = pending.size();
+        String out = render(today, pending.subList(0, keep), assigned, availableHours, calendar);
+        while (keep > 1 && estimateTokens(out) > budget) {
+            keep = Math.max(1, keep - Math.max(1, keep / 4));
+            out = render(today, pending.subList(0, keep), assigned, availableHours, calendar);
+        }
+        if (keep < pending.size()) {
+            logger.info("Gemini prompt over budget ({} tokens), sending {} of {} unassigned tasks",
+                    maxTokens, keep, pending.size());
+        }
+        return out;
+    }
+
+    /**
+     * Rough token estimate (about 4 characters per token for English text and JSON).
+     */
+    public static int estimateTokens(String text) {
+        return text == null ? 0 : (text.length() + 3) / 4;
+    }
+
+    private String render(LocalDate today, List<Task> pending, List<Task> assigned,
+                          Map<String, List<String>> availableHours, AvailabilityCalendar calendar) {
+        LocalDate horizon = today;
+        for (Task t : pending) if (t.getDueDate().isAfter(horizon)) horizon = t.getDueDate();
+
+        StringBuilder sb = new StringBuilder(256 + pending.size() * 64);
+        sb.append("today: ").append(today).append(" (").append(DAY_NAMES[today.getDayOfWeek().getValue() % 7]).append(")\n");
+        sb.append("occupied:");
+        for (Task t : assigned) {
+            if (t.getWorkingDate().isAfter(horizon)) continue;
+            sb.append(' ').append(t.getWorkingDate()).append(' ')
+                    .append(hhmm(t.getStartTime())).append('-').append(hhmm(t.getEndTime())).append(';');
+        }
+        sb.append('\n');
+        sb.append("free on dates (date: ranges, - if none):\n");
+        for (LocalDate d = today.plusDays(1); !d.isAfter(horizon); d = d.plusDays(1)) {
+            int day = d.getDayOfWeek().getValue() % 7;
+            if (day == 0 || day == 6) continue;
+            List<String> ranges = new ArrayList<>();
+            for (int[] r : calendar.freeIntervals(d)) ranges.add(formatMinutes(r[0]) + "-" + formatMinutes(r[1]));
+            List<String> weekly = availableHours != null ? availableHours.get(DAY_NAMES[day]) : null;
+            if (ranges.equals(weekly == null ? List.of() : mergeRanges(weekly))) continue;
+            sb.append(d).append(": ").append(ranges.isEmpty() ? "-" : String.join(",", ranges)).append('\n');
+        }
+        sb.append("tasks [id,title,dueDate,dueTime,minutes,priority]:\n");
+        ArrayNode rows = mapper.createArrayNode();
+        for (Task t : pending) {
+            ArrayNode row = rows.addArray();
+            if (t.getId() != null) row.add(t.getId()); else row.addNull();
+            String title = t.getTitle();
+            row.add(title != null && title.length() > MAX_TITLE_LENGTH ? title.substring(0, MAX_TITLE_LENGTH) : title);
+            row.add(t.getDueDate().toString());
+            row.add(t.getDueTime() != null ? hhmm(t.getDueTime()) : "23:59");
+            row.add(t.getEstimatedTime());
+            row.add(t.getPriority() != null ? t.getPriority() : "Low");
+        }
+        sb.append(rows.toString()).append('\n');
+        return sb.toString();
+    }
+
+    /**
+     * Merge "HH:MM-HH:MM" ranges into the fewest covering ranges; "24:00" marks end of day.
+     */
+    static List<String> mergeRanges(List<String> ranges) {
+        List<int[]> parsed = new ArrayList<>();
+        for (String r : ranges) {
+            int[] mm = parseRange(r);
+            if (mm != null) parsed.add(mm);
+        }
+        parsed.sort(Comparator.comparingInt(a -> a[0]));
+        List<String> out = new ArrayList<>();
+        int curStart = -1, curEnd = -1;
+        for (int[] r : parsed) {
+            if (curStart >= 0 && r[0] <= curEnd) {
+                curEnd = Math.max(curEnd, r[1]);
+                continue;
+            }
+            if (curStart >= 0) out.add(formatMinutes(curStart) + "-" + formatMinutes(curEnd));
+            curStart = r[0];
+            curEnd = r[1];
+        }
+        if (curStart >= 0) out.add(formatMinutes(curStart) + "-" + formatMinutes(curEnd));
+        return out;
+    }
+
+    // Minutes since midnight for both ends; an end of 00:00 or 24:00 means midnight
+    static int[] parseRange(String range) {
+        return AvailabilityMask.parseRange(range);
+    }
+
+    static String formatMinutes(int minutes) {
+        return String.format("%02d:%02d", minutes / 60, minutes % 60);
+    }
+
+    private static String hhmm(LocalTime t) {
+        return formatMinutes(DayMinutes.start(t));
+    }
+
+    private static int priorityValue(String p) {
+        if (p == null) return 1;
+        switch (p) {
+            case "High": return 3;
+            case "Medium": return 2;
+            default: return 1;
+        }
+    }
+}
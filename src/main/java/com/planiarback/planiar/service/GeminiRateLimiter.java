@@ -0,0 +1,214 @@
+package com.planiarback.planiar.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client-side token bucket for the shared Gemini API key.
+ * Tokens refill at `requestsPerMinute` up to `burst`. When no token is free, callers wait in a
+ * bounded queue per user and are served round-robin, so one user planning many tasks cannot
+ * starve the others. A 429 from the provider empties the bucket until its Retry-After has passed.
+ * A request whose estimated wait exceeds its latency budget (or whose user queue is full) is shed
+ * immediately, letting the caller answer with the local planner instead of a slow error.
+ */
+@Component
+public class GeminiRateLimiter {
+    private static final Logger logger = LoggerFactory.getLogger(GeminiRateLimiter.class);
+
+    @Value("${gemini.rateLimit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${gemini.rateLimit.requestsPerMinute:60}")
+    private int requestsPerMinute;
+
+    @Value("${gemini.rateLimit.burst:10}")
+    private int burst;
+
+    @Value("${gemini.rateLimit.maxQueuePerUser:4}")
+    private int maxQueuePerUser;
+
+    // Latency budget: longest a caller may wait for a token before falling back to the local plan
+    @Value("${gemini.rateLimit.maxWaitMs:3000}")
+    private long maxWaitMs;
+
+    // Used for 429 responses without a Retry-After header
+    @Value("${gemini.rateLimit.defaultRetryAfterMs:5000}")
+    private long defaultRetryAfterMs;
+
+    private double tokens;
+    private long lastRefillNanos;
+    private long blockedUntilNanos;
+    private int queued;
+
+    // Insertion order is the round-robin order; a user's queue moves to the back after being served
+    private final LinkedHashMap<String, ArrayDeque<Waiter>> queues = new LinkedHashMap<>();
+
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> pendingDrain;
+
+    private record Waiter(CompletableFuture<Boolean> grant, long deadlineNanos) {}
+
+    @PostConstruct
+    void init() {
+        tokens = burst;
+        lastRefillNanos = System.nanoTime();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "gemini-rate-limiter");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+        List<CompletableFuture<Boolean>> shed = new ArrayList<>();
+        synchronized (this) {
+            for (ArrayDeque<Waiter> q : queues.values()) for (Waiter w : q) shed.add(w.grant());
+            queues.clear();
+            queued = 0;
+        }
+        shed.forEach(f -> f.complete(false));
+    }
+
+    /**
+     * Ask for permission to send one request on behalf of userKey. Completes with true once a token
+     * was taken, or with false when the request was shed (queue full or wait over the budget).
+     */
+    public CompletableFuture<Boolean> acquire(String userKey) {
+        if (!enabled) return CompletableFuture.completedFuture(true);
+        String key = userKey != null ? userKey : "";
+        synchronized (this) {
+            long now = System.nanoTime();
+            refill(now);
+            if (queued == 0 && now >= blockedUntilNanos && tokens >= 1) {
+                tokens -= 1;
+                return CompletableFuture.completedFuture(true);
+            }
+
+            long waitMs = estimatedWaitMs(now);
+            ArrayDeque<Waiter> q = queues.get(key);
+            if (waitMs > maxWaitMs || (q != null && q.size() >= maxQueuePerUser)) {
+                logger.info("Gemini rate limit: shedding request for user {} (estimated wait {} ms, {} queued)",
+                        key, waitMs, queued);
+                return CompletableFuture.completedFuture(false);
+            }
+
+            Waiter w = new Waiter(new CompletableFuture<>(), now + TimeUnit.MILLISECONDS.toNanos(maxWaitMs));
+            if (q == null) {
+                q = new ArrayDeque<>();
+                queues.put(key, q);
+            }
+            q.add(w);
+            queued++;
+            scheduleDrain(now);
+            return w.grant();
+        }
+    }
+
+    /**
+     * Take a token only if one is free right now (used for optional extra calls such as hedges).
+     */
+    public synchronized boolean tryAcquire() {
+        if (!enabled) return true;
+        long now = System.nanoTime();
+        refill(now);
+        if (queued > 0 || now < blockedUntilNanos || tokens < 1) return false;
+        tokens -= 1;
+        return true;
+    }
+
+    /**
+     * The provider answered 429: nothing is sent until retryAfterMs has passed (a negative value
+     * means the header was missing and the default back-off applies).
+     */
+    public void onRateLimited(long retryAfterMs) {
+        if (!enabled) return;
+        long backoff = retryAfterMs >= 0 ? retryAfterMs : defaultRetryAfterMs;
+        synchronized (this) {
+            long now = System.nanoTime();
+            blockedUntilNanos = Math.max(blockedUntilNanos, now + TimeUnit.MILLISECONDS.toNanos(backoff));
+            tokens = 0;
+            lastRefillNanos = blockedUntilNanos;
+            logger.warn("Gemini quota exceeded, pausing requests for {} ms", backoff);
+            if (queued > 0) scheduleDrain(now);
+        }
+    }
+
+    private void drain() {
+        List<CompletableFuture<Boolean>> granted = new ArrayList<>();
+        List<CompletableFuture<Boolean>> expired = new ArrayList<>();
+        synchronized (this) {
+            pendingDrain = null;
+            long now = System.nanoTime();
+            refill(now);
+
+            for (Iterator<ArrayDeque<Waiter>> it = queues.values().iterator(); it.hasNext(); ) {
+                ArrayDeque<Waiter> q = it.next();
+                q.removeIf(w -> {
+                    if (w.deadlineNanos() > now) return false;
+                    expired.add(w.grant());
+                    return true;
+                });
+                if (q.isEmpty()) it.remove();
+            }
+            queued -= expired.size();
+
+            while (queued > 0 && now >= blockedUntilNanos && tokens >= 1) {
+                Map.Entry<String, ArrayDeque<Waiter>> head = queues.entrySet().iterator().next();
+                String key = head.getKey();
+                ArrayDeque<Waiter> q = queues.remove(key);
+                granted.add(q.poll().grant());
+                queued--;
+                tokens -= 1;
+                if (!q.isEmpty()) queues.put(key, q);
+            }
+
+            if (queued > 0) scheduleDrain(now);
+        }
+        if (!expired.isEmpty()) logger.info("Gemini rate limit: {} queued requests exceeded their wait budget", expired.size());
+        granted.forEach(f -> f.complete(true));
+        expired.forEach(f -> f.complete(false));
+    }
+
+    // Next drain when the following token is due (or the Retry-After pause ends)
+    private void scheduleDrain(long now) {
+        if (pendingDrain != null || scheduler.isShutdown()) return;
+        long delayNanos = Math.max(0, blockedUntilNanos - now);
+        if (tokens < 1) delayNanos = Math.max(delayNanos, (long) ((1 - tokens) * nanosPerToken()));
+        pendingDrain = scheduler.schedule(this::drain, Math.max(delayNanos, 1_000_000), TimeUnit.NANOSECONDS);
+    }
+
+    private long estimatedWaitMs(long now) {
+        double missing = queued + 1 - tokens;
+        long refillNanos = missing > 0 ? (long) (missing * nanosPerToken()) : 0;
+        return TimeUnit.NANOSECONDS.toMillis(Math.max(0, blockedUntilNanos - now) + refillNanos);
+    }
+
+    private void refill(long now) {
+        if (now <= lastRefillNanos) return;
+        tokens = Math.min(burst, tokens + (now - lastRefillNanos) / nanosPerToken());
+        lastRefillNanos = now;
+    }
+
+    private double nanosPerToken() {
+        return 60_000_000_000.0 / Math.max(1, requestsPerMinute);
+    }
+}
@@ -2,13 +2,16 @@ package com.planiarback.planiar.service;
 
 import com.planiarback.planiar.model.Survey;
 import com.planiarback.planiar.model.User;
+import com.planiarback.planiar.repository.KeysetPage;
+import com.planiarback.planiar.repository.KeysetPager;
+import com.planiarback.planiar.repository.KeysetPager.SortKey;
+import com.planiarback.planiar.repository.Specs;
 import com.planiarback.planiar.repository.SurveyRepository;
 import com.planiarback.planiar.repository.UserRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -17,10 +20,12 @@ public class SurveyService {
 
     private final SurveyRepository surveyRepository;
     private final UserRepository userRepository;
+    private final KeysetPager pager;
 
-    public SurveyService(SurveyRepository surveyRepository, UserRepository userRepository) {
+    public SurveyService(SurveyRepository surveyRepository, UserRepository userRepository, KeysetPager pager) {
         this.surveyRepository = surveyRepository;
         this.userRepository = userRepository;
+        this.pager = pager;
     }
 
     public Survey createSurvey(Survey survey, Long userId) {
@@ -33,13 +38,13 @@ public class SurveyService {
     }
 
     @Transactional(readOnly = true)
-    public List<Survey> getAllSurveys() {
-        return surveyRepository.findAll();
+    public KeysetPage<Survey> getAllSurveys(String after, Integer limit) {
+        return pager.find(Survey.class, SortKey.BY_ID, after, limit);
     }
 
     @Transactional(readOnly = true)
-    public List<Survey> getAllSurveysByUser(Long userId) {
-        return surveyRepository.findByUserId(userId);
+    public KeysetPage<Survey> getAllSurveysByUser(Long userId, String after, Integer limit) {
+        return pager.find(Survey.class, SortKey.BY_ID, after, limit, Specs.ofUser(userId));
     }
 
     @Transactional(readOnly = true)
@@ -1,9 +1,19 @@
 package com.planiarback.planiar.service;
 
+import com.planiarback.planiar.dto.TaskSummary;
 import com.planiarback.planiar.model.Task;
 import com.planiarback.planiar.model.User;
+import com.planiarback.planiar.repository.KeysetPage;
+import com.planiarback.planiar.repository.KeysetPager;
+import com.planiarback.planiar.repository.KeysetPager.SortKey;
+import com.planiarback.planiar.repository.Specs;
+import com.planiarback.planiar.repository.TextSearch;
 import com.planiarback.planiar.repository.TaskRepository;
 import com.planiarback.planiar.repository.UserRepository;
+import com.planiarback.planiar.util.AvailabilityCalendar;
+import com.planiarback.planiar.util.DayMinutes;
+import com.planiarback.planiar.util.Occupancy;
+import com.planiarback.planiar.util.ScheduleImpact;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.annotation.Propagation;
@@ -14,7 +24,7 @@ import org.slf4j.LoggerFactory;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
-import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.List;
 import java.util.Objects;
@@ -30,14 +40,20 @@ public class TaskService {
     private final UserRepository userRepository;
     private final UserService userService;
     private final AIPlannerService aiPlannerService;
+    private final AvailabilityCalendarService calendarService;
     private final TransactionTemplate transactionTemplate;
+    private final KeysetPager pager;
+    private final TextSearch textSearch;
 
-    public TaskService(TaskRepository taskRepository, UserRepository userRepository, UserService userService, AIPlannerService aiPlannerService, PlatformTransactionManager txManager) {
+    public TaskService(TaskRepository taskRepository, UserRepository userRepository, UserService userService, AIPlannerService aiPlannerService, AvailabilityCalendarService calendarService, PlatformTransactionManager txManager, KeysetPager pager, TextSearch textSearch) {
         this.taskRepository = taskRepository;
         this.userRepository = userRepository;
         this.userService = userService;
         this.aiPlannerService = aiPlannerService;
+        this.calendarService = calendarService;
         this.transactionTemplate = new TransactionTemplate(txManager);
+        this.pager = pager;
+        this.textSearch = textSearch;
     }
 
     /**
@@ -83,19 +99,50 @@ public class TaskService {
             if (!containsParent) list.add(savedParent);
             return list;
         });
+        planAndApply(user, all, savedParent);
+
+        // Return the most up-to-date version of the saved task
+        if (savedParent.getId() != null) return taskRepository.findById(savedParent.getId()).orElse(savedParent);
+        List<Task> candidates = taskRepository.findByUserIdAndTitle(user.getId(), savedParent.getTitle()).map(java.util.List::of).orElseGet(java.util.ArrayList::new);
+        if (!candidates.isEmpty()) return candidates.get(0);
+        return savedParent;
+    }
+
+    /**
+     * Planificar de nuevo todas las tareas de un usuario con una sola llamada al planificador y
+     * guardar el resultado. Se usa tras una importación masiva en lugar de planificar cada tarea.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void replanUserTasks(Long userId) {
+        User user = transactionTemplate.execute(status ->
+                userRepository.findById(userId)
+                        .orElseThrow(() -> new IllegalArgumentException("Usuario no encontrado con id: " + userId))
+        );
+        List<Task> all = transactionTemplate.execute(status -> safeFindByUserId(userId));
+        planAndApply(user, all, null);
+    }
+
+    // One planner call over all, against the user's calendar, outside any transaction; then the
+    // result is saved and an availability recalculation queued
+    private void planAndApply(User user, List<Task> all, Task savedParent) {
+        // Free time per date from tomorrow through the latest due date, read before the AI call too
+        LocalDate planUntil = all.stream().map(Task::getDueDate).filter(Objects::nonNull)
+                .max(LocalDate::compareTo).orElse(LocalDate.now().plusDays(1));
+        AvailabilityCalendar calendar = transactionTemplate.execute(status ->
+                calendarService.calendar(user, LocalDate.now().plusDays(1), planUntil));
 
         // Invoke AI planner outside of any DB transaction to avoid holding a DB connection
         List<Task> planned = null;
         try {
             logger.info("Invoking AIPlannerService.planTasks for user {} with {} existing tasks", user.getId(), all == null ? 0 : all.size());
-            planned = aiPlannerService.planTasks(all, user.getAvailableHours());
+            planned = aiPlannerService.planTasks(all, user.getAvailableRanges(), calendar);
             logger.info("AIPlannerService.planTasks returned {} planned items for user {}", planned == null ? 0 : planned.size(), user.getId());
         } catch (Exception ex) {
             logger.error("AI planner call failed for user {}: {}", user.getId(), ex.getMessage(), ex);
-            // In case AI planner fails, return the saved parent and let client retry planning later
-            // Recalculate availability in a short transaction
-            transactionTemplate.execute(status -> { userService.recalculateAvailableHours(user); return null; });
-            return savedParent;
+            // In case AI planner fails, keep the saved tasks and let client retry planning later
+            // Queue an availability recalculation
+            userService.markScheduleDirty(user.getId());
+            return;
         }
 
         // Persist the planner output in a new transaction
@@ -103,17 +150,11 @@ public class TaskService {
             applyPlannedTasksTransactional(planned, user, savedParent);
         } catch (Exception ex) {
             logger.error("Error persisting planned tasks for user {}: {}", user.getId(), ex.getMessage(), ex);
-            // still return savedParent as best-effort
+            // the tasks saved before planning are kept as best-effort
         }
 
-        // Recalculate availability after applying the plan (short transaction)
-        transactionTemplate.execute(status -> { userService.recalculateAvailableHours(user); return null; });
-
-        // Return the most up-to-date version of the saved task
-        if (savedParent.getId() != null) return taskRepository.findById(savedParent.getId()).orElse(savedParent);
-        List<Task> candidates = taskRepository.findByUserIdAndTitle(user.getId(), savedParent.getTitle()).map(java.util.List::of).orElseGet(java.util.ArrayList::new);
-        if (!candidates.isEmpty()) return candidates.get(0);
-        return savedParent;
+        // Queue an availability recalculation for the applied plan
+        userService.markScheduleDirty(user.getId());
     }
 
     // Use TransactionTemplate to start new transactions even when invoked from same class
@@ -121,34 +162,22 @@ public class TaskService {
         return transactionTemplate.execute(status -> safeSave(task));
     }
 
+    // The user's tasks are loaded once up front: a query inside the loop would flush the pending
+    // inserts one by one, while this way the whole plan goes out as JDBC batches at commit
     protected void applyPlannedTasksTransactional(List<Task> planned, User user, Task savedParent) {
         if (planned == null) return;
         transactionTemplate.execute(status -> {
+            Map<Long, Task> byId = new HashMap<>();
+            Map<String, Task> byTitle = new HashMap<>();
+            for (Task t : taskRepository.findByUserId(user.getId())) {
+                byId.put(t.getId(), t);
+                byTitle.putIfAbsent(t.getTitle(), t);
+            }
             for (Task p : planned) {
                 try {
-                    if (p.getUser() == null) p.setUser(user);
-
-                    if (p.getId() != null && taskRepository.existsById(p.getId())) {
-                        Task existing = taskRepository.findById(p.getId()).orElse(null);
-                        if (existing != null) {
-                            existing.setWorkingDate(p.getWorkingDate());
-                            existing.setStartTime(p.getStartTime());
-                            existing.setEndTime(p.getEndTime());
-                            existing.setPriority(p.getPriority());
-                            existing.setEstimatedTime(p.getEstimatedTime());
-                            existing.setDescription(p.getDescription());
-                            existing.setType(p.getType());
-                            existing.setState(p.getState());
-                            existing.setDueDate(p.getDueDate());
-                            existing.setDueTime(p.getDueTime());
-                            safeSave(existing);
-                            continue;
-                        }
-                    }
-
-                    Optional<Task> match = taskRepository.findByUserIdAndTitle(user.getId(), p.getTitle());
-                    if (match.isPresent()) {
-                        Task existing = match.get();
+                    Task existing = p.getId() != null ? byId.get(p.getId()) : null;
+                    if (existing == null) existing = byTitle.get(p.getTitle());
+                    if (existing != null) {
                         existing.setWorkingDate(p.getWorkingDate());
                         existing.setStartTime(p.getStartTime());
                         existing.setEndTime(p.getEndTime());
@@ -159,12 +188,12 @@ public class TaskService {
                         existing.setState(p.getState());
                         existing.setDueDate(p.getDueDate());
                         existing.setDueTime(p.getDueTime());
-                        safeSave(existing);
-                    } else {
-                        p.setId(null);
-                        p.setUser(user);
-                        safeSave(p);
+                        continue; // managed: written by dirty checking at commit
                     }
+                    p.setId(null);
+                    p.setUser(user);
+                    Task saved = safeSave(p);
+                    byTitle.putIfAbsent(saved.getTitle(), saved);
                 } catch (Exception ex) {
                     logger.error("Error persisting planned task for user {}: {}", user.getId(), ex.getMessage(), ex);
                 }
@@ -173,239 +202,6 @@ public class TaskService {
         });
     }
 
-    /**
-     * Try to automatically schedule a task using user's availableHours and estimatedTime.
-     * Returns true if scheduled.
-     */
-    private boolean tryAutoScheduleTask(Task task, User user) {
-        // Enhanced scheduler: 30-min slots, segmentation and basic preemption.
-        if (task.getEstimatedTime() <= 0) return false;
-        if (task.getDueDate() == null) return false;
-
-        Map<String, java.util.List<String>> avail = user.getAvailableHours();
-        if (avail == null) return false;
-
-        int neededMinutes = task.getEstimatedTime();
-        int neededSlots = (int) Math.ceil(neededMinutes / 30.0); // number of 30-min slots
-
-        LocalDate deadline = task.getDueDate();
-        LocalTime deadlineTime = task.getDueTime() != null ? task.getDueTime() : LocalTime.of(23,59);
-
-        LocalDate startDate = LocalDate.now().plusDays(1); // schedule after today
-        if (startDate.isAfter(deadline)) return false;
-
-        // Build list of candidate 30-min slots between startDate and deadline (inclusive)
-        List<Slot> candidates = new java.util.ArrayList<>();
-        for (LocalDate d = startDate; !d.isAfter(deadline); d = d.plusDays(1)) {
-            String dayKey = dayNameFor(d.getDayOfWeek().getValue() % 7);
-            java.util.List<String> freeSlots = avail.get(dayKey);
-            if (freeSlots == null) continue;
-            for (String slot : freeSlots) {
-                String[] parts = slot.split("-");
-                if (parts.length != 2) continue;
-                try {
-                    LocalTime s = LocalTime.parse(parts[0]);
-                    LocalTime e = LocalTime.parse(parts[1]);
-                    // trim if on deadline day
-                    if (d.equals(deadline) && e.isAfter(deadlineTime)) e = deadlineTime;
-                    if (!s.isBefore(e)) continue;
-                    // create 30-min subslots for this free slot
-                    LocalTime cur = s;
-                    while (cur.plusMinutes(30).isBefore(e) || cur.plusMinutes(30).equals(e)) {
-                        candidates.add(new Slot(d, cur, cur.plusMinutes(30)));
-                        cur = cur.plusMinutes(30);
-                    }
-                } catch (Exception ex) {
-                    // ignore parse
-                }
-            }
-        }
-
-        if (candidates.isEmpty()) return false;
-
-        // Try to allocate contiguous blocks first
-        List<Block> blocks = findContiguousBlocks(candidates, neededSlots);
-        if (!blocks.isEmpty()) {
-            // If a single block covers all needed slots, schedule accordingly
-            if (blocks.size() == 1 && blocks.get(0).slots.size() >= neededSlots) {
-                Block b = blocks.get(0);
-                // choose latest contiguous sequence within block
-                List<Slot> seq = b.slots;
-                int startIndex = Math.max(0, seq.size() - neededSlots);
-                List<Slot> chosen = seq.subList(startIndex, startIndex + neededSlots);
-                // set task to span from first.start to last.end on block date
-                task.setWorkingDate(chosen.get(0).date);
-                task.setStartTime(chosen.get(0).start);
-                task.setEndTime(chosen.get(chosen.size()-1).end);
-                return true;
-            }
-            // else, indicate scheduling possible; actual segmentation handled in createTask
-            Block first = blocks.get(0);
-            task.setWorkingDate(first.slots.get(0).date);
-            task.setStartTime(first.slots.get(0).start);
-            task.setEndTime(first.slots.get(Math.min(first.slots.size()-1, neededSlots-1)).end);
-            return true;
-        }
-
-        // Basic preemption: try to move lower-priority tasks to free up slots
-    List<Task> existing = safeFindByUserId(user.getId());
-        // sort by priority ascending (Low -> High) so we try to move lower priority first
-        existing.sort(java.util.Comparator.comparingInt(this::priorityValue));
-
-        // Map occupied slots initially built from existing tasks
-        java.util.Set<String> occupied = new java.util.HashSet<>();
-        for (Task t : existing) {
-            if (t.getWorkingDate() == null || t.getStartTime() == null || t.getEndTime() == null) continue;
-            LocalDate d = t.getWorkingDate();
-            LocalTime cur = t.getStartTime();
-            while (cur.isBefore(t.getEndTime())) {
-                String key = d.toString() + "#" + cur.toString();
-                occupied.add(key);
-                cur = cur.plusMinutes(30);
-            }
-        }
-
-        // Build free slot list from candidates
-        java.util.List<Slot> freeList = new java.util.ArrayList<>();
-        for (Slot s : candidates) {
-            String key = s.date.toString() + "#" + s.start.toString();
-            if (!occupied.contains(key)) freeList.add(s);
-        }
-
-        int freeCount = freeList.size();
-        if (freeCount >= neededSlots) {
-            // enough free slots (non-contiguous) - accept (segments created later)
-            Slot first = freeList.get(0);
-            task.setWorkingDate(first.date);
-            task.setStartTime(first.start);
-            task.setEndTime(first.start.plusMinutes(Math.min(30, neededMinutes)));
-            return true;
-        }
-
-        // Try moving lower priority tasks: attempt to relocate them once
-        for (Task t : existing) {
-            if (priorityValue(t) >= priorityValue(task)) continue; // only move lower priority
-            if (t.getWorkingDate() == null || t.getStartTime() == null || t.getEndTime() == null) continue;
-            int tNeeded = (int) Math.ceil(( (t.getEstimatedTime() != null ? t.getEstimatedTime() : 0) ) / 30.0);
-            // free current slots of t
-            java.util.List<String> tKeys = new java.util.ArrayList<>();
-            LocalDate td = t.getWorkingDate();
-            LocalTime tc = t.getStartTime();
-            while (tc.isBefore(t.getEndTime())) {
-                tKeys.add(td.toString() + "#" + tc.toString());
-                tc = tc.plusMinutes(30);
-            }
-            for (String k : tKeys) occupied.remove(k);
-
-            // try to find alternative slots for t within its due date
-            boolean moved = false;
-            java.util.List<Slot> alt = findSlotsForTask(t, avail);
-            if (alt.size() >= tNeeded) {
-                // allocate first tNeeded slots to t
-                Slot s1 = alt.get(0);
-                t.setWorkingDate(s1.date);
-                t.setStartTime(s1.start);
-                t.setEndTime(alt.get(tNeeded-1).end);
-                safeSave(t);
-                // mark occupied with new slots
-                LocalTime cur = t.getStartTime();
-                while (cur.isBefore(t.getEndTime())) {
-                    occupied.add(t.getWorkingDate().toString() + "#" + cur.toString());
-                    cur = cur.plusMinutes(30);
-                }
-                // update freeList
-                freeList.clear();
-                for (Slot s : candidates) {
-                    String key = s.date.toString() + "#" + s.start.toString();
-                    if (!occupied.contains(key)) freeList.add(s);
-                }
-                if (freeList.size() >= neededSlots) {
-                    // now we can allocate new task
-                    return true;
-                }
-            } else {
-                // couldn't move, restore occupied
-                for (String k : tKeys) occupied.add(k);
-            }
-        }
-
-        // Safe fallback: if analysis didn't assign the task, try to find the latest
-        // contiguous block of free 30-min slots (ending as late as possible) before the deadline
-        // that can accommodate the neededSlots and assign it.
-        for (LocalDate d = deadline; !d.isBefore(startDate); d = d.minusDays(1)) {
-            String dayKey = dayNameFor(d.getDayOfWeek().getValue() % 7);
-            java.util.List<String> freeSlots = avail.get(dayKey);
-            if (freeSlots == null) continue;
-
-            // Build list of available 30-min Slot for this day excluding occupied
-            java.util.List<Slot> dayCandidates = new java.util.ArrayList<>();
-            for (String slot : freeSlots) {
-                String[] parts = slot.split("-");
-                if (parts.length != 2) continue;
-                try {
-                    LocalTime s = LocalTime.parse(parts[0]);
-                    LocalTime e = LocalTime.parse(parts[1]);
-                    // trim if on deadline day
-                    if (d.equals(deadline) && e.isAfter(deadlineTime)) e = deadlineTime;
-                    if (!s.isBefore(e)) continue;
-                    LocalTime cur = s;
-                    while (cur.plusMinutes(30).isBefore(e) || cur.plusMinutes(30).equals(e)) {
-                        String key = d.toString() + "#" + cur.toString();
-                        if (!occupied.contains(key)) dayCandidates.add(new Slot(d, cur, cur.plusMinutes(30)));
-                        cur = cur.plusMinutes(30);
-                    }
-                } catch (Exception ex) {
-                    // ignore parse
-                }
-            }
-
-            if (dayCandidates.isEmpty()) continue;
-
-            // find contiguous blocks within this day's candidates
-            List<Block> dayBlocks = findContiguousBlocks(dayCandidates, neededSlots);
-            if (!dayBlocks.isEmpty()) {
-                // pick the block that ends the latest (best safe fallback)
-                Block best = dayBlocks.stream()
-                        .max(java.util.Comparator.comparing(b -> b.slots.get(b.slots.size() - 1).end))
-                        .orElse(dayBlocks.get(0));
-
-                int startIndex = Math.max(0, best.slots.size() - neededSlots);
-                List<Slot> chosen = best.slots.subList(startIndex, Math.min(startIndex + neededSlots, best.slots.size()));
-                if (!chosen.isEmpty()) {
-                    task.setWorkingDate(chosen.get(0).date);
-                    task.setStartTime(chosen.get(0).start);
-                    task.setEndTime(chosen.get(chosen.size() - 1).end);
-                    return true;
-                }
-            }
-        }
-
-        return false;
-    }
-
-    private String dayNameFor(int idx) {
-        // idx: 0=Sunday .. 6=Saturday
-        switch (idx) {
-            case 0: return "SUN";
-            case 1: return "MON";
-            case 2: return "TUE";
-            case 3: return "WED";
-            case 4: return "THU";
-            case 5: return "FRI";
-            default: return "SAT";
-        }
-    }
-
-    private int priorityValue(Task t) {
-        String p = t.getPriority();
-        if (p == null) return 1;
-        switch (p) {
-            case "High": return 3;
-            case "Medium": return 2;
-            default: return 1;
-        }
-    }
-
     // Helper classes and methods for scheduling
     private static class Slot {
         LocalDate date;
@@ -442,32 +238,6 @@ public class TaskService {
         return result;
     }
 
-    private java.util.List<Slot> findSlotsForTask(Task t, Map<String, java.util.List<String>> avail) {
-        java.util.List<Slot> out = new java.util.ArrayList<>();
-        if (t.getDueDate() == null) return out;
-        LocalDate start = LocalDate.now().plusDays(1);
-        LocalDate end = t.getDueDate();
-        for (LocalDate d = start; !d.isAfter(end); d = d.plusDays(1)) {
-            String key = dayNameFor(d.getDayOfWeek().getValue() % 7);
-            java.util.List<String> free = avail.get(key);
-            if (free == null) continue;
-            for (String slot : free) {
-                String[] parts = slot.split("-");
-                if (parts.length != 2) continue;
-                try {
-                    LocalTime s = LocalTime.parse(parts[0]);
-                    LocalTime e = LocalTime.parse(parts[1]);
-                    LocalTime cur = s;
-                    while (cur.plusMinutes(30).isBefore(e) || cur.plusMinutes(30).equals(e)) {
-                        out.add(new Slot(d, cur, cur.plusMinutes(30)));
-                        cur = cur.plusMinutes(30);
-                    }
-                } catch (Exception ex) { }
-            }
-        }
-        return out;
-    }
-
     /**
      * Quick forced assignment: try to set workingDate/startTime/endTime on the task to a block
      * on the dueDate that fits (or partially fits) the estimatedTime ending before dueTime.
@@ -477,11 +247,10 @@ public class TaskService {
         if (task.getDueDate() == null) return false;
         if (task.getEstimatedTime() == null || task.getEstimatedTime() <= 0) return false;
 
-        Map<String, java.util.List<String>> avail = user.getAvailableHours();
-        if (avail == null) return false;
-
-        int neededSlots = (int) Math.ceil(task.getEstimatedTime() / 30.0);
         LocalDate d = task.getDueDate();
+        AvailabilityCalendar calendar = calendarService.calendar(user, d, d);
+        int step = calendar.granularity().minutes();
+        int neededSlots = calendar.granularity().slotsFor(task.getEstimatedTime());
         LocalTime deadlineTime = task.getDueTime() != null ? task.getDueTime() : LocalTime.of(23, 59);
 
         // build occupied slots for user
@@ -490,34 +259,20 @@ public class TaskService {
         for (Task t : existing) {
             if (t.getWorkingDate() == null || t.getStartTime() == null || t.getEndTime() == null) continue;
             LocalDate td = t.getWorkingDate();
-            LocalTime cur = t.getStartTime();
-            while (cur.isBefore(t.getEndTime())) {
-                occupied.add(td.toString() + "#" + cur.toString());
-                cur = cur.plusMinutes(30);
+            int end = DayMinutes.end(t.getEndTime());
+            for (int m = DayMinutes.start(t.getStartTime()) / step * step; m < end; m += step) {
+                occupied.add(td.toString() + "#" + LocalTime.of(m / 60, m % 60));
             }
         }
 
-        String dayKey = dayNameFor(d.getDayOfWeek().getValue() % 7);
-        java.util.List<String> freeSlots = avail.get(dayKey);
-        if (freeSlots == null) return false;
-
-        // collect available 30-min slots for dueDate excluding occupied and trimming by dueTime
+        // collect available slots for dueDate excluding occupied and trimming by dueTime
         java.util.List<Slot> dayCandidates = new java.util.ArrayList<>();
-        for (String slot : freeSlots) {
-            String[] parts = slot.split("-");
-            if (parts.length != 2) continue;
-            try {
-                LocalTime s = LocalTime.parse(parts[0]);
-                LocalTime e = LocalTime.parse(parts[1]);
-                if (e.isAfter(deadlineTime)) e = deadlineTime;
-                if (!s.isBefore(e)) continue;
-                LocalTime cur = s;
-                while (cur.plusMinutes(30).isBefore(e) || cur.plusMinutes(30).equals(e)) {
-                    String key = d.toString() + "#" + cur.toString();
-                    if (!occupied.contains(key)) dayCandidates.add(new Slot(d, cur, cur.plusMinutes(30)));
-                    cur = cur.plusMinutes(30);
-                }
-            } catch (Exception ex) { }
+        int endLimit = DayMinutes.start(deadlineTime);
+        for (int m = 0; m + step <= endLimit; m += step) {
+            if (!calendar.isFree(d, m / step)) continue;
+            LocalTime cur = LocalTime.of(m / 60, m % 60);
+            String key = d.toString() + "#" + cur.toString();
+            if (!occupied.contains(key)) dayCandidates.add(new Slot(d, cur, cur.plusMinutes(step)));
         }
 
         if (dayCandidates.isEmpty()) return false;
@@ -554,16 +309,16 @@ public class TaskService {
      * Obtener todas las tareas
      */
     @Transactional(readOnly = true)
-    public List<Task> getAllTasks() {
-        return taskRepository.findAll();
+    public KeysetPage<TaskSummary> getAllTasks(String after, Integer limit) {
+        return pager.find(Task.class, TaskSummary.class, SortKey.BY_ID, after, limit);
     }
 
     /**
      * Obtener todas las tareas de un usuario
      */
     @Transactional(readOnly = true)
-    public List<Task> getAllTasksByUser(Long userId) {
-        return safeFindByUserId(userId);
+    public KeysetPage<TaskSummary> getAllTasksByUser(Long userId, String after, Integer limit) {
+        return pager.find(Task.class, TaskSummary.class, SortKey.BY_ID, after, limit, Specs.ofUser(userId));
     }
 
     // Wrapper to fetch tasks with logging and defensive handling to help debug production failures
@@ -608,16 +363,18 @@ public class TaskService {
      * Obtener tareas ordenadas por fecha
      */
     @Transactional(readOnly = true)
-    public List<Task> getTasksOrderedByDueDate(Long userId) {
-        return taskRepository.findByUserIdOrderByDueDateAsc(userId);
+    public KeysetPage<TaskSummary> getTasksOrderedByDueDate(Long userId, String after, Integer limit) {
+        return pager.find(Task.class, TaskSummary.class, SortKey.asc("dueDate"), after, limit,
+                Specs.ofUser(userId));
     }
 
     /**
      * Obtener tareas ordenadas por prioridad
      */
     @Transactional(readOnly = true)
-    public List<Task> getTasksOrderedByPriority(Long userId) {
-        return taskRepository.findByUserIdOrderByPriorityAsc(userId);
+    public KeysetPage<TaskSummary> getTasksOrderedByPriority(Long userId, String after, Integer limit) {
+        return pager.find(Task.class, TaskSummary.class, SortKey.asc("priority"), after, limit,
+                Specs.ofUser(userId));
     }
 
     /**
@@ -637,107 +394,119 @@ public class TaskService {
     }
 
     /**
-     * Buscar tareas por título
+     * Buscar tareas por título, las mejores coincidencias primero
      */
     @Transactional(readOnly = true)
-    public List<Task> searchTasksByTitle(Long userId, String title) {
-        return taskRepository.findByUserIdAndTitleContainingIgnoreCase(userId, title);
+    public KeysetPage<TaskSummary> searchTasksByTitle(Long userId, String title, String after, Integer limit) {
+        return textSearch.search(Task.class, TaskSummary.class, userId, title, after, limit, "title");
     }
 
     /**
      * Obtener tareas de una clase específica
      */
     @Transactional(readOnly = true)
-    public List<Task> getTasksByClass(Long userId, Long classId) {
-        return taskRepository.findByUserIdAndClassId(userId, classId);
+    public KeysetPage<TaskSummary> getTasksByClass(Long userId, Long classId, String after, Integer limit) {
+        return pager.find(Task.class, TaskSummary.class, SortKey.BY_ID, after, limit,
+                Specs.ofUser(userId), Specs.equal("classId", classId));
     }
 
     /**
      * Obtener tareas por estado
      */
     @Transactional(readOnly = true)
-    public List<Task> getTasksByState(Long userId, String state) {
-        return taskRepository.findByUserIdAndState(userId, state);
+    public KeysetPage<TaskSummary> getTasksByState(Long userId, String state, String after, Integer limit) {
+        return pager.find(Task.class, TaskSummary.class, SortKey.BY_ID, after, limit,
+                Specs.ofUser(userId), Specs.equal("state", state));
     }
 
     /**
      * Obtener tareas por prioridad
      */
     @Transactional(readOnly = true)
-    public List<Task> getTasksByPriority(Long userId, String priority) {
-        return taskRepository.findByUserIdAndPriority(userId, priority);
+    public KeysetPage<TaskSummary> getTasksByPriority(Long userId, String priority, String after, Integer limit) {
+        return pager.find(Task.class, TaskSummary.class, SortKey.BY_ID, after, limit,
+                Specs.ofUser(userId), Specs.equal("priority", priority));
     }
 
     /**
      * Obtener tareas por tipo
      */
     @Transactional(readOnly = true)
-    public List<Task> getTasksByType(Long userId, String type) {
-        return taskRepository.findByUserIdAndType(userId, type);
+    public KeysetPage<TaskSummary> getTasksByType(Long userId, String type, String after, Integer limit) {
+        return pager.find(Task.class, TaskSummary.class, SortKey.BY_ID, after, limit,
+                Specs.ofUser(userId), Specs.equal("type", type));
     }
 
     /**
      * Obtener tareas de una fecha específica
      */
     @Transactional(readOnly = true)
-    public List<Task> getTasksByDueDate(Long userId, LocalDate dueDate) {
-        return taskRepository.findByUserIdAndDueDate(userId, dueDate);
+    public KeysetPage<TaskSummary> getTasksByDueDate(Long userId, LocalDate dueDate, String after, Integer limit) {
+        return pager.find(Task.class, TaskSummary.class, SortKey.BY_ID, after, limit,
+                Specs.ofUser(userId), Specs.equal("dueDate", dueDate));
     }
 
     /**
      * Obtener tareas en un rango de fechas
      */
     @Transactional(readOnly = true)
-    public List<Task> getTasksInRange(Long userId, LocalDate startDate, LocalDate endDate) {
-        return taskRepository.findByUserIdAndDueDateBetween(userId, startDate, endDate);
+    public KeysetPage<TaskSummary> getTasksInRange(Long userId, LocalDate startDate, LocalDate endDate, String after, Integer limit) {
+        return pager.find(Task.class, TaskSummary.class, SortKey.BY_ID, after, limit, Specs.ofUser(userId),
+                Specs.between("dueDate", startDate, endDate));
     }
 
     /**
      * Obtener tareas vencidas
      */
     @Transactional(readOnly = true)
-    public List<Task> getOverdueTasks(Long userId) {
-        return taskRepository.findByUserIdAndDueDateBefore(userId, LocalDate.now());
+    public KeysetPage<TaskSummary> getOverdueTasks(Long userId, String after, Integer limit) {
+        return pager.find(Task.class, TaskSummary.class, SortKey.BY_ID, after, limit,
+                Specs.ofUser(userId), Specs.lessThan("dueDate", LocalDate.now()));
     }
 
     /**
      * Obtener tareas futuras
      */
     @Transactional(readOnly = true)
-    public List<Task> getFutureTasks(Long userId) {
-        return taskRepository.findByUserIdAndDueDateAfterOrderByDueDateAsc(userId, LocalDate.now());
+    public KeysetPage<TaskSummary> getFutureTasks(Long userId, String after, Integer limit) {
+        return pager.find(Task.class, TaskSummary.class, SortKey.asc("dueDate"), after, limit,
+                Specs.ofUser(userId), Specs.greaterThan("dueDate", LocalDate.now()));
     }
 
     /**
      * Obtener tareas sin clase asignada
      */
     @Transactional(readOnly = true)
-    public List<Task> getTasksWithoutClass(Long userId) {
-        return taskRepository.findByUserIdAndClassIdIsNull(userId);
+    public KeysetPage<TaskSummary> getTasksWithoutClass(Long userId, String after, Integer limit) {
+        return pager.find(Task.class, TaskSummary.class, SortKey.BY_ID, after, limit,
+                Specs.ofUser(userId), Specs.isNull("classId"));
     }
 
     /**
      * Obtener tareas con clase asignada
      */
     @Transactional(readOnly = true)
-    public List<Task> getTasksWithClass(Long userId) {
-        return taskRepository.findByUserIdAndClassIdIsNotNull(userId);
+    public KeysetPage<TaskSummary> getTasksWithClass(Long userId, String after, Integer limit) {
+        return pager.find(Task.class, TaskSummary.class, SortKey.BY_ID, after, limit,
+                Specs.ofUser(userId), Specs.isNotNull("classId"));
     }
 
     /**
      * Obtener tareas sin dueDate
      */
     @Transactional(readOnly = true)
-    public List<Task> getTasksWithoutDueDate(Long userId) {
-        return taskRepository.findByUserIdAndDueDateIsNull(userId);
+    public KeysetPage<TaskSummary> getTasksWithoutDueDate(Long userId, String after, Integer limit) {
+        return pager.find(Task.class, TaskSummary.class, SortKey.BY_ID, after, limit,
+                Specs.ofUser(userId), Specs.isNull("dueDate"));
     }
 
     /**
      * Obtener tareas sin descripción
      */
     @Transactional(readOnly = true)
-    public List<Task> getTasksWithoutDescription(Long userId) {
-        return taskRepository.findByUserIdAndDescriptionIsNull(userId);
+    public KeysetPage<TaskSummary> getTasksWithoutDescription(Long userId, String after, Integer limit) {
+        return pager.find(Task.class, TaskSummary.class, SortKey.BY_ID, after, limit,
+                Specs.ofUser(userId), Specs.isNull("description"));
     }
 
     /**
@@ -749,6 +518,8 @@ public class TaskService {
                 .orElseThrow(() -> new IllegalArgumentException("Tarea no encontrada con id: " + id));
 
         Long userId = task.getUser().getId();
+        Occupancy before = Occupancy.of(task);
+        ScheduleImpact impact = ScheduleImpact.of(task, taskDetails);
 
         // Verificar si el nuevo título ya existe (y no es la misma tarea)
         if (!task.getTitle().equals(taskDetails.getTitle()) &&
@@ -770,7 +541,10 @@ public class TaskService {
 
         validateTask(task);
     Task saved = safeSave(task);
-        userService.recalculateAvailableHours(task.getUser());
+        // Only a new working date or time changes what the task occupies
+        if (impact.affectsAvailability()) {
+            userService.updateAvailableHours(task.getUser(), before, Occupancy.of(saved));
+        }
         return saved;
     }
 
@@ -782,8 +556,9 @@ public class TaskService {
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Tarea no encontrada con id: " + id));
         User user = task.getUser();
+        Occupancy before = Occupancy.of(task);
         taskRepository.deleteById(id);
-        if (user != null) userService.recalculateAvailableHours(user);
+        if (user != null) userService.updateAvailableHours(user, before, Occupancy.NONE);
     }
 
     /**
@@ -792,7 +567,7 @@ public class TaskService {
     @Transactional
     public void deleteAllUserTasks(Long userId) {
         taskRepository.deleteByUserId(userId);
-        userRepository.findById(userId).ifPresent(userService::recalculateAvailableHours);
+        userService.markScheduleDirty(userId);
     }
 
     /**
@@ -835,10 +610,9 @@ public class TaskService {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new IllegalArgumentException("Tarea no encontrada con id: " + taskId));
 
+        // The class link doesn't occupy time (see ScheduleImpact): no availability update
         task.setClassId(classId);
-    Task saved = safeSave(task);
-        userService.recalculateAvailableHours(task.getUser());
-        return saved;
+        return safeSave(task);
     }
 
     /**
@@ -849,10 +623,9 @@ public class TaskService {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new IllegalArgumentException("Tarea no encontrada con id: " + taskId));
 
+        // The class link doesn't occupy time (see ScheduleImpact): no availability update
         task.setClassId(null);
-    Task saved = safeSave(task);
-        userService.recalculateAvailableHours(task.getUser());
-        return saved;
+        return safeSave(task);
     }
 
     /**
@@ -863,16 +636,15 @@ public class TaskService {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new IllegalArgumentException("Tarea no encontrada con id: " + taskId));
 
+        // The state doesn't occupy time (see ScheduleImpact): no availability update
         task.setState(newState);
-    Task saved = safeSave(task);
-        userService.recalculateAvailableHours(task.getUser());
-        return saved;
+        return safeSave(task);
     }
 
     /**
      * Validar datos de la tarea
      */
-    private void validateTask(Task task) {
+    void validateTask(Task task) {
         if (task.getTitle() == null || task.getTitle().trim().isEmpty()) {
             throw new IllegalArgumentException("El título no puede estar vacío");
         }
@@ -0,0 +1,7 @@
+package com.planiarback.planiar.service;
+
+/**
+ * Published when a user's classes, activities or tasks changed in a way that needs a full
+ * availability recalculation; handled after commit by {@link AvailabilityRecalculationQueue}.
+ */
+public record UserScheduleDirtyEvent(Long userId) {}
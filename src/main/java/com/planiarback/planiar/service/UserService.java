@@ -1,22 +1,19 @@
 package com.planiarback.planiar.service;
 
-import com.planiarback.planiar.model.Activity;
-import com.planiarback.planiar.model.Class;
-import com.planiarback.planiar.model.Task;
 import com.planiarback.planiar.model.User;
-import com.planiarback.planiar.repository.ActivityRepository;
-import com.planiarback.planiar.repository.ClassRepository;
-import com.planiarback.planiar.repository.TaskRepository;
+import com.planiarback.planiar.repository.KeysetPage;
+import com.planiarback.planiar.repository.KeysetPager;
+import com.planiarback.planiar.repository.KeysetPager.SortKey;
+import com.planiarback.planiar.repository.Specs;
+import com.planiarback.planiar.repository.TextSearch;
 import com.planiarback.planiar.repository.UserRepository;
+import com.planiarback.planiar.util.Occupancy;
+import com.planiarback.planiar.util.OccupancyCounts;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.Duration;
-import java.time.DayOfWeek;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -26,18 +23,21 @@ import java.util.Optional;
 public class UserService {
 
     private final UserRepository userRepository;
-    private final TaskRepository taskRepository;
-    private final ClassRepository classRepository;
-    private final ActivityRepository activityRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AvailabilityCalendarService calendarService;
+    private final KeysetPager pager;
+    private final TextSearch textSearch;
 
     public UserService(UserRepository userRepository,
-                       TaskRepository taskRepository,
-                       ClassRepository classRepository,
-                       ActivityRepository activityRepository) {
+                       ApplicationEventPublisher eventPublisher,
+                       AvailabilityCalendarService calendarService,
+                       KeysetPager pager,
+                       TextSearch textSearch) {
         this.userRepository = userRepository;
-        this.taskRepository = taskRepository;
-        this.classRepository = classRepository;
-        this.activityRepository = activityRepository;
+        this.eventPublisher = eventPublisher;
+        this.calendarService = calendarService;
+        this.pager = pager;
+        this.textSearch = textSearch;
     }
 
     /**
@@ -62,15 +62,18 @@ public class UserService {
             user.setRegistrationDate(LocalDateTime.now());
         }
         
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        // Availability and calendar exist from the start, so no reader sees them missing
+        recalculateAvailableHours(saved);
+        return saved;
     }
 
     /**
      * Obtener todos los usuarios
      */
     @Transactional(readOnly = true)
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    public KeysetPage<User> getAllUsers(String after, Integer limit) {
+        return pager.find(User.class, SortKey.BY_ID, after, limit);
     }
 
     /**
@@ -98,35 +101,35 @@ public class UserService {
     }
 
     /**
-     * Buscar usuarios por username
+     * Buscar usuarios por username, las mejores coincidencias primero
      */
     @Transactional(readOnly = true)
-    public List<User> searchUsersByUsername(String username) {
-        return userRepository.findByUsernameContainingIgnoreCase(username);
+    public KeysetPage<User> searchUsersByUsername(String username, String after, Integer limit) {
+        return textSearch.search(User.class, User.class, null, username, after, limit, "username");
     }
 
     /**
-     * Buscar usuarios por email
+     * Buscar usuarios por email, las mejores coincidencias primero
      */
     @Transactional(readOnly = true)
-    public List<User> searchUsersByEmail(String email) {
-        return userRepository.findByEmailContainingIgnoreCase(email);
+    public KeysetPage<User> searchUsersByEmail(String email, String after, Integer limit) {
+        return textSearch.search(User.class, User.class, null, email, after, limit, "email");
     }
 
     /**
      * Obtener todos los usuarios administradores
      */
     @Transactional(readOnly = true)
-    public List<User> getAllAdminUsers() {
-        return userRepository.findByType("admin");
+    public KeysetPage<User> getAllAdminUsers(String after, Integer limit) {
+        return pager.find(User.class, SortKey.BY_ID, after, limit, Specs.equal("type", "admin"));
     }
 
     /**
      * Obtener todos los usuarios no administradores
      */
     @Transactional(readOnly = true)
-    public List<User> getAllNonAdminUsers() {
-        return userRepository.findByType("user");
+    public KeysetPage<User> getAllNonAdminUsers(String after, Integer limit) {
+        return pager.find(User.class, SortKey.BY_ID, after, limit, Specs.equal("type", "user"));
     }
 
     /**
@@ -266,6 +269,7 @@ public class UserService {
         if (!userRepository.existsById(id)) {
             throw new IllegalArgumentException("Usuario no encontrado con id: " + id);
         }
+        calendarService.deleteCalendar(id);
         userRepository.deleteById(id);
     }
 
@@ -299,135 +303,97 @@ public class UserService {
      * - available hours per day = 24 - occupied hours
      * - day keys use: SUN,MON,TUE,WED,THU,FRI,SAT
      * - classes and activities have days strings like "0,1,1,0,1,0,0" and start_times/end_times lists
-     * - tasks use workingDate if present, otherwise dueDate; estimatedTime is in minutes
+     * - tasks use workingDate and startTime/endTime; tasks without them don't occupy slots
+     * Also rebuilds the stored occupancy counts used by {@link #updateAvailableHours} and the
+     * dated calendar (see AvailabilityCalendarService).
      */
     public void recalculateAvailableHours(User user) {
         if (user == null || user.getId() == null) return;
 
-    Map<String, java.util.List<String>> result = new HashMap<>();
-        String[] dayNames = new String[]{"SUN","MON","TUE","WED","THU","FRI","SAT"};
-    // occupied intervals per day -> mark occupied 30-minute slots (48 per day)
-    boolean[][] occupied = new boolean[7][48];
-
-        // Classes
-        List<Class> classes = classRepository.findByUserId(user.getId());
-        for (Class c : classes) {
-            if (c.getDays() == null || c.getStartTimes() == null || c.getEndTimes() == null) continue;
-            String[] days = c.getDays().split(",");
-            String[] starts = c.getStartTimes().split(",");
-            String[] ends = c.getEndTimes().split(",");
-            for (int i = 0; i < days.length && i < 7; i++) {
-                if (!"1".equals(days[i].trim())) continue;
-                String s = (i < starts.length) ? starts[i].trim() : (starts.length > 0 ? starts[0].trim() : null);
-                String e = (i < ends.length) ? ends[i].trim() : (ends.length > 0 ? ends[0].trim() : null);
-                if (s == null || e == null || s.isEmpty() || e.isEmpty()) continue;
-                try {
-                    LocalTime st = LocalTime.parse(s);
-                    LocalTime en = LocalTime.parse(e);
-                    // mark hourly slots overlapped by this interval
-                    for (int slot = 0; slot < 48; slot++) {
-                        LocalTime slotStart = LocalTime.of(slot/2, (slot%2)*30);
-                        LocalTime slotEnd = slotStart.plusMinutes(30);
-                        if (st.isBefore(slotEnd) && en.isAfter(slotStart)) {
-                            occupied[i][slot] = true;
-                        }
-                    }
-                } catch (Exception ex) {
-                    // ignore parse errors
-                }
-            }
-        }
-
-        // Activities
-        List<Activity> activities = activityRepository.findByUserId(user.getId());
-        for (Activity a : activities) {
-            if (a.getDays() == null || a.getStartTimes() == null || a.getEndTimes() == null) continue;
-            String[] days = a.getDays().split(",");
-            String[] starts = a.getStartTimes().split(",");
-            String[] ends = a.getEndTimes().split(",");
-            for (int i = 0; i < days.length && i < 7; i++) {
-                if (!"1".equals(days[i].trim())) continue;
-                String s = (i < starts.length) ? starts[i].trim() : (starts.length > 0 ? starts[0].trim() : null);
-                String e = (i < ends.length) ? ends[i].trim() : (ends.length > 0 ? ends[0].trim() : null);
-                if (s == null || e == null || s.isEmpty() || e.isEmpty()) continue;
-                try {
-                    LocalTime st = LocalTime.parse(s);
-                    LocalTime en = LocalTime.parse(e);
-                    for (int slot = 0; slot < 48; slot++) {
-                        LocalTime slotStart = LocalTime.of(slot/2, (slot%2)*30);
-                        LocalTime slotEnd = slotStart.plusMinutes(30);
-                        if (st.isBefore(slotEnd) && en.isAfter(slotStart)) {
-                            occupied[i][slot] = true;
-                        }
-                    }
-                } catch (Exception ex) {
-                    // ignore parse errors
-                }
-            }
-        }
-
-        // Tasks: use workingDate and startTime/endTime when available
-        List<Task> tasks = taskRepository.findByUserId(user.getId());
-        for (Task t : tasks) {
-            LocalDate d = t.getWorkingDate();
-            if (d == null) continue; // only consider tasks with a workingDate for scheduling
-            int idx = d.getDayOfWeek().getValue() % 7; // Sunday -> 0
-            try {
-                if (t.getStartTime() != null && t.getEndTime() != null) {
-                    LocalTime st = t.getStartTime();
-                    LocalTime en = t.getEndTime();
-                    for (int s = 0; s < 48; s++) {
-                        LocalTime slotStart = LocalTime.of(s/2, (s%2)*30);
-                        LocalTime slotEnd = slotStart.plusMinutes(30);
-                        if (st.isBefore(slotEnd) && en.isAfter(slotStart)) {
-                            occupied[idx][s] = true;
-                        }
-                    }
-                }
-            } catch (Exception ex) {
-                // ignore
-            }
-        }
-        // Build free hourly slots per day as List<String>
-        for (int i = 0; i < 7; i++) {
-            java.util.List<String> slots = new java.util.ArrayList<>();
-            for (int s = 0; s < 48; s++) {
-                if (!occupied[i][s]) {
-                    int hour = s/2;
-                    int minute = (s%2)*30;
-                    LocalTime slotStart = LocalTime.of(hour, minute);
-                    LocalTime slotEnd = slotStart.plusMinutes(30);
-                    slots.add(String.format("%02d:%02d-%02d:%02d", slotStart.getHour(), slotStart.getMinute(), slotEnd.getHour(), slotEnd.getMinute()));
-                }
-            }
-            if (!slots.isEmpty()) {
-                result.put(dayNames[i], slots);
-            }
-        }
-
-        // If user has no schedule entries (result empty), default to all days full-day slots
-        if (result.isEmpty()) {
-            java.util.List<String> all = new java.util.ArrayList<>();
-            for (int s = 0; s < 48; s++) {
-                int hour = s/2;
-                int minute = (s%2)*30;
-                LocalTime slotStart = LocalTime.of(hour, minute);
-                LocalTime slotEnd = slotStart.plusMinutes(30);
-                all.add(String.format("%02d:%02d-%02d:%02d", slotStart.getHour(), slotStart.getMinute(), slotEnd.getHour(), slotEnd.getMinute()));
-            }
-            for (String dName : dayNames) {
-                result.put(dName, new java.util.ArrayList<>(all));
-            }
-        }
-
-        user.setAvailableHours(result);
+        // Lock the user row so concurrent recalculations and deltas apply one after another
+        userRepository.lockOccupancyCounts(user.getId());
+
+        List<Occupancy> occupancies = calendarService.occupanciesOf(user.getId());
+
+        OccupancyCounts counts = new OccupancyCounts(calendarService.granularityFor(user.getId()));
+        for (Occupancy o : occupancies) counts.add(o);
+        storeAvailability(user, counts);
+        calendarService.rebuild(user.getId(), occupancies);
+    }
+
+    /**
+     * Delta update after a single class, activity or task changed: subtract what it occupied
+     * before the change and add what it occupies now, in the weekly counts and in the
+     * materialised calendar days it touches. Costs O(changed slots) instead of reloading all of
+     * the user's data. Queues a full recalculation instead when the user has no stored counts yet
+     * or they were built at another slot granularity.
+     */
+    public void updateAvailableHours(User user, Occupancy before, Occupancy after) {
+        if (user == null || user.getId() == null) return;
+        if (before.sameAs(after)) return;
+
+        // Lock the user row and re-read the counts so concurrent deltas don't overwrite each other
+        OccupancyCounts counts = OccupancyCounts.fromBytes(userRepository.lockOccupancyCounts(user.getId()));
+        if (counts == null || counts.granularity() != calendarService.granularityFor(user.getId())) {
+            markScheduleDirty(user.getId());
+            return;
+        }
+        if (!before.sameWeeklyMinutes(after)) {
+            counts.remove(before);
+            counts.add(after);
+            storeAvailability(user, counts);
+        }
+        calendarService.applyDelta(user.getId(), before, after);
+    }
+
+    /**
+     * Pedir un recálculo completo de la disponibilidad del usuario. Se ejecuta en segundo plano
+     * después del commit de la transacción actual; varias peticiones seguidas para el mismo
+     * usuario se agrupan en un solo recálculo (ver AvailabilityRecalculationQueue). Hasta entonces
+     * los contadores guardados quedan borrados, así que login y getAvailability recalculan en
+     * lugar de devolver la disponibilidad anterior.
+     */
+    public void markScheduleDirty(Long userId) {
+        if (userId == null) return;
+        userRepository.clearOccupancyCounts(userId);
+        eventPublisher.publishEvent(new UserScheduleDirtyEvent(userId));
+    }
+
+    /**
+     * Recalcular ya la disponibilidad si falta, está marcada como desactualizada o se calculó con
+     * otra granularidad; si no, se deja como está.
+     */
+    private void ensureAvailability(User user) {
+        if (user.getOccupancyCounts() == null || user.getAvailabilityMask() == null
+                || user.getAvailabilityMask().granularity() != calendarService.granularityFor(user.getId())) {
+            recalculateAvailableHours(user);
+        }
+    }
+
+    private void storeAvailability(User user, OccupancyCounts counts) {
+        user.setOccupancyCounts(counts.toBytes());
+        user.setAvailabilityMask(counts.toMask());
         userRepository.save(user);
     }
 
+    /**
+     * Obtener la disponibilidad de un usuario en el formato pedido:
+     * "slots" (una entrada por media hora libre) o "ranges" (rangos contiguos, p. ej. "10:00-24:00")
+     */
+    public Optional<Map<String, List<String>>> getAvailability(Long userId, String format) {
+        boolean ranges;
+        if (format == null || format.equalsIgnoreCase("slots")) ranges = false;
+        else if (format.equalsIgnoreCase("ranges")) ranges = true;
+        else throw new IllegalArgumentException("Formato de disponibilidad no válido: " + format + " (use slots o ranges)");
+        return userRepository.findById(userId).map(u -> {
+            ensureAvailability(u);
+            return ranges ? u.getAvailableRanges() : u.getAvailableHours();
+        });
+    }
+
     /**
      * Validar login de usuario
      */
-    @Transactional(readOnly = true)
     public Optional<User> login(String username, String password) {
         if (username == null || username.trim().isEmpty()) {
             throw new IllegalArgumentException("El nombre de usuario no puede estar vacío");
@@ -440,13 +406,10 @@ public class UserService {
         Optional<User> user = userRepository.findByUsername(username);
 
         if (user.isPresent() && user.get().getPassword().equals(password)) {
-            // ensure availableHours is initialized (default 24h for each day when empty)
+            // Return availability that is current: recalculated here when missing, marked dirty
+            // or calculated at another slot granularity
             User u = user.get();
-            if (u.getAvailableHours() == null || u.getAvailableHours().isEmpty()) {
-                // recalculate will set defaults when there are no schedule entries
-                // call outside read-only context (save will be performed inside recalc)
-                recalculateAvailableHours(u);
-            }
+            ensureAvailability(u);
             return Optional.of(u);
         }
 
@@ -0,0 +1,73 @@
+package com.planiarback.planiar.util;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Free slots by date for planners: a window of dated days (from the materialised calendar, so
+ * classes and activities only block dates inside their start/end range) backed by the weekly
+ * template for dates outside the window. Lookups are O(1) by date. Slots are of the calendar's
+ * {@link SlotGranularity}; planners step through time in granularity().minutes().
+ */
+public final class AvailabilityCalendar {
+
+    private final LocalDate from;
+    private final SlotGranularity granularity;
+    private final long[] words;
+    private final int dayCount;
+    private final AvailabilityMask weekly;
+
+    /**
+     * @param from        first date of the window
+     * @param granularity slot length of words and of every lookup
+     * @param words       free-slot bits per date starting at from, wordsPerDay words per date
+     * @param weekly      template for dates outside the window (resampled to granularity if
+     *                    needed); null means nothing is free there
+     */
+    public AvailabilityCalendar(LocalDate from, SlotGranularity granularity, long[] words, AvailabilityMask weekly) {
+        this.from = from;
+        this.granularity = granularity;
+        this.words = words;
+        this.dayCount = words.length / granularity.wordsPerDay();
+        this.weekly = weekly != null ? weekly.withGranularity(granularity) : null;
+    }
+
+    /** Calendar without dated days: every date follows the weekly template. */
+    public static AvailabilityCalendar weekly(AvailabilityMask weekly) {
+        SlotGranularity g = weekly != null ? weekly.granularity() : SlotGranularity.DEFAULT;
+        return new AvailabilityCalendar(LocalDate.MIN, g, new long[0], weekly);
+    }
+
+    public SlotGranularity granularity() {
+        return granularity;
+    }
+
+    /** Whether the slot starting at slot * granularity().minutes() on date is free. */
+    public boolean isFree(LocalDate date, int slot) {
+        long offset = ChronoUnit.DAYS.between(from, date);
+        if (offset >= 0 && offset < dayCount) return SlotBits.get(words, (int) offset * granularity.wordsPerDay(), slot);
+        return weekly != null && weekly.isFree(date.getDayOfWeek().getValue() % 7, slot);
+    }
+
+    /** Maximal free intervals of a date as {startMinute, endMinute} pairs; 1440 is midnight. */
+    public List<int[]> freeIntervals(LocalDate date) {
+        long offset = ChronoUnit.DAYS.between(from, date);
+        List<int[]> runs;
+        if (offset >= 0 && offset < dayCount) {
+            runs = SlotBits.runs(words, (int) offset * granularity.wordsPerDay(), granularity.slotsPerDay());
+        } else if (weekly != null) {
+            long[] day = new long[granularity.wordsPerDay()];
+            weekly.copyDay(date.getDayOfWeek().getValue() % 7, day, 0);
+            runs = SlotBits.runs(day, 0, granularity.slotsPerDay());
+        } else {
+            return new ArrayList<>();
+        }
+        for (int[] run : runs) {
+            run[0] = granularity.startMinute(run[0]);
+            run[1] = granularity.startMinute(run[1]);
+        }
+        return runs;
+    }
+}
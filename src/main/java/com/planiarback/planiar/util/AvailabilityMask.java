@@ -0,0 +1,215 @@
+package com.planiarback.planiar.util;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A user's free weekly slots as word-packed bits at a {@link SlotGranularity} (half hours by
+ * default): day 0 = Sunday, bit s of a day set when the slot starting at s * minutes is free.
+ * Persisted as 7 * slotsPerDay / 8 bytes through {@link AvailabilityMaskConverter} (42 bytes at
+ * 30 minutes); the "HH:MM-HH:MM" lists of the API are derived on demand and cached, so loading
+ * or saving a user no longer goes through JSON.
+ * Instances are immutable.
+ */
+public final class AvailabilityMask {
+
+    public static final int DAYS = OccupancyCounts.DAYS;
+    public static final String[] DAY_NAMES = OccupancyCounts.DAY_NAMES;
+
+    public static final AvailabilityMask ALL_FREE = allFree(SlotGranularity.DEFAULT);
+
+    private final SlotGranularity granularity;
+    private final long[] words;
+
+    // Lazily built string views; racy single-check is fine since the result is deterministic
+    private Map<String, List<String>> availableHours;
+    private Map<String, List<String>> availableRanges;
+
+    private AvailabilityMask(SlotGranularity granularity, long[] words) {
+        this.granularity = granularity;
+        this.words = words;
+    }
+
+    // Zeroed words for 7 days at g, day d starting at word d * wordsPerDay
+    static long[] newWords(SlotGranularity g) {
+        return new long[DAYS * g.wordsPerDay()];
+    }
+
+    // Mask over words laid out as by newWords; the array is taken over, not copied
+    static AvailabilityMask wrap(SlotGranularity g, long[] words) {
+        return new AvailabilityMask(g, words);
+    }
+
+    public static AvailabilityMask allFree(SlotGranularity g) {
+        long[] words = newWords(g);
+        for (int d = 0; d < DAYS; d++) SlotBits.setRange(words, d * g.wordsPerDay(), 0, g.slotsPerDay());
+        return new AvailabilityMask(g, words);
+    }
+
+    /** Reads a stored mask; the granularity follows from the length. Null if the length is unknown. */
+    public static AvailabilityMask fromBytes(byte[] bytes) {
+        if (bytes == null) return null;
+        SlotGranularity g = SlotGranularity.forBytes(bytes.length, DAYS, 1);
+        if (g == null) return null;
+        long[] words = newWords(g);
+        int bytesPerDay = g.slotsPerDay() / 8;
+        for (int d = 0; d < DAYS; d++) SlotBits.fromBytes(bytes, d * bytesPerDay, g.slotsPerDay(), words, d * g.wordsPerDay());
+        return new AvailabilityMask(g, words);
+    }
+
+    public byte[] toBytes() {
+        int bytesPerDay = granularity.slotsPerDay() / 8;
+        byte[] out = new byte[DAYS * bytesPerDay];
+        for (int d = 0; d < DAYS; d++) {
+            SlotBits.toBytes(words, d * granularity.wordsPerDay(), granularity.slotsPerDay(), out, d * bytesPerDay);
+        }
+        return out;
+    }
+
+    /**
+     * Parses the day -> ["HH:MM-HH:MM", ...] shape used by the API, in either format: each entry
+     * marks every half hour it fully covers as free; an end of 00:00 or 24:00 means midnight.
+     * Unknown day keys and unparseable entries are ignored.
+     */
+    public static AvailabilityMask fromAvailableHours(Map<String, List<String>> availableHours) {
+        return fromAvailableHours(availableHours, SlotGranularity.DEFAULT);
+    }
+
+    /** Same, marking every slot of the given granularity that the entries fully cover. */
+    public static AvailabilityMask fromAvailableHours(Map<String, List<String>> availableHours, SlotGranularity g) {
+        if (availableHours == null) return null;
+        long[] words = newWords(g);
+        for (int d = 0; d < DAYS; d++) {
+            List<String> ranges = availableHours.get(DAY_NAMES[d]);
+            if (ranges == null) continue;
+            for (String range : ranges) {
+                int[] mm = parseRange(range);
+                if (mm != null) SlotBits.setRange(words, d * g.wordsPerDay(), g.firstInside(mm[0]), g.endInside(mm[1]));
+            }
+        }
+        return new AvailabilityMask(g, words);
+    }
+
+    /**
+     * This mask at another granularity: a slot of the result is free only if the time it covers
+     * was entirely free here.
+     */
+    public AvailabilityMask withGranularity(SlotGranularity g) {
+        if (g == granularity) return this;
+        long[] out = newWords(g);
+        for (int d = 0; d < DAYS; d++) {
+            for (int[] run : SlotBits.runs(words, d * granularity.wordsPerDay(), granularity.slotsPerDay())) {
+                SlotBits.setRange(out, d * g.wordsPerDay(),
+                        g.firstInside(granularity.startMinute(run[0])), g.endInside(granularity.startMinute(run[1])));
+            }
+        }
+        return new AvailabilityMask(g, out);
+    }
+
+    public SlotGranularity granularity() {
+        return granularity;
+    }
+
+    public boolean isFree(int day, int slot) {
+        return SlotBits.get(words, day * granularity.wordsPerDay(), slot);
+    }
+
+    /** Copies the free-slot words of one day into dest at offset (wordsPerDay words). */
+    public void copyDay(int day, long[] dest, int offset) {
+        System.arraycopy(words, day * granularity.wordsPerDay(), dest, offset, granularity.wordsPerDay());
+    }
+
+    public boolean isEmpty() {
+        return SlotBits.isEmpty(words, 0, words.length);
+    }
+
+    /**
+     * Free slots per day as unmodifiable "HH:MM-HH:MM" lists (one entry per slot), Sunday
+     * first. Days without free slots are omitted.
+     */
+    public Map<String, List<String>> toAvailableHours() {
+        Map<String, List<String>> view = availableHours;
+        if (view == null) {
+            Map<String, List<String>> result = new LinkedHashMap<>();
+            int wpd = granularity.wordsPerDay();
+            for (int d = 0; d < DAYS; d++) {
+                if (SlotBits.isEmpty(words, d * wpd, wpd)) continue;
+                List<String> slots = new ArrayList<>(SlotBits.count(words, d * wpd, wpd));
+                for (int s = 0; s < granularity.slotsPerDay(); s++) {
+                    if (isFree(d, s)) slots.add(granularity.label(s));
+                }
+                result.put(DAY_NAMES[d], Collections.unmodifiableList(slots));
+            }
+            view = Collections.unmodifiableMap(result);
+            availableHours = view;
+        }
+        return view;
+    }
+
+    /**
+     * Free time per day coalesced into maximal "HH:MM-HH:MM" ranges, e.g. ["00:00-08:00",
+     * "10:00-24:00"] (an end of 24:00 is midnight). Same shape as {@link #toAvailableHours()},
+     * typically a fraction of the entries. Days without free slots are omitted.
+     */
+    public Map<String, List<String>> toRanges() {
+        Map<String, List<String>> view = availableRanges;
+        if (view == null) {
+            Map<String, List<String>> result = new LinkedHashMap<>();
+            for (int d = 0; d < DAYS; d++) {
+                List<int[]> runs = SlotBits.runs(words, d * granularity.wordsPerDay(), granularity.slotsPerDay());
+                if (runs.isEmpty()) continue;
+                List<String> ranges = new ArrayList<>(runs.size());
+                for (int[] run : runs) {
+                    ranges.add(formatMinutes(granularity.startMinute(run[0])) + "-" + formatMinutes(granularity.startMinute(run[1])));
+                }
+                result.put(DAY_NAMES[d], Collections.unmodifiableList(ranges));
+            }
+            view = Collections.unmodifiableMap(result);
+            availableRanges = view;
+        }
+        return view;
+    }
+
+    /**
+     * Minutes since midnight {start, end} of a "HH:MM-HH:MM" free range, whether a single
+     * slot or a coalesced range; an end of 00:00 or 24:00 is midnight (1440).
+     * Returns null if the range is unparseable or empty.
+     */
+    public static int[] parseRange(String range) {
+        if (range == null) return null;
+        String[] parts = range.trim().split("-");
+        if (parts.length != 2) return null;
+        try {
+            int start = DayMinutes.start(LocalTime.parse(parts[0].trim()));
+            int end = DayMinutes.end(parts[1].trim());
+            return end > start ? new int[]{start, end} : null;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    public static String formatMinutes(int minutes) {
+        return String.format("%02d:%02d", minutes / 60, minutes % 60);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof AvailabilityMask other
+                && granularity == other.granularity && Arrays.equals(words, other.words));
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * granularity.hashCode() + Arrays.hashCode(words);
+    }
+
+    @Override
+    public String toString() {
+        return toAvailableHours().toString();
+    }
+}
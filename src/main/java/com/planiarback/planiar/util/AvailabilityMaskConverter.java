@@ -0,0 +1,18 @@
+package com.planiarback.planiar.util;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter(autoApply = false)
+public class AvailabilityMaskConverter implements AttributeConverter<AvailabilityMask, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(AvailabilityMask attribute) {
+        return attribute == null ? null : attribute.toBytes();
+    }
+
+    @Override
+    public AvailabilityMask convertToEntityAttribute(byte[] dbData) {
+        return dbData == null || dbData.length == 0 ? null : AvailabilityMask.fromBytes(dbData);
+    }
+}
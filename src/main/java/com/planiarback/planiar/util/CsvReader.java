@@ -0,0 +1,88 @@
+package com.planiarback.planiar.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming CSV reader (RFC 4180): comma separated, fields optionally quoted with ",
+ * "" inside quotes for a literal quote, and quoted fields may contain commas and line breaks
+ * (a class's days "0,1,1,0,1,0,0" has to be quoted). Reads one record at a time, so a document
+ * of any size is held in memory one row at a time.
+ */
+public final class CsvReader {
+
+    private final Reader in;
+    private int pending = -2; // one character of lookahead; -2 = none
+    private long line = 1;
+    private long recordLine;
+
+    public CsvReader(Reader in) {
+        this.in = in;
+    }
+
+    /** Line where the last record returned by {@link #next()} started. */
+    public long recordLine() {
+        return recordLine;
+    }
+
+    /**
+     * Next record, or null at the end of the input. Blank lines are skipped.
+     * @throws IllegalArgumentException if a quoted field is not closed before the end of the input
+     */
+    public List<String> next() throws IOException {
+        int c = read();
+        while (c == '\r' || c == '\n') c = read();
+        if (c < 0) return null;
+        recordLine = line;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c < 0) throw new IllegalArgumentException("Comillas sin cerrar en la línea " + recordLine);
+                if (c == '"') {
+                    int d = read();
+                    if (d == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = d;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c < 0 || c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    int d = read();
+                    if (d != '\n') pending = d;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        int c;
+        if (pending != -2) {
+            c = pending;
+            pending = -2;
+            return c;
+        }
+        c = in.read();
+        if (c == '\n') line++;
+        return c;
+    }
+}
@@ -0,0 +1,30 @@
+package com.planiarback.planiar.util;
+
+import java.time.LocalTime;
+
+/**
+ * Times of day as minutes since midnight. Interval ends use {@link SlotGranularity#MINUTES_PER_DAY}
+ * for midnight: LocalTime has no 24:00, so an end of 00:00 (or the text "24:00") closes the day
+ * instead of starting it. Slot loops over these ints cannot wrap around the way
+ * {@code LocalTime.plusMinutes} does at 23:30 + 30 min.
+ */
+public final class DayMinutes {
+
+    private DayMinutes() {
+    }
+
+    /** Minutes since midnight of a start time (00:00 is 0). */
+    public static int start(LocalTime t) {
+        return t.getHour() * 60 + t.getMinute();
+    }
+
+    /** Minutes since midnight of an end time; 00:00 is the end of the day. */
+    public static int end(LocalTime t) {
+        return t.equals(LocalTime.MIDNIGHT) ? SlotGranularity.MINUTES_PER_DAY : start(t);
+    }
+
+    /** Same as {@link #end(LocalTime)} for "HH:MM" text, also accepting "24:00". */
+    public static int end(String hhmm) {
+        return "24:00".equals(hhmm) ? SlotGranularity.MINUTES_PER_DAY : end(LocalTime.parse(hhmm));
+    }
+}
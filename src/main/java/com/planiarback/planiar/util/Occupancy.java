@@ -0,0 +1,121 @@
+package com.planiarback.planiar.util;
+
+import com.planiarback.planiar.model.Activity;
+import com.planiarback.planiar.model.Class;
+import com.planiarback.planiar.model.Task;
+import com.planiarback.planiar.repository.ScheduleEntry;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Time blocked by one class, activity or scheduled task: weekly intervals as {start, end}
+ * minute pairs counted from Sunday 00:00 (each within one day), repeated on every matching
+ * weekday between from and to (null = open-ended). A task is a single date. Independent of the
+ * slot granularity, which is applied by {@link OccupancyCounts} and the calendar. Taken before
+ * and after a change so availability can be updated by difference, both in the weekly template
+ * and in the dated calendar.
+ */
+public record Occupancy(LocalDate from, LocalDate to, int[] weeklyMinutes) {
+
+    public static final Occupancy NONE = new Occupancy(null, null, new int[0]);
+
+    private static final int DAY = SlotGranularity.MINUTES_PER_DAY;
+    private static final int[] NO_MINUTES = new int[0];
+
+    public static Occupancy of(Class c) {
+        if (c == null) return NONE;
+        return new Occupancy(c.getStartDate(), c.getEndDate(), weeklyMinutes(c.getDays(), c.getStartTimes(), c.getEndTimes()));
+    }
+
+    public static Occupancy of(Activity a) {
+        if (a == null) return NONE;
+        return new Occupancy(a.getStartDate(), a.getEndDate(), weeklyMinutes(a.getDays(), a.getStartTimes(), a.getEndTimes()));
+    }
+
+    public static Occupancy of(Task t) {
+        if (t == null || t.getWorkingDate() == null) return NONE;
+        return new Occupancy(t.getWorkingDate(), t.getWorkingDate(), taskMinutes(t.getWorkingDate(), t.getStartTime(), t.getEndTime()));
+    }
+
+    /** Same as the entity factories, from a row of the schedule projection. */
+    public static Occupancy of(ScheduleEntry e) {
+        if (ScheduleEntry.KIND_TASK.equals(e.getKind())) {
+            if (e.getStartDate() == null) return NONE;
+            return new Occupancy(e.getStartDate(), e.getEndDate(), taskMinutes(e.getStartDate(), e.getStartTime(), e.getEndTime()));
+        }
+        return new Occupancy(e.getStartDate(), e.getEndDate(), weeklyMinutes(e.getDays(), e.getStartTimes(), e.getEndTimes()));
+    }
+
+    public boolean isEmpty() {
+        return weeklyMinutes.length == 0;
+    }
+
+    public boolean isActiveOn(LocalDate date) {
+        return (from == null || !date.isBefore(from)) && (to == null || !date.isAfter(to));
+    }
+
+    /**
+     * {start, end} minute pairs (since midnight) blocked on the given date; empty outside the
+     * date range or on other weekdays.
+     */
+    public int[] minutesOn(LocalDate date) {
+        if (isEmpty() || !isActiveOn(date)) return NO_MINUTES;
+        int lo = (date.getDayOfWeek().getValue() % 7) * DAY;
+        int[] out = NO_MINUTES;
+        for (int i = 0; i < weeklyMinutes.length; i += 2) {
+            if (weeklyMinutes[i] < lo || weeklyMinutes[i] >= lo + DAY) continue;
+            out = Arrays.copyOf(out, out.length + 2);
+            out[out.length - 2] = weeklyMinutes[i] - lo;
+            out[out.length - 1] = weeklyMinutes[i + 1] - lo;
+        }
+        return out;
+    }
+
+    /** True if both block the same times on the same dates. */
+    public boolean sameAs(Occupancy other) {
+        if (!Objects.equals(from, other.from) || !Objects.equals(to, other.to)) return false;
+        return sameWeeklyMinutes(other);
+    }
+
+    public boolean sameWeeklyMinutes(Occupancy other) {
+        return Arrays.equals(weeklyMinutes, other.weeklyMinutes);
+    }
+
+    // "days" is "0,1,1,0,1,0,0" (Sun..Sat); start/end lists are per day, falling back to the first entry
+    private static int[] weeklyMinutes(String days, String startTimes, String endTimes) {
+        if (days == null || startTimes == null || endTimes == null) return NO_MINUTES;
+        String[] d = days.split(",");
+        String[] starts = startTimes.split(",");
+        String[] ends = endTimes.split(",");
+        int[] out = NO_MINUTES;
+        for (int i = 0; i < d.length && i < OccupancyCounts.DAYS; i++) {
+            if (!"1".equals(d[i].trim())) continue;
+            String s = i < starts.length ? starts[i].trim() : (starts.length > 0 ? starts[0].trim() : null);
+            String e = i < ends.length ? ends[i].trim() : (ends.length > 0 ? ends[0].trim() : null);
+            if (s == null || e == null || s.isEmpty() || e.isEmpty()) continue;
+            try {
+                out = append(out, i, DayMinutes.start(LocalTime.parse(s)), DayMinutes.end(LocalTime.parse(e)));
+            } catch (RuntimeException ex) {
+                // ignore unparseable times, as the full recalculation always did
+            }
+        }
+        return out;
+    }
+
+    // A task's start/end time on the weekday of its workingDate
+    private static int[] taskMinutes(LocalDate workingDate, LocalTime start, LocalTime end) {
+        if (workingDate == null || start == null || end == null) return NO_MINUTES;
+        return append(NO_MINUTES, workingDate.getDayOfWeek().getValue() % 7, DayMinutes.start(start), DayMinutes.end(end));
+    }
+
+    private static int[] append(int[] prev, int day, int start, int end) {
+        if (end <= start) return prev;
+        int[] out = Arrays.copyOf(prev, prev.length + 2);
+        out[prev.length] = day * DAY + start;
+        out[prev.length + 1] = day * DAY + end;
+        return out;
+    }
+}
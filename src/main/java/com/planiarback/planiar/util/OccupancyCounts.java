@@ -0,0 +1,107 @@
+package com.planiarback.planiar.util;
+
+/**
+ * Per-slot occupancy counts for one user's week at a {@link SlotGranularity}: 7 days x
+ * slotsPerDay slots, each holding how many classes, activities and scheduled tasks touch it. A
+ * slot is free when its count is 0.
+ * Stored on the user as a byte[] (two bytes per slot, so the length identifies the granularity)
+ * so a single create/update/delete only has to subtract the old slots of the changed entity and
+ * add the new ones. Day 0 = Sunday as in the "days" strings.
+ */
+public final class OccupancyCounts {
+
+    public static final int DAYS = 7;
+    public static final String[] DAY_NAMES = {"SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT"};
+
+    private final SlotGranularity granularity;
+    private final char[] counts;
+
+    public OccupancyCounts(SlotGranularity granularity) {
+        this.granularity = granularity;
+        this.counts = new char[DAYS * granularity.slotsPerDay()];
+    }
+
+    /** Counts read back from storage, or null if bytes is null or of an unknown length. */
+    public static OccupancyCounts fromBytes(byte[] bytes) {
+        if (bytes == null) return null;
+        SlotGranularity g = SlotGranularity.forBytes(bytes.length, DAYS, 16);
+        if (g == null) return null;
+        OccupancyCounts oc = new OccupancyCounts(g);
+        decode(bytes, oc.counts);
+        return oc;
+    }
+
+    public byte[] toBytes() {
+        return encode(counts);
+    }
+
+    public SlotGranularity granularity() {
+        return granularity;
+    }
+
+    public void add(Occupancy o) {
+        apply(o.weeklyMinutes(), 1);
+    }
+
+    public void remove(Occupancy o) {
+        apply(o.weeklyMinutes(), -1);
+    }
+
+    public boolean isFree(int day, int slot) {
+        return counts[day * granularity.slotsPerDay() + slot] == 0;
+    }
+
+    /**
+     * Free slots (count 0) as a mask. If no slot of the week is free, every slot is reported as
+     * free instead (same fallback as before the counts existed).
+     */
+    public AvailabilityMask toMask() {
+        long[] words = AvailabilityMask.newWords(granularity);
+        int spd = granularity.slotsPerDay();
+        for (int d = 0; d < DAYS; d++) {
+            for (int s = 0; s < spd; s++) {
+                if (counts[d * spd + s] == 0) words[d * granularity.wordsPerDay() + (s >>> 6)] |= 1L << s;
+            }
+        }
+        AvailabilityMask mask = AvailabilityMask.wrap(granularity, words);
+        return mask.isEmpty() ? AvailabilityMask.allFree(granularity) : mask;
+    }
+
+    /**
+     * Adds delta to the counts of the slots touched by each {start, end} minute pair, minutes
+     * counted from the start of the first day held in counts (slotsPerDay counts per day).
+     */
+    public static void apply(char[] counts, SlotGranularity g, int[] minutes, int delta) {
+        int day = SlotGranularity.MINUTES_PER_DAY;
+        for (int i = 0; i < minutes.length; i += 2) {
+            int base = (minutes[i] / day) * day;
+            int offset = (minutes[i] / day) * g.slotsPerDay();
+            int last = g.endTouched(minutes[i + 1] - base);
+            for (int s = g.firstTouched(minutes[i] - base); s < last; s++) {
+                int k = offset + s;
+                if (delta > 0 && counts[k] < Character.MAX_VALUE) counts[k]++;
+                else if (delta < 0 && counts[k] > 0) counts[k]--;
+            }
+        }
+    }
+
+    /** Two bytes per count, big-endian. */
+    public static byte[] encode(char[] counts) {
+        byte[] out = new byte[counts.length * 2];
+        for (int i = 0; i < counts.length; i++) {
+            out[2 * i] = (byte) (counts[i] >> 8);
+            out[2 * i + 1] = (byte) counts[i];
+        }
+        return out;
+    }
+
+    public static void decode(byte[] bytes, char[] counts) {
+        for (int i = 0; i < counts.length && 2 * i + 1 < bytes.length; i++) {
+            counts[i] = (char) (((bytes[2 * i] & 0xFF) << 8) | (bytes[2 * i + 1] & 0xFF));
+        }
+    }
+
+    private void apply(int[] minutes, int delta) {
+        apply(counts, granularity, minutes, delta);
+    }
+}
@@ -0,0 +1,54 @@
+package com.planiarback.planiar.util;
+
+import com.planiarback.planiar.model.Activity;
+import com.planiarback.planiar.model.Class;
+import com.planiarback.planiar.model.Task;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * What an edit can affect, from which fields it changes: AVAILABILITY for the fields that decide
+ * which slots a class, activity or task occupies, NONE for everything else (title, color,
+ * professor, room, description, due date, estimate, priority, type, state, class link). Services
+ * skip the availability update entirely for NONE edits.
+ */
+public enum ScheduleImpact {
+    NONE, AVAILABILITY;
+
+    // Fields that decide which slots each entity occupies; every other field is NONE
+    private static final List<Function<Class, Object>> CLASS_SLOT_FIELDS = List.of(
+            Class::getDays, Class::getStartTimes, Class::getEndTimes, Class::getStartDate, Class::getEndDate);
+
+    private static final List<Function<Activity, Object>> ACTIVITY_SLOT_FIELDS = List.of(
+            Activity::getDays, Activity::getStartTimes, Activity::getEndTimes,
+            Activity::getStartDate, Activity::getEndDate);
+
+    private static final List<Function<Task, Object>> TASK_SLOT_FIELDS = List.of(
+            Task::getWorkingDate, Task::getStartTime, Task::getEndTime);
+
+    public boolean affectsAvailability() {
+        return this == AVAILABILITY;
+    }
+
+    /** Impact of replacing the fields of current with those of incoming (before applying them). */
+    public static ScheduleImpact of(Class current, Class incoming) {
+        return compare(CLASS_SLOT_FIELDS, current, incoming);
+    }
+
+    public static ScheduleImpact of(Activity current, Activity incoming) {
+        return compare(ACTIVITY_SLOT_FIELDS, current, incoming);
+    }
+
+    public static ScheduleImpact of(Task current, Task incoming) {
+        return compare(TASK_SLOT_FIELDS, current, incoming);
+    }
+
+    private static <T> ScheduleImpact compare(List<Function<T, Object>> slotFields, T current, T incoming) {
+        for (Function<T, Object> f : slotFields) {
+            if (!Objects.equals(f.apply(current), f.apply(incoming))) return AVAILABILITY;
+        }
+        return NONE;
+    }
+}
@@ -0,0 +1,93 @@
+package com.planiarback.planiar.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Word-packed slot bitsets: slot s of a day stored at word offset is bit s % 64 of
+ * words[offset + s / 64]. Shared by the weekly mask and the dated calendar so both work the
+ * same at any {@link SlotGranularity}.
+ */
+public final class SlotBits {
+
+    private SlotBits() {
+    }
+
+    public static boolean get(long[] words, int offset, int slot) {
+        return (words[offset + (slot >>> 6)] & (1L << slot)) != 0;
+    }
+
+    /** Sets slots [first, last). */
+    public static void setRange(long[] words, int offset, int first, int last) {
+        for (int s = first; s < last; ) {
+            int w = s >>> 6;
+            int end = Math.min(last, (w + 1) << 6);
+            int len = end - s;
+            long bits = len == 64 ? -1L : ((1L << len) - 1) << s;
+            words[offset + w] |= bits;
+            s = end;
+        }
+    }
+
+    public static boolean isEmpty(long[] words, int offset, int wordCount) {
+        for (int w = 0; w < wordCount; w++) if (words[offset + w] != 0) return false;
+        return true;
+    }
+
+    public static int count(long[] words, int offset, int wordCount) {
+        int n = 0;
+        for (int w = 0; w < wordCount; w++) n += Long.bitCount(words[offset + w]);
+        return n;
+    }
+
+    /** Maximal runs of set slots of one day as {firstSlot, endSlot} pairs, in order. */
+    public static List<int[]> runs(long[] words, int offset, int slotsPerDay) {
+        List<int[]> out = new ArrayList<>();
+        int s = nextSet(words, offset, slotsPerDay, 0);
+        while (s < slotsPerDay) {
+            int end = nextClear(words, offset, slotsPerDay, s);
+            out.add(new int[]{s, end});
+            s = nextSet(words, offset, slotsPerDay, end);
+        }
+        return out;
+    }
+
+    /** First set slot at or after from, or slotsPerDay if none. */
+    public static int nextSet(long[] words, int offset, int slotsPerDay, int from) {
+        if (from >= slotsPerDay) return slotsPerDay;
+        int w = from >>> 6;
+        long bits = words[offset + w] & (-1L << from);
+        int last = (slotsPerDay - 1) >>> 6;
+        while (bits == 0) {
+            if (++w > last) return slotsPerDay;
+            bits = words[offset + w];
+        }
+        return Math.min(slotsPerDay, (w << 6) + Long.numberOfTrailingZeros(bits));
+    }
+
+    /** First clear slot at or after from, or slotsPerDay if none. */
+    public static int nextClear(long[] words, int offset, int slotsPerDay, int from) {
+        if (from >= slotsPerDay) return slotsPerDay;
+        int w = from >>> 6;
+        long bits = ~words[offset + w] & (-1L << from);
+        int last = (slotsPerDay - 1) >>> 6;
+        while (bits == 0) {
+            if (++w > last) return slotsPerDay;
+            bits = ~words[offset + w];
+        }
+        return Math.min(slotsPerDay, (w << 6) + Long.numberOfTrailingZeros(bits));
+    }
+
+    /** Little-endian packing of one day's slotsPerDay bits (slotsPerDay / 8 bytes) into out at pos. */
+    public static void toBytes(long[] words, int offset, int slotsPerDay, byte[] out, int pos) {
+        for (int b = 0; b < slotsPerDay / 8; b++) {
+            out[pos + b] = (byte) (words[offset + (b >>> 3)] >>> (8 * (b & 7)));
+        }
+    }
+
+    public static void fromBytes(byte[] in, int pos, int slotsPerDay, long[] words, int offset) {
+        for (int b = 0; b < slotsPerDay / 8 && pos + b < in.length; b++) {
+            words[offset + (b >>> 3)] |= (in[pos + b] & 0xFFL) << (8 * (b & 7));
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.planiarback.planiar.util;
+
+/**
+ * Length of the time slots availability is tracked in. A day has 1440 / minutes slots, packed
+ * one bit per slot into {@link #wordsPerDay()} longs (1 word at 30 or 60 minutes, 5 at 5
+ * minutes), so a finer grid costs a few more words per day, not more objects.
+ * The deployment default is availability.slotMinutes; stored masks and counts carry their own
+ * granularity (see {@link #forBytes}), so data written at another resolution is still readable.
+ */
+public enum SlotGranularity {
+    FIVE(5), TEN(10), FIFTEEN(15), THIRTY(30), SIXTY(60);
+
+    /** Granularity of data stored before slots were configurable. */
+    public static final SlotGranularity DEFAULT = THIRTY;
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final int minutes;
+    private final int slotsPerDay;
+    private final int wordsPerDay;
+    private volatile String[] labels;
+
+    SlotGranularity(int minutes) {
+        this.minutes = minutes;
+        this.slotsPerDay = MINUTES_PER_DAY / minutes;
+        this.wordsPerDay = (slotsPerDay + 63) / 64;
+    }
+
+    public static SlotGranularity ofMinutes(int minutes) {
+        for (SlotGranularity g : values()) if (g.minutes == minutes) return g;
+        throw new IllegalArgumentException("Granularidad no soportada: " + minutes + " minutos (use 5, 10, 15, 30 o 60)");
+    }
+
+    /**
+     * Granularity for which days days at bitsPerSlot bits per slot take exactly length bytes;
+     * null if none. Every supported granularity has a distinct size, so stored data needs no header.
+     */
+    public static SlotGranularity forBytes(int length, int days, int bitsPerSlot) {
+        for (SlotGranularity g : values()) {
+            if ((long) days * g.slotsPerDay * bitsPerSlot == 8L * length) return g;
+        }
+        return null;
+    }
+
+    public int minutes() {
+        return minutes;
+    }
+
+    public int slotsPerDay() {
+        return slotsPerDay;
+    }
+
+    public int wordsPerDay() {
+        return wordsPerDay;
+    }
+
+    /** Slots needed to hold a duration, rounded up. */
+    public int slotsFor(int durationMinutes) {
+        return (durationMinutes + minutes - 1) / minutes;
+    }
+
+    /** First slot touched by [start, end) minutes since midnight (what an occupation blocks). */
+    public int firstTouched(int start) {
+        return Math.max(0, start) / minutes;
+    }
+
+    /** End (exclusive) of the slots touched by [start, end). */
+    public int endTouched(int end) {
+        return Math.min(slotsPerDay, (end + minutes - 1) / minutes);
+    }
+
+    /** First slot fully inside [start, end) (what a free range offers). */
+    public int firstInside(int start) {
+        return (Math.max(0, start) + minutes - 1) / minutes;
+    }
+
+    /** End (exclusive) of the slots fully inside [start, end). */
+    public int endInside(int end) {
+        return Math.min(slotsPerDay, end / minutes);
+    }
+
+    public int startMinute(int slot) {
+        return slot * minutes;
+    }
+
+    /** "HH:MM-HH:MM" label of a slot; the last slot of the day ends at 00:00. */
+    public String label(int slot) {
+        String[] l = labels;
+        if (l == null) {
+            l = new String[slotsPerDay];
+            for (int s = 0; s < slotsPerDay; s++) {
+                int start = s * minutes;
+                int end = (start + minutes) % MINUTES_PER_DAY;
+                l[s] = String.format("%02d:%02d-%02d:%02d", start / 60, start % 60, end / 60, end % 60);
+            }
+            labels = l;
+        }
+        return l[slot];
+    }
+}
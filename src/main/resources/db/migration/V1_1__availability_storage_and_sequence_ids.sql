@@ -0,0 +1,36 @@
+-- Availability stored as bitmask and occupancy counts, the per-date calendar, the rebuild job
+-- checkpoints and the pooled id sequences (allocationSize 50, so inserts can be batched).
+-- Everything is "if not exists": databases that ddl-auto=update already changed are baselined at
+-- V1 and still run this. The IDENTITY columns stay; Hibernate now supplies the ids itself.
+-- users.available_hours is no longer mapped and is left in place.
+
+alter table users add column if not exists availability_mask bytea;
+alter table users add column if not exists occupancy_counts bytea;
+
+create table if not exists calendar_days (
+    id bigint not null,
+    user_id bigint not null,
+    calendar_date date not null,
+    occupancy bytea not null,
+    free_bits bytea not null,
+    primary key (id),
+    constraint uk_calendar_days_user_day unique (user_id, calendar_date)
+);
+
+create table if not exists job_checkpoints (
+    name varchar(64) not null,
+    last_id bigint not null,
+    processed bigint not null,
+    status varchar(20) not null,
+    updated_at timestamp(6) not null,
+    primary key (name)
+);
+
+-- Tables that already hold rows get their sequence moved past MAX(id) on PostgreSQL
+-- (db/vendor/postgresql/V1_2); H2 databases are always created empty
+create sequence if not exists users_seq start with 1 increment by 50;
+create sequence if not exists classes_seq start with 1 increment by 50;
+create sequence if not exists activities_seq start with 1 increment by 50;
+create sequence if not exists tasks_seq start with 1 increment by 50;
+create sequence if not exists surveys_seq start with 1 increment by 50;
+create sequence if not exists calendar_days_seq start with 1 increment by 50;
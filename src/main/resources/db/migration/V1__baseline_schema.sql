@@ -0,0 +1,79 @@
+-- Schema as Hibernate (ddl-auto=update) created it before the migrations existed: IDENTITY ids
+-- and the JSON available_hours column. Databases created that way are baselined at this version
+-- (spring.flyway.baseline-on-migrate) instead of running it; new databases start here. Later
+-- changes go in V1_1 and up and must also apply to baselined databases.
+
+create table users (
+    id bigint generated by default as identity,
+    username varchar(50) not null unique,
+    email varchar(255) not null unique,
+    password varchar(255) not null,
+    type varchar(20),
+    available_hours text,
+    registration_date timestamp(6),
+    primary key (id)
+);
+
+create table classes (
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    title varchar(200) not null,
+    days varchar(255),
+    start_times varchar(255),
+    end_times varchar(255),
+    start_date date,
+    end_date date,
+    professor varchar(255),
+    room varchar(255),
+    color varchar(7),
+    primary key (id)
+);
+
+create table activities (
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    title varchar(200) not null,
+    days varchar(255),
+    start_times varchar(255),
+    end_times varchar(255),
+    start_date date,
+    end_date date,
+    description text,
+    color varchar(7),
+    primary key (id)
+);
+
+create table tasks (
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    title varchar(200) not null,
+    class_id bigint,
+    due_date date,
+    due_time time(6),
+    parent_id bigint,
+    segment_index integer,
+    total_segments integer,
+    working_date date,
+    start_time time(6),
+    end_time time(6),
+    priority varchar(50),
+    estimated_time integer,
+    description text,
+    type varchar(50),
+    state varchar(255),
+    primary key (id)
+);
+
+create table surveys (
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    answer integer not null,
+    date date,
+    primary key (id)
+);
+
+-- Same constraint names Hibernate generated, so baselined and new databases match
+alter table classes add constraint FKr4g4x4emo8ermns7r9x4gkijh foreign key (user_id) references users;
+alter table activities add constraint FKq6cjukylkgxdjkm9npk9va2f2 foreign key (user_id) references users;
+alter table tasks add constraint FK6s1ob9k4ihi75xbxe2w0ylsdh foreign key (user_id) references users;
+alter table surveys add constraint FKiydpdbdg90l5bl365gt67qgrn foreign key (user_id) references users;
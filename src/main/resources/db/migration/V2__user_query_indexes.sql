@@ -0,0 +1,38 @@
+-- Indexes for the per-user queries. The lists are KeysetPager pages filtered with Specs.ofUser
+-- plus at most a range on one column, ordered by (key, id) or just id, so each index is
+-- (user_id, column, id): the filter and the order are one index range, and the null keys that
+-- KeysetPager reads last are the "column is null" range of the same index. Every one leads with
+-- user_id, so each also serves findByUserId/countByUserId/deleteByUserId of its table (Postgres
+-- does not index foreign keys).
+
+-- TaskService: pages by due date (all, and Specs.greaterThan for the future ones) and the
+-- Specs.equal/between/lessThan/isNull("dueDate") lists by id
+create index if not exists idx_tasks_user_due_date on tasks (user_id, due_date, id);
+-- TaskService: pages by priority, Specs.equal("priority") by id, countByUserIdAndPriority
+create index if not exists idx_tasks_user_priority on tasks (user_id, priority, id);
+-- TaskService: Specs.equal("state") by id, countByUserIdAndState
+create index if not exists idx_tasks_user_state on tasks (user_id, state, id);
+-- TaskService: Specs.equal("classId") and Specs.isNull/isNotNull("classId") by id
+create index if not exists idx_tasks_user_class on tasks (user_id, class_id, id);
+-- UserRepository.findScheduleByUserId: the scheduled tasks (working_date is not null) of a user
+create index if not exists idx_tasks_user_working_date on tasks (user_id, working_date, start_time);
+-- findByUserIdAndTitle, existsByUserIdAndTitle. Not unique: titles are only checked on update,
+-- so existing data may hold duplicates
+create index if not exists idx_tasks_user_title on tasks (user_id, title);
+
+-- ClassService: pages by start date (all, and Specs.greaterThan for the upcoming ones), and the
+-- Specs.between/atMost("startDate") lists by id
+create index if not exists idx_classes_user_dates on classes (user_id, start_date, id);
+-- ClassService: past classes, Specs.lessThan("endDate") in pages by end date descending
+create index if not exists idx_classes_user_end_date on classes (user_id, end_date desc, id);
+-- ClassService: pages by title, findByUserIdAndTitle, existsByUserIdAndTitle
+create index if not exists idx_classes_user_title on classes (user_id, title, id);
+
+-- ActivityService: pages by start date, Specs.atMost("startDate") lists by id,
+-- countActiveActivitiesByUser and findOverlappingActivities (start_date <= :date)
+create index if not exists idx_activities_user_dates on activities (user_id, start_date, id);
+-- ActivityService: past activities, Specs.lessThan("endDate") in pages by end date descending
+create index if not exists idx_activities_user_end_date on activities (user_id, end_date desc, id);
+
+-- SurveyService: a user's surveys by id
+create index if not exists idx_surveys_user on surveys (user_id, id);
@@ -0,0 +1,46 @@
+package com.planiarback.planiar.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.metadata.DataSourcePoolMetadataProvider;
+import org.springframework.boot.jdbc.metadata.HikariDataSourcePoolMetadata;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * With virtual threads on, the pool is wrapped by the JDBC concurrency limiter; Boot must still
+ * see the Hikari pool behind it for its metrics and pool metadata.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:virtual;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.threads.virtual.enabled=true"
+})
+class VirtualThreadConfigTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private DataSourcePoolMetadataProvider metadataProvider;
+
+    @Test
+    void limiterStillExposesHikariPool() throws Exception {
+        assertInstanceOf(VirtualThreadConfig.ConcurrencyLimitedDataSource.class, dataSource);
+        assertTrue(dataSource.isWrapperFor(HikariDataSource.class));
+        assertInstanceOf(HikariDataSourcePoolMetadata.class, metadataProvider.getDataSourcePoolMetadata(dataSource));
+        assertFalse(registry.find("hikaricp.connections").gauges().isEmpty());
+    }
+}
@@ -0,0 +1,162 @@
+package com.planiarback.planiar.repository;
+
+import com.planiarback.planiar.model.Task;
+import com.planiarback.planiar.model.User;
+import com.planiarback.planiar.repository.KeysetPager.Cursor;
+import com.planiarback.planiar.repository.KeysetPager.SortKey;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Cursor encoding and the "after" condition of keyset pages: walking every page must return each
+ * row exactly once, in (key, id) order with null keys last, for ascending and descending keys.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:keyset;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver"
+})
+class KeysetPagerTest {
+
+    private static final LocalDate D1 = LocalDate.of(2026, 1, 10);
+    private static final LocalDate D2 = LocalDate.of(2026, 2, 20);
+    private static final LocalDate D3 = LocalDate.of(2026, 3, 30);
+
+    @Autowired
+    private KeysetPager pager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private User user;
+    private List<Task> tasks;
+
+    @BeforeEach
+    void setUp() {
+        User u = new User();
+        u.setUsername("keyset" + System.nanoTime());
+        u.setEmail(u.getUsername() + "@example.com");
+        u.setPassword("secret123");
+        user = userRepository.save(u);
+        // Repeated and null keys, titles containing ':'
+        tasks = taskRepository.saveAll(List.of(
+                task("x:1:a", D1), task("x:1", null), task("x:10", D2), task("y", D1),
+                task("x:1", null), task("x:2", D3), task("y:0", D2)));
+    }
+
+    @Test
+    void cursorKeepsValuesContainingColons() {
+        SortKey byTitle = SortKey.asc("title");
+        Cursor cursor = KeysetPager.decode(KeysetPager.encode(byTitle, 42L, "x:1:a"), byTitle, String.class);
+        assertEquals(42L, cursor.id());
+        assertEquals("x:1:a", cursor.value());
+
+        SortKey byStart = SortKey.asc("startTime");
+        assertEquals(LocalTime.of(10, 30),
+                KeysetPager.decode(KeysetPager.encode(byStart, 1L, LocalTime.of(10, 30)), byStart, LocalTime.class).value());
+    }
+
+    @Test
+    void cursorOfNullKeyHasNoValue() {
+        SortKey byDue = SortKey.asc("dueDate");
+        Cursor cursor = KeysetPager.decode(KeysetPager.encode(byDue, 7L, null), byDue, LocalDate.class);
+        assertEquals(7L, cursor.id());
+        assertNull(cursor.value());
+    }
+
+    @Test
+    void cursorOnlyValidForItsSortKey() {
+        String ascending = KeysetPager.encode(SortKey.asc("dueDate"), 3L, D1);
+        assertEquals(D1, KeysetPager.decode(ascending, SortKey.asc("dueDate"), LocalDate.class).value());
+        assertThrows(IllegalArgumentException.class,
+                () -> KeysetPager.decode(ascending, SortKey.desc("dueDate"), LocalDate.class));
+        assertThrows(IllegalArgumentException.class,
+                () -> KeysetPager.decode(ascending, SortKey.asc("title"), String.class));
+        String descending = KeysetPager.encode(SortKey.desc("dueDate"), 3L, D1);
+        assertEquals(D1, KeysetPager.decode(descending, SortKey.desc("dueDate"), LocalDate.class).value());
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        SortKey byDue = SortKey.asc("dueDate");
+        for (String bad : List.of("%%%", base64("dueDate"), base64("dueDate:x"), base64("dueDate:1:not-a-date"))) {
+            assertThrows(IllegalArgumentException.class, () -> KeysetPager.decode(bad, byDue, LocalDate.class), bad);
+        }
+    }
+
+    @Test
+    void pagesWalkNullKeysLast() {
+        for (int limit = 1; limit <= 4; limit++) {
+            assertEquals(expected(Task::getDueDate, false), walk(SortKey.asc("dueDate"), limit), "limit " + limit);
+            assertEquals(expected(Task::getDueDate, true), walk(SortKey.desc("dueDate"), limit), "limit " + limit);
+        }
+    }
+
+    @Test
+    void pagesWalkKeysContainingColons() {
+        for (int limit = 1; limit <= 4; limit++) {
+            assertEquals(expected(Task::getTitle, false), walk(SortKey.asc("title"), limit), "limit " + limit);
+            assertEquals(expected(Task::getTitle, true), walk(SortKey.desc("title"), limit), "limit " + limit);
+            assertEquals(expected(Task::getId, false), walk(SortKey.BY_ID, limit), "limit " + limit);
+        }
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        KeysetPage<Task> page = pager.find(Task.class, SortKey.BY_ID, null, tasks.size(), Specs.ofUser(user.getId()));
+        assertEquals(tasks.size(), page.items().size());
+        assertNull(page.nextCursor());
+        assertThrows(IllegalArgumentException.class, () -> pager.find(Task.class, SortKey.BY_ID, null, 0));
+    }
+
+    // Ids of every page from the first until nextCursor is null
+    private List<Long> walk(SortKey sort, int limit) {
+        List<Long> ids = new ArrayList<>();
+        String after = null;
+        do {
+            KeysetPage<Task> page = pager.find(Task.class, sort, after, limit, Specs.ofUser(user.getId()));
+            page.items().forEach(t -> ids.add(t.getId()));
+            after = page.nextCursor();
+        } while (after != null);
+        return ids;
+    }
+
+    private <K extends Comparable<? super K>> List<Long> expected(Function<Task, K> key, boolean descending) {
+        Comparator<K> values = descending ? Comparator.reverseOrder() : Comparator.naturalOrder();
+        return tasks.stream()
+                .sorted(Comparator.comparing(key, Comparator.nullsLast(values)).thenComparing(Task::getId))
+                .map(Task::getId)
+                .toList();
+    }
+
+    private Task task(String title, LocalDate dueDate) {
+        Task t = new Task();
+        t.setTitle(title);
+        t.setDueDate(dueDate);
+        t.setUser(user);
+        return t;
+    }
+
+    private static String base64(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
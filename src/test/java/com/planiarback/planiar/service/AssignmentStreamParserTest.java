@@ -0,0 +1,44 @@
+package com.planiarback.planiar.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AssignmentStreamParserTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void emitsElementsAcrossFragmentBoundaries() throws Exception {
+        List<JsonNode> seen = new ArrayList<>();
+        AssignmentStreamParser parser = new AssignmentStreamParser(mapper, n -> { seen.add(n); return true; });
+
+        assertTrue(parser.feed("```json\n[{\"id\": 1, \"workingDate\": \"2025-01-0"));
+        assertEquals(0, seen.size());
+        assertTrue(parser.feed("2\", \"startTime\": \"10:00\"}, {\"id\": 2, \"meta\": {\"a\": [1"));
+        assertEquals(1, seen.size());
+        assertFalse(parser.feed("]}}]\n```"));
+
+        assertEquals(2, seen.size());
+        assertEquals("2025-01-02", seen.get(0).get("workingDate").asText());
+        assertEquals(1, seen.get(1).get("meta").get("a").get(0).asInt());
+        assertTrue(parser.sawArray());
+    }
+
+    @Test
+    void stopsWhenCallbackDeclines() throws Exception {
+        List<JsonNode> seen = new ArrayList<>();
+        AssignmentStreamParser parser = new AssignmentStreamParser(mapper, n -> { seen.add(n); return false; });
+
+        assertFalse(parser.feed("[{\"id\": 1}, {\"id\": 2}"));
+        assertFalse(parser.feed(", {\"id\": 3}]"));
+        assertEquals(1, seen.size());
+    }
+}
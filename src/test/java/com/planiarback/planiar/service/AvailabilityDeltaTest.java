@@ -0,0 +1,146 @@
+package com.planiarback.planiar.service;
+
+import com.planiarback.planiar.model.Activity;
+import com.planiarback.planiar.model.Class;
+import com.planiarback.planiar.model.User;
+import com.planiarback.planiar.repository.ActivityRepository;
+import com.planiarback.planiar.repository.ClassRepository;
+import com.planiarback.planiar.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Delta availability updates lock the user row with a native SELECT ... FOR UPDATE. Creating and
+ * deleting a class or activity must update the stored availability without touching the user's
+ * collections (a locked EntityManager.refresh cascaded into them and broke the deletes). Changes
+ * queued for a full recalculation must not be read back stale before the queue runs.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:delta;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver"
+})
+class AvailabilityDeltaTest {
+
+    // Monday 10:00-11:00
+    private static final String MONDAY = "0,1,0,0,0,0,0";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ClassService classService;
+
+    @Autowired
+    private ActivityService activityService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ClassRepository classRepository;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        User u = new User();
+        u.setUsername("delta" + System.nanoTime());
+        u.setEmail(u.getUsername() + "@example.com");
+        u.setPassword("secret123");
+        user = userService.createUser(u);
+        // Stored counts, so the changes below take the delta path
+        new TransactionTemplate(txManager).executeWithoutResult(s ->
+                userService.recalculateAvailableHours(userRepository.findById(user.getId()).orElseThrow()));
+    }
+
+    @Test
+    void classDeleteRestoresAvailability() {
+        Class c = new Class();
+        c.setTitle("Algebra");
+        c.setDays(MONDAY);
+        c.setStartTimes("10:00");
+        c.setEndTimes("11:00");
+        c.setStartDate(LocalDate.now());
+        c.setEndDate(LocalDate.now().plusMonths(3));
+        Class saved = classService.createClass(c, user.getId());
+        assertFalse(mondaySlots().contains("10:00-10:30"));
+
+        classService.deleteClass(saved.getId());
+
+        assertTrue(classRepository.findById(saved.getId()).isEmpty());
+        assertTrue(mondaySlots().contains("10:00-10:30"));
+    }
+
+    @Test
+    void activityDeleteRestoresAvailability() {
+        Activity a = new Activity();
+        a.setTitle("Gym");
+        a.setDays(MONDAY);
+        a.setStartTimes("10:00");
+        a.setEndTimes("11:00");
+        a.setStartDate(LocalDate.now());
+        a.setEndDate(LocalDate.now().plusMonths(3));
+        Activity saved = activityService.createActivity(a, user.getId());
+        assertFalse(mondaySlots().contains("10:30-11:00"));
+
+        activityService.deleteActivity(saved.getId());
+
+        assertTrue(activityRepository.findById(saved.getId()).isEmpty());
+        assertTrue(mondaySlots().contains("10:30-11:00"));
+    }
+
+    @Test
+    void newUserLogsInWithAvailability() {
+        User u = new User();
+        u.setUsername("fresh" + System.nanoTime());
+        u.setEmail(u.getUsername() + "@example.com");
+        u.setPassword("secret123");
+        userService.createUser(u);
+
+        User logged = userService.login(u.getUsername(), "secret123").orElseThrow();
+        assertEquals(48, logged.getAvailableHours().get("MON").size());
+    }
+
+    @Test
+    void bulkDeleteIsNotReadBackStale() {
+        Class c = new Class();
+        c.setTitle("Physics");
+        c.setDays(MONDAY);
+        c.setStartTimes("10:00");
+        c.setEndTimes("11:00");
+        c.setStartDate(LocalDate.now());
+        c.setEndDate(LocalDate.now().plusMonths(3));
+        classService.createClass(c, user.getId());
+        assertFalse(mondaySlots().contains("10:00-10:30"));
+
+        classService.deleteAllUserClasses(user.getId());
+
+        // Read right away, whether or not the queued recalculation has run
+        assertTrue(mondaySlots().contains("10:00-10:30"));
+        User logged = userService.login(user.getUsername(), "secret123").orElseThrow();
+        assertTrue(logged.getAvailableHours().get("MON").contains("10:00-10:30"));
+    }
+
+    private List<String> mondaySlots() {
+        return userService.getAvailability(user.getId(), "slots").orElseThrow().get("MON");
+    }
+}
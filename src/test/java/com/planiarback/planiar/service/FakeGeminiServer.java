@@ -0,0 +1,218 @@
+package com.planiarback.planiar.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * In-process stand-in for the Gemini REST API, for load tests of the planning path without network
+ * or cost. Answers generateContent and streamGenerateContent (SSE) with valid
+ * assignment JSON for the task rows found in the prompt. Latency follows a log-normal distribution
+ * around a median; configurable fractions of calls fail with 500, are throttled with 429 +
+ * Retry-After, or return truncated JSON. Randomness is seeded, so runs are reproducible.
+ */
+public class FakeGeminiServer implements AutoCloseable {
+
+    private static final String TASK_ROWS_HEADER = "tasks [id,title,dueDate,dueTime,minutes,priority]:\n";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private volatile long medianLatencyMs = 0;
+    private volatile double latencySigma = 0;
+    private volatile double errorRate = 0;
+    private volatile double rateLimitRate = 0;
+    private volatile double malformedRate = 0;
+    private volatile int retryAfterSeconds = 1;
+    private Random random = new Random(42);
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger errors = new AtomicInteger();
+    private final AtomicInteger rateLimited = new AtomicInteger();
+    private final AtomicInteger malformed = new AtomicInteger();
+    private final AtomicLong inputBytes = new AtomicLong();
+
+    public FakeGeminiServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    /** Base URL to use as gemini.endpoint. */
+    public String endpoint() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /** Log-normal latency: half of the calls are faster than medianMs; sigma widens the tail (0 = fixed). */
+    public FakeGeminiServer latency(long medianMs, double sigma) {
+        this.medianLatencyMs = medianMs;
+        this.latencySigma = sigma;
+        return this;
+    }
+
+    public FakeGeminiServer errorRate(double rate) {
+        this.errorRate = rate;
+        return this;
+    }
+
+    public FakeGeminiServer rateLimitRate(double rate, int retryAfterSeconds) {
+        this.rateLimitRate = rate;
+        this.retryAfterSeconds = retryAfterSeconds;
+        return this;
+    }
+
+    public FakeGeminiServer malformedRate(double rate) {
+        this.malformedRate = rate;
+        return this;
+    }
+
+    public synchronized FakeGeminiServer seed(long seed) {
+        this.random = new Random(seed);
+        return this;
+    }
+
+    public int requests() { return requests.get(); }
+    public int errors() { return errors.get(); }
+    public int rateLimited() { return rateLimited.get(); }
+    public int malformed() { return malformed.get(); }
+    public long inputBytes() { return inputBytes.get(); }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange ex) throws IOException {
+        try (ex) {
+            String path = ex.getRequestURI().getPath();
+            byte[] body = readBody(ex);
+            boolean stream = path.endsWith(":streamGenerateContent");
+            if (!stream && !path.endsWith(":generateContent")) {
+                send(ex, 404, "text/plain", "unknown method " + path);
+                return;
+            }
+
+            requests.incrementAndGet();
+            inputBytes.addAndGet(body.length);
+            double roll;
+            long latency;
+            synchronized (this) {
+                roll = random.nextDouble();
+                latency = latencySigma > 0
+                        ? Math.round(medianLatencyMs * Math.exp(latencySigma * random.nextGaussian()))
+                        : medianLatencyMs;
+            }
+            if (latency > 0) Thread.sleep(latency);
+
+            if (roll < rateLimitRate) {
+                rateLimited.incrementAndGet();
+                ex.getResponseHeaders().set("Retry-After", String.valueOf(retryAfterSeconds));
+                send(ex, 429, "application/json", "{\"error\":{\"code\":429,\"status\":\"RESOURCE_EXHAUSTED\"}}");
+                return;
+            }
+            if (roll < rateLimitRate + errorRate) {
+                errors.incrementAndGet();
+                send(ex, 500, "application/json", "{\"error\":{\"code\":500,\"status\":\"INTERNAL\"}}");
+                return;
+            }
+
+            String text = assignmentsFor(promptText(body));
+            if (roll < rateLimitRate + errorRate + malformedRate) {
+                malformed.incrementAndGet();
+                text = text.substring(0, Math.max(1, text.length() / 2));
+            }
+            if (stream) {
+                StringBuilder sse = new StringBuilder();
+                int step = Math.max(1, text.length() / 4);
+                for (int i = 0; i < text.length(); i += step) {
+                    sse.append("data: ").append(responseJson(text.substring(i, Math.min(text.length(), i + step)))).append("\r\n\r\n");
+                }
+                send(ex, 200, "text/event-stream", sse.toString());
+            } else {
+                send(ex, 200, "application/json", responseJson(text));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private byte[] readBody(HttpExchange ex) throws IOException {
+        boolean gzipped = "gzip".equalsIgnoreCase(ex.getRequestHeaders().getFirst("Content-Encoding"));
+        try (InputStream in = gzipped ? new GZIPInputStream(ex.getRequestBody()) : ex.getRequestBody()) {
+            return in.readAllBytes();
+        }
+    }
+
+    private String promptText(byte[] body) throws IOException {
+        JsonNode parts = mapper.readTree(body).path("contents").path(0).path("parts");
+        StringBuilder sb = new StringBuilder();
+        for (JsonNode p : parts) sb.append(p.path("text").asText(""));
+        return sb.toString();
+    }
+
+    // One assignment per task row: the weekday before the due date, 18:00 onwards
+    private String assignmentsFor(String prompt) throws IOException {
+        ArrayNode out = mapper.createArrayNode();
+        int at = prompt.indexOf(TASK_ROWS_HEADER);
+        if (at >= 0) {
+            int start = at + TASK_ROWS_HEADER.length();
+            int end = prompt.indexOf('\n', start);
+            JsonNode rows = mapper.readTree(end > 0 ? prompt.substring(start, end) : prompt.substring(start));
+            for (JsonNode row : rows) {
+                ObjectNode a = out.addObject();
+                if (row.path(0).isNumber()) a.put("id", row.get(0).asLong()); else a.putNull("id");
+                a.put("title", row.path(1).asText());
+                int minutes = (int) Math.ceil(row.path(4).asInt() / 30.0) * 30;
+                LocalDate day = LocalDate.parse(row.path(2).asText()).minusDays(1);
+                while (day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY) day = day.minusDays(1);
+                if (minutes <= 0 || minutes > 5 * 60 || !day.isAfter(LocalDate.now())) {
+                    a.putNull("workingDate").putNull("startTime").putNull("endTime");
+                    continue;
+                }
+                LocalTime from = LocalTime.of(18, 0);
+                a.put("workingDate", day.toString());
+                a.put("startTime", from.toString());
+                a.put("endTime", from.plusMinutes(minutes).toString());
+            }
+        }
+        return out.toString();
+    }
+
+    private String responseJson(String text) {
+        ObjectNode root = mapper.createObjectNode();
+        ObjectNode candidate = root.putArray("candidates").addObject();
+        candidate.putObject("content").put("role", "model").putArray("parts").addObject().put("text", text);
+        candidate.put("finishReason", "STOP");
+        return root.toString();
+    }
+
+    private static void send(HttpExchange ex, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", contentType);
+        ex.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
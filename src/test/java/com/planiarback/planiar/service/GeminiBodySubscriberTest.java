@@ -0,0 +1,64 @@
+package com.planiarback.planiar.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GeminiBodySubscriberTest {
+
+    // Highly compressible, so a few input bytes fill the 8 KB output buffer many times over
+    private static final byte[] BODY = "{\"text\":\"planiar\"},".repeat(5000).getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void inflatesWholeBodyWhateverTheChunking() throws IOException {
+        byte[] gzip = gzip(BODY);
+        for (int chunk : new int[]{1, 3, 64, 4096, gzip.length}) {
+            GeminiBodySubscriber.Gunzip gunzip = new GeminiBodySubscriber.Gunzip();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            for (int i = 0; i < gzip.length; i += chunk) {
+                gunzip.feed(Arrays.copyOfRange(gzip, i, Math.min(gzip.length, i + chunk)), out::writeBytes);
+            }
+            gunzip.finish();
+            gunzip.close();
+            assertArrayEquals(BODY, out.toByteArray(), "chunk " + chunk);
+        }
+    }
+
+    @Test
+    void truncatedBodyIsRejected() throws IOException {
+        byte[] gzip = gzip(BODY);
+        for (int cut : new int[]{5, gzip.length / 2, gzip.length - 3}) {
+            GeminiBodySubscriber.Gunzip gunzip = new GeminiBodySubscriber.Gunzip();
+            gunzip.feed(Arrays.copyOf(gzip, cut), chunk -> { });
+            assertThrows(IOException.class, gunzip::finish, "cut at " + cut);
+            gunzip.close();
+        }
+    }
+
+    @Test
+    void trailerMismatchIsRejected() throws IOException {
+        for (int pos : new int[]{8, 4}) {
+            byte[] gzip = gzip(BODY);
+            gzip[gzip.length - pos] ^= 1; // CRC32, then ISIZE
+            GeminiBodySubscriber.Gunzip gunzip = new GeminiBodySubscriber.Gunzip();
+            gunzip.feed(gzip, chunk -> { });
+            assertThrows(IOException.class, gunzip::finish);
+            gunzip.close();
+        }
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(data);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,163 @@
+package com.planiarback.planiar.service;
+
+import com.planiarback.planiar.model.Task;
+import com.planiarback.planiar.model.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Load test of createTask -> AIPlannerService -> GeminiClient against {@link FakeGeminiServer}.
+ * Excluded from the default build; run with `mvn test -Ploadtest` and tune the knobs in
+ * application-loadtest.properties (or the matching LOADTEST_* environment variables).
+ * Every user gets one task the local heuristic cannot place, so each createTask reaches Gemini.
+ */
+@Tag("loadtest")
+@ActiveProfiles("loadtest")
+@SpringBootTest
+class GeminiLoadTest {
+    private static final Logger logger = LoggerFactory.getLogger(GeminiLoadTest.class);
+
+    private static final FakeGeminiServer fake;
+
+    static {
+        try {
+            fake = new FakeGeminiServer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void geminiEndpoint(DynamicPropertyRegistry registry) {
+        registry.add("gemini.endpoint", fake::endpoint);
+    }
+
+    @AfterAll
+    static void stopFake() {
+        fake.close();
+    }
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${loadtest.users}") private int users;
+    @Value("${loadtest.tasksPerUser}") private int tasksPerUser;
+    @Value("${loadtest.concurrency}") private int concurrency;
+    @Value("${loadtest.fake.seed}") private long seed;
+    @Value("${loadtest.fake.latencyMedianMs}") private long latencyMedianMs;
+    @Value("${loadtest.fake.latencySigma}") private double latencySigma;
+    @Value("${loadtest.fake.errorRate}") private double errorRate;
+    @Value("${loadtest.fake.rateLimitRate}") private double rateLimitRate;
+    @Value("${loadtest.fake.malformedRate}") private double malformedRate;
+
+    @Test
+    void createTaskUnderLoad() throws Exception {
+        fake.seed(seed)
+                .latency(latencyMedianMs, latencySigma)
+                .errorRate(errorRate)
+                .rateLimitRate(rateLimitRate, 1)
+                .malformedRate(malformedRate);
+
+        List<Long> userIds = new ArrayList<>();
+        for (int u = 0; u < users; u++) {
+            User user = new User();
+            user.setUsername("load" + u);
+            user.setEmail("load" + u + "@example.com");
+            user.setPassword("secret123");
+            Long id = userService.createUser(user).getId();
+            userIds.add(id);
+            // Due tomorrow morning and longer than any free block: always left for Gemini
+            taskService.createTask(task("anchor " + u, LocalDate.now().plusDays(1), 1500), id);
+        }
+        int warmupRequests = fake.requests();
+
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        List<Future<Task>> results = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        long started = System.nanoTime();
+        try {
+            for (int i = 0; i < tasksPerUser; i++) {
+                for (Long userId : userIds) {
+                    Task t = task("load task " + i, LocalDate.now().plusDays(3 + i % 10), 30 + 30 * (i % 4));
+                    results.add(pool.submit(() -> {
+                        long t0 = System.nanoTime();
+                        Task saved = taskService.createTask(t, userId);
+                        latencies.add((System.nanoTime() - t0) / 1_000_000);
+                        return saved;
+                    }));
+                }
+            }
+            for (Future<Task> f : results) assertNotNull(f.get().getId());
+        } finally {
+            pool.shutdown();
+        }
+        long wallMs = (System.nanoTime() - started) / 1_000_000;
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        assertEquals(users * tasksPerUser, sorted.size());
+        logger.info("Load test: {} createTask calls in {} ms ({} users, concurrency {})",
+                sorted.size(), wallMs, users, concurrency);
+        logger.info("Load test latency ms: p50={} p95={} p99={} max={}",
+                percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99), sorted.get(sorted.size() - 1));
+        logger.info("Fake Gemini: {} requests ({} during warm-up), {} errors, {} rate-limited, {} malformed, {} KiB prompt input",
+                fake.requests(), warmupRequests, fake.errors(), fake.rateLimited(), fake.malformed(), fake.inputBytes() / 1024);
+        for (Timer timer : meterRegistry.find("gemini.requests").timers()) {
+            logger.info("gemini.requests {}: count={} mean={} ms max={} ms", timer.getId().getTags(), timer.count(),
+                    Math.round(timer.mean(TimeUnit.MILLISECONDS)),
+                    Math.round(timer.max(TimeUnit.MILLISECONDS)));
+        }
+        for (Counter counter : meterRegistry.find("ai.plan.fallback").counters()) {
+            logger.info("ai.plan.fallback {}: {}", counter.getId().getTag("reason"), (long) counter.count());
+        }
+    }
+
+    private static Task task(String title, LocalDate dueDate, int minutes) {
+        Task t = new Task();
+        t.setTitle(title);
+        t.setDueDate(dueDate);
+        t.setDueTime(LocalTime.of(9, 0));
+        t.setEstimatedTime(minutes);
+        t.setPriority("Medium");
+        t.setType("Homework");
+        t.setState("Pending");
+        return t;
+    }
+
+    private static long percentile(List<Long> sorted, double p) {
+        return sorted.get((int) Math.ceil(p * sorted.size()) - 1);
+    }
+}
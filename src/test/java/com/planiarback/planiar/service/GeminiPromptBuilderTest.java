@@ -0,0 +1,61 @@
+package com.planiarback.planiar.service;
+
+import com.planiarback.planiar.model.Task;
+import com.planiarback.planiar.util.AvailabilityCalendar;
+import com.planiarback.planiar.util.AvailabilityMask;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeminiPromptBuilderTest {
+
+    @Test
+    void datesDifferingFromTheirWeekdayAreSent() {
+        Map<String, List<String>> hours = new HashMap<>();
+        for (String day : List.of("MON", "TUE", "WED", "THU", "FRI")) hours.put(day, List.of("08:00-12:00"));
+        AvailabilityMask weekly = AvailabilityMask.fromAvailableHours(hours);
+
+        LocalDate today = LocalDate.now();
+        LocalDate blocked = nextWeekday(today);
+        LocalDate normal = nextWeekday(blocked);
+        LocalDate due = today.plusDays(14);
+
+        // Dated window from tomorrow: the template everywhere except a fully busy first weekday
+        LocalDate from = today.plusDays(1);
+        int days = (int) ChronoUnit.DAYS.between(from, due) + 1;
+        int wordsPerDay = weekly.granularity().wordsPerDay();
+        long[] words = new long[days * wordsPerDay];
+        for (int i = 0; i < days; i++) {
+            LocalDate d = from.plusDays(i);
+            if (!d.equals(blocked)) weekly.copyDay(d.getDayOfWeek().getValue() % 7, words, i * wordsPerDay);
+        }
+        AvailabilityCalendar calendar = new AvailabilityCalendar(from, weekly.granularity(), words, weekly);
+
+        Task task = new Task();
+        task.setId(1L);
+        task.setTitle("Essay");
+        task.setDueDate(due);
+        task.setEstimatedTime(60);
+
+        String prompt = new GeminiPromptBuilder().build(List.of(task), hours, calendar);
+        assertTrue(prompt.contains("MON: 08:00-12:00\n"), prompt);
+        assertTrue(prompt.contains("\n" + blocked + ": -\n"), prompt);
+        assertFalse(prompt.contains("\n" + normal + ":"), prompt);
+    }
+
+    private static LocalDate nextWeekday(LocalDate d) {
+        LocalDate next = d.plusDays(1);
+        while (next.getDayOfWeek() == DayOfWeek.SATURDAY || next.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            next = next.plusDays(1);
+        }
+        return next;
+    }
+}
@@ -0,0 +1,124 @@
+package com.planiarback.planiar.service;
+
+import com.planiarback.planiar.model.Task;
+import com.planiarback.planiar.model.User;
+import com.planiarback.planiar.repository.TaskRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Counts the JDBC statements of bulk writes: with sequence ids and insert/update batching, 100
+ * tasks go out in a handful of statements instead of one per task.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:batching;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=validate", // schema from the Flyway migrations
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class TaskBatchingTest {
+
+    private static final int TASKS = 100;
+    // 2 insert/update batches of 50 plus the sequence calls, with room to spare
+    private static final long MAX_STATEMENTS = 10;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        User u = new User();
+        u.setUsername("batch" + System.nanoTime());
+        u.setEmail(u.getUsername() + "@example.com");
+        u.setPassword("secret123");
+        user = userService.createUser(u);
+    }
+
+    @Test
+    void plannedTasksAreInsertedInBatches() {
+        statistics.clear();
+        taskService.applyPlannedTasksTransactional(tasks("new"), user, null);
+
+        assertEquals(TASKS, taskRepository.findByUserId(user.getId()).size());
+        long statements = statistics.getPrepareStatementCount() - 1; // minus the findByUserId above
+        assertTrue(statements <= MAX_STATEMENTS, "Expected batched inserts, got " + statements + " statements");
+    }
+
+    @Test
+    void replannedTasksAreUpdatedInBatches() {
+        taskService.applyPlannedTasksTransactional(tasks("same"), user, null);
+        List<Task> replanned = tasks("same");
+        replanned.forEach(t -> t.setWorkingDate(t.getWorkingDate().plusDays(1)));
+
+        statistics.clear();
+        taskService.applyPlannedTasksTransactional(replanned, user, null);
+
+        assertEquals(TASKS, statistics.getEntityUpdateCount());
+        assertTrue(statistics.getPrepareStatementCount() <= MAX_STATEMENTS,
+                "Expected batched updates, got " + statistics.getPrepareStatementCount() + " statements");
+    }
+
+    @Test
+    void saveAllInsertsInBatches() {
+        List<Task> tasks = tasks("saveAll");
+        tasks.forEach(t -> t.setUser(user));
+
+        statistics.clear();
+        new TransactionTemplate(txManager).executeWithoutResult(s -> taskRepository.saveAll(tasks));
+
+        assertEquals(TASKS, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() <= MAX_STATEMENTS,
+                "Expected batched inserts, got " + statistics.getPrepareStatementCount() + " statements");
+    }
+
+    private static List<Task> tasks(String prefix) {
+        List<Task> out = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            Task t = new Task();
+            t.setTitle(prefix + " " + i);
+            t.setDueDate(LocalDate.now().plusDays(7));
+            t.setWorkingDate(LocalDate.now().plusDays(1 + i % 5));
+            t.setStartTime(LocalTime.of(8 + i % 10, 0));
+            t.setEndTime(LocalTime.of(9 + i % 10, 0));
+            t.setEstimatedTime(60);
+            t.setPriority("Medium");
+            t.setType("Homework");
+            t.setState("Pending");
+            out.add(t);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,73 @@
+package com.planiarback.planiar.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AvailabilityMaskTest {
+
+    @Test
+    void bytesRoundTripAtEveryGranularity() {
+        Map<String, List<String>> hours = Map.of(
+                "SUN", List.of("00:00-01:00"),
+                "WED", List.of("09:00-12:00", "22:00-24:00"),
+                "SAT", List.of("23:00-00:00"));
+        for (SlotGranularity g : SlotGranularity.values()) {
+            AvailabilityMask mask = AvailabilityMask.fromAvailableHours(hours, g);
+            byte[] bytes = mask.toBytes();
+            assertEquals(7 * g.slotsPerDay() / 8, bytes.length, g.name());
+            assertEquals(mask, AvailabilityMask.fromBytes(bytes), g.name());
+        }
+        assertNull(AvailabilityMask.fromBytes(new byte[41]));
+    }
+
+    @Test
+    void rangesEndingAtMidnightKeepTheLastSlot() {
+        AvailabilityMask mask = AvailabilityMask.fromAvailableHours(Map.of(
+                "MON", List.of("22:00-24:00"),
+                "SAT", List.of("23:30-00:00")));
+        assertTrue(mask.isFree(1, 47));
+        assertTrue(mask.isFree(6, 47));
+        assertFalse(mask.isFree(6, 46));
+        assertEquals(List.of("22:00-24:00"), mask.toRanges().get("MON"));
+        assertEquals(List.of("23:30-00:00"), mask.toAvailableHours().get("SAT"));
+    }
+
+    @Test
+    void fiveMinuteDaysSpanSeveralWords() {
+        AvailabilityMask mask = AvailabilityMask.fromAvailableHours(Map.of(
+                "TUE", List.of("05:15-06:40", "20:00-24:00")), SlotGranularity.FIVE);
+        assertEquals(List.of("05:15-06:40", "20:00-24:00"), mask.toRanges().get("TUE"));
+        assertEquals(17 + 48, mask.toAvailableHours().get("TUE").size());
+        assertEquals("23:55-00:00", mask.toAvailableHours().get("TUE").get(64));
+        assertFalse(mask.toRanges().containsKey("MON"));
+    }
+
+    @Test
+    void coarserGranularityKeepsOnlyFullyFreeSlots() {
+        AvailabilityMask fine = AvailabilityMask.fromAvailableHours(Map.of(
+                "FRI", List.of("10:30-12:00", "23:00-24:00")));
+        AvailabilityMask hourly = fine.withGranularity(SlotGranularity.SIXTY);
+        assertEquals(List.of("11:00-12:00", "23:00-24:00"), hourly.toRanges().get("FRI"));
+        assertEquals(fine.toRanges(), fine.withGranularity(SlotGranularity.FIVE).toRanges());
+        assertEquals(fine, fine.withGranularity(SlotGranularity.FIVE).withGranularity(SlotGranularity.THIRTY));
+    }
+
+    @Test
+    void parsesBothListFormats() {
+        AvailabilityMask slots = AvailabilityMask.fromAvailableHours(Map.of(
+                "THU", List.of("08:00-08:30", "08:30-09:00", "bad", "10:00-09:00")));
+        AvailabilityMask ranges = AvailabilityMask.fromAvailableHours(Map.of("THU", List.of("08:00-09:00")));
+        assertEquals(ranges, slots);
+        assertEquals(AvailabilityMask.ALL_FREE, AvailabilityMask.fromAvailableHours(
+                Map.of("SUN", List.of("00:00-24:00"), "MON", List.of("00:00-24:00"), "TUE", List.of("00:00-24:00"),
+                        "WED", List.of("00:00-24:00"), "THU", List.of("00:00-24:00"), "FRI", List.of("00:00-24:00"),
+                        "SAT", List.of("00:00-00:00"))));
+    }
+}
@@ -0,0 +1,59 @@
+package com.planiarback.planiar.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvReaderTest {
+
+    @Test
+    void quotedFieldsKeepCommasAndQuotes() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader(
+                "title,days,note\n\"Algebra\",\"0,1,1,0,1,0,0\",\"say \"\"hi\"\"\"\n"));
+        assertEquals(List.of("title", "days", "note"), csv.next());
+        assertEquals(List.of("Algebra", "0,1,1,0,1,0,0", "say \"hi\""), csv.next());
+        assertNull(csv.next());
+    }
+
+    @Test
+    void quotedFieldsMaySpanLines() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader(
+                "a,\"line one\nline two\r\nline three\",c\nnext,row,\"\"\n"));
+        assertEquals(List.of("a", "line one\nline two\r\nline three", "c"), csv.next());
+        assertEquals(1, csv.recordLine());
+        assertEquals(List.of("next", "row", ""), csv.next());
+        assertEquals(4, csv.recordLine());
+        assertNull(csv.next());
+    }
+
+    @Test
+    void crlfBlankLinesAndMissingFinalNewline() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("a,b\r\n\r\n\n,x,\r\nlast"));
+        assertEquals(List.of("a", "b"), csv.next());
+        assertEquals(List.of("", "x", ""), csv.next());
+        assertEquals(4, csv.recordLine());
+        assertEquals(List.of("last"), csv.next());
+        assertNull(csv.next());
+        assertNull(new CsvReader(new StringReader("")).next());
+    }
+
+    @Test
+    void quoteInsideUnquotedFieldIsLiteral() throws IOException {
+        assertEquals(List.of("5\" screen", "b"), new CsvReader(new StringReader("5\" screen,b")).next());
+    }
+
+    @Test
+    void unclosedQuoteIsRejected() {
+        CsvReader csv = new CsvReader(new StringReader("ok\n\"never closed,\nstill open"));
+        assertThrows(IllegalArgumentException.class, () -> {
+            csv.next();
+            csv.next();
+        });
+    }
+}
@@ -0,0 +1,29 @@
+package com.planiarback.planiar.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DayMinutesTest {
+
+    @Test
+    void midnightStartsOrEndsTheDay() {
+        assertEquals(0, DayMinutes.start(LocalTime.MIDNIGHT));
+        assertEquals(1440, DayMinutes.end(LocalTime.MIDNIGHT));
+        assertEquals(1440, DayMinutes.end("24:00"));
+        assertEquals(1440, DayMinutes.end("00:00"));
+        assertEquals(23 * 60 + 30, DayMinutes.end(LocalTime.of(23, 30)));
+    }
+
+    @Test
+    void rangesEndingAtMidnightKeepTheirLastSlot() {
+        assertArrayEquals(new int[]{1410, 1440}, AvailabilityMask.parseRange("23:30-00:00"));
+        assertArrayEquals(new int[]{600, 1440}, AvailabilityMask.parseRange("10:00-24:00"));
+        assertArrayEquals(new int[]{0, 1440}, AvailabilityMask.parseRange("00:00-24:00"));
+        assertNull(AvailabilityMask.parseRange("12:00-11:00"));
+    }
+}
@@ -0,0 +1,93 @@
+package com.planiarback.planiar.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OccupancyCountsTest {
+
+    private static final int DAY = SlotGranularity.MINUTES_PER_DAY;
+
+    // Weekly occupancy of {day, start, end} triples
+    private static Occupancy weekly(int... triples) {
+        int[] minutes = new int[triples.length / 3 * 2];
+        for (int i = 0, j = 0; i < triples.length; i += 3, j += 2) {
+            minutes[j] = triples[i] * DAY + triples[i + 1];
+            minutes[j + 1] = triples[i] * DAY + triples[i + 2];
+        }
+        return new Occupancy(LocalDate.of(2026, 1, 1), null, minutes);
+    }
+
+    @Test
+    void bytesRoundTripAtEveryGranularity() {
+        for (SlotGranularity g : SlotGranularity.values()) {
+            OccupancyCounts counts = new OccupancyCounts(g);
+            counts.add(weekly(0, 0, 60, 3, 600, 700, 6, 1380, DAY));
+            counts.add(weekly(3, 600, 610));
+            byte[] bytes = counts.toBytes();
+            assertEquals(7 * g.slotsPerDay() * 2, bytes.length, g.name());
+
+            OccupancyCounts back = OccupancyCounts.fromBytes(bytes);
+            assertEquals(g, back.granularity());
+            assertArrayEquals(bytes, back.toBytes(), g.name());
+            assertEquals(counts.toMask(), back.toMask(), g.name());
+        }
+        assertNull(OccupancyCounts.fromBytes(new byte[673]));
+    }
+
+    @Test
+    void overlapsAreCountedAndRemovedIndependently() {
+        OccupancyCounts counts = new OccupancyCounts(SlotGranularity.THIRTY);
+        Occupancy a = weekly(1, 600, 720);
+        Occupancy b = weekly(1, 660, 780);
+        counts.add(a);
+        counts.add(b);
+        counts.remove(a);
+
+        assertTrue(counts.isFree(1, 21));
+        assertFalse(counts.isFree(1, 22));
+        assertFalse(counts.isFree(1, 25));
+        assertTrue(counts.isFree(1, 26));
+        counts.remove(b);
+        counts.remove(b);
+        assertTrue(counts.isFree(1, 22), "counts never go below zero");
+    }
+
+    @Test
+    void midnightEndBlocksTheLastSlot() {
+        OccupancyCounts counts = new OccupancyCounts(SlotGranularity.THIRTY);
+        counts.add(weekly(6, 1410, DAY));
+        assertFalse(counts.isFree(6, 47));
+        assertTrue(counts.isFree(6, 46));
+        assertTrue(counts.isFree(0, 0), "nothing wraps into Sunday");
+    }
+
+    @Test
+    void fiveMinuteSlotsTouchedByPartialMinutes() {
+        OccupancyCounts counts = new OccupancyCounts(SlotGranularity.FIVE);
+        // 10:02-10:07 touches 10:00-10:05 and 10:05-10:10
+        counts.add(weekly(2, 602, 607));
+        assertTrue(counts.isFree(2, 119));
+        assertFalse(counts.isFree(2, 120));
+        assertFalse(counts.isFree(2, 121));
+        assertTrue(counts.isFree(2, 122));
+        // last word of a 5-minute day (slots 256..287)
+        counts.add(weekly(2, 1435, DAY));
+        assertFalse(counts.isFree(2, 287));
+        assertEquals(List.of("00:00-10:00", "10:10-23:55"), counts.toMask().toRanges().get("TUE"));
+    }
+
+    @Test
+    void fullyBusyWeekFallsBackToAllFree() {
+        OccupancyCounts counts = new OccupancyCounts(SlotGranularity.SIXTY);
+        for (int d = 0; d < 7; d++) counts.add(weekly(d, 0, DAY));
+        assertEquals(AvailabilityMask.allFree(SlotGranularity.SIXTY), counts.toMask());
+    }
+}
@@ -0,0 +1,82 @@
+package com.planiarback.planiar.util;
+
+import com.planiarback.planiar.model.Activity;
+import com.planiarback.planiar.model.Class;
+import com.planiarback.planiar.model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OccupancyTest {
+
+    private static final int DAY = SlotGranularity.MINUTES_PER_DAY;
+    // 2026-01-05 is a Monday
+    private static final LocalDate MONDAY = LocalDate.of(2026, 1, 5);
+
+    @Test
+    void classDaysUsePerDayTimesWithFallback() {
+        Class c = new Class();
+        c.setDays("0,1,0,1,0,0,0");
+        c.setStartTimes("08:00");
+        c.setEndTimes("09:30");
+        c.setStartDate(MONDAY);
+        c.setEndDate(MONDAY.plusDays(13));
+
+        Occupancy o = Occupancy.of(c);
+        assertArrayEquals(new int[]{DAY + 480, DAY + 570, 3 * DAY + 480, 3 * DAY + 570}, o.weeklyMinutes());
+        assertArrayEquals(new int[]{480, 570}, o.minutesOn(MONDAY));
+        assertArrayEquals(new int[0], o.minutesOn(MONDAY.plusDays(1)), "Tuesday");
+        assertArrayEquals(new int[0], o.minutesOn(MONDAY.plusDays(14)), "after the end date");
+        assertTrue(o.isActiveOn(MONDAY.plusDays(13)));
+    }
+
+    @Test
+    void midnightEndsCloseTheDay() {
+        Activity a = new Activity();
+        a.setDays("0,0,0,0,0,0,1");
+        a.setStartTimes("0,0,0,0,0,0,22:00");
+        a.setEndTimes("0,0,0,0,0,0,00:00");
+        assertArrayEquals(new int[]{6 * DAY + 1320, 7 * DAY}, Occupancy.of(a).weeklyMinutes());
+
+        Task t = new Task();
+        t.setWorkingDate(MONDAY);
+        t.setStartTime(LocalTime.of(23, 30));
+        t.setEndTime(LocalTime.MIDNIGHT);
+        Occupancy task = Occupancy.of(t);
+        assertArrayEquals(new int[]{1410, DAY}, task.minutesOn(MONDAY));
+        assertArrayEquals(new int[0], task.minutesOn(MONDAY.plusDays(7)), "a task is a single date");
+    }
+
+    @Test
+    void emptyAndInvalidTimesBlockNothing() {
+        assertSame(Occupancy.NONE, Occupancy.of((Class) null));
+        assertTrue(Occupancy.of(new Task()).isEmpty(), "unscheduled task");
+
+        Class c = new Class();
+        c.setDays("1,1,0,0,0,0,0");
+        c.setStartTimes("10:00,xx");
+        c.setEndTimes("09:00,11:00");
+        assertTrue(Occupancy.of(c).isEmpty(), "end before start and unparseable start");
+    }
+
+    @Test
+    void sameAsComparesDatesAndMinutes() {
+        Class c = new Class();
+        c.setDays("0,1,0,0,0,0,0");
+        c.setStartTimes("10:00");
+        c.setEndTimes("11:00");
+        c.setStartDate(MONDAY);
+        Occupancy before = Occupancy.of(c);
+        c.setEndDate(MONDAY.plusMonths(1));
+        Occupancy after = Occupancy.of(c);
+
+        assertFalse(before.sameAs(after));
+        assertTrue(before.sameWeeklyMinutes(after));
+    }
+}
@@ -0,0 +1,74 @@
+package com.planiarback.planiar.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlotBitsTest {
+
+    // 5-minute days: 288 slots over 5 words, the last one only half used
+    private static final SlotGranularity FIVE = SlotGranularity.FIVE;
+
+    @Test
+    void rangesCrossWordBoundaries() {
+        long[] words = new long[2 * FIVE.wordsPerDay()];
+        int day1 = FIVE.wordsPerDay();
+        SlotBits.setRange(words, day1, 60, 200);
+
+        assertFalse(SlotBits.get(words, day1, 59));
+        assertTrue(SlotBits.get(words, day1, 60));
+        assertTrue(SlotBits.get(words, day1, 63));
+        assertTrue(SlotBits.get(words, day1, 64));
+        assertTrue(SlotBits.get(words, day1, 199));
+        assertFalse(SlotBits.get(words, day1, 200));
+        assertEquals(140, SlotBits.count(words, day1, FIVE.wordsPerDay()));
+        assertTrue(SlotBits.isEmpty(words, 0, FIVE.wordsPerDay()), "day 0 untouched");
+    }
+
+    @Test
+    void fullWordsAndWholeDay() {
+        long[] words = new long[FIVE.wordsPerDay()];
+        SlotBits.setRange(words, 0, 0, FIVE.slotsPerDay());
+        assertEquals(-1L, words[0]);
+        assertEquals(-1L, words[3]);
+        assertEquals(0xFFFFFFFFL, words[4]);
+        assertEquals(FIVE.slotsPerDay(), SlotBits.count(words, 0, FIVE.wordsPerDay()));
+        assertEquals(FIVE.slotsPerDay(), SlotBits.nextClear(words, 0, FIVE.slotsPerDay(), 0));
+    }
+
+    @Test
+    void runsStopAtTheEndOfTheDay() {
+        long[] words = new long[FIVE.wordsPerDay()];
+        SlotBits.setRange(words, 0, 0, 12);
+        SlotBits.setRange(words, 0, 63, 65);
+        SlotBits.setRange(words, 0, 280, 288);
+
+        List<int[]> runs = SlotBits.runs(words, 0, FIVE.slotsPerDay());
+        assertEquals(3, runs.size());
+        assertArrayEquals(new int[]{0, 12}, runs.get(0));
+        assertArrayEquals(new int[]{63, 65}, runs.get(1));
+        assertArrayEquals(new int[]{280, 288}, runs.get(2));
+        assertEquals(FIVE.slotsPerDay(), SlotBits.nextSet(words, 0, FIVE.slotsPerDay(), 288));
+        assertTrue(SlotBits.runs(new long[FIVE.wordsPerDay()], 0, FIVE.slotsPerDay()).isEmpty());
+    }
+
+    @Test
+    void bytesRoundTripAtEveryGranularity() {
+        for (SlotGranularity g : SlotGranularity.values()) {
+            long[] words = new long[g.wordsPerDay()];
+            SlotBits.setRange(words, 0, 1, 3);
+            SlotBits.setRange(words, 0, g.slotsPerDay() - 5, g.slotsPerDay());
+            byte[] bytes = new byte[g.slotsPerDay() / 8];
+            SlotBits.toBytes(words, 0, g.slotsPerDay(), bytes, 0);
+
+            long[] back = new long[g.wordsPerDay()];
+            SlotBits.fromBytes(bytes, 0, g.slotsPerDay(), back, 0);
+            assertArrayEquals(words, back, g.name());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.planiarback.planiar.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlotGranularityTest {
+
+    @Test
+    void slotsAndWordsPerDay() {
+        assertEquals(288, SlotGranularity.FIVE.slotsPerDay());
+        assertEquals(5, SlotGranularity.FIVE.wordsPerDay());
+        assertEquals(48, SlotGranularity.THIRTY.slotsPerDay());
+        assertEquals(1, SlotGranularity.THIRTY.wordsPerDay());
+        assertEquals(1, SlotGranularity.SIXTY.wordsPerDay());
+        assertEquals(SlotGranularity.FIFTEEN, SlotGranularity.ofMinutes(15));
+        assertThrows(IllegalArgumentException.class, () -> SlotGranularity.ofMinutes(20));
+    }
+
+    @Test
+    void storedLengthIdentifiesTheGranularity() {
+        Set<Integer> maskLengths = new HashSet<>();
+        Set<Integer> countLengths = new HashSet<>();
+        for (SlotGranularity g : SlotGranularity.values()) {
+            int mask = 7 * g.slotsPerDay() / 8;
+            int counts = 7 * g.slotsPerDay() * 2;
+            assertEquals(g, SlotGranularity.forBytes(mask, 7, 1));
+            assertEquals(g, SlotGranularity.forBytes(counts, 7, 16));
+            assertTrue(maskLengths.add(mask) && countLengths.add(counts), g.name());
+        }
+        assertEquals(42, 7 * SlotGranularity.DEFAULT.slotsPerDay() / 8);
+        assertNull(SlotGranularity.forBytes(43, 7, 1));
+    }
+
+    @Test
+    void touchedAndInsideSlots() {
+        SlotGranularity g = SlotGranularity.THIRTY;
+        // 10:10-11:20 blocks 10:00-11:30 but only frees 10:30-11:00
+        assertEquals(20, g.firstTouched(610));
+        assertEquals(23, g.endTouched(680));
+        assertEquals(21, g.firstInside(610));
+        assertEquals(22, g.endInside(680));
+        assertEquals(48, g.endTouched(1440));
+        assertEquals(48, g.endInside(1440));
+        assertEquals(2, g.slotsFor(31));
+    }
+
+    @Test
+    void lastSlotEndsAtMidnight() {
+        assertEquals("00:00-00:05", SlotGranularity.FIVE.label(0));
+        assertEquals("23:55-00:00", SlotGranularity.FIVE.label(287));
+        assertEquals("23:30-00:00", SlotGranularity.THIRTY.label(47));
+        assertEquals("23:00-00:00", SlotGranularity.SIXTY.label(23));
+    }
+}